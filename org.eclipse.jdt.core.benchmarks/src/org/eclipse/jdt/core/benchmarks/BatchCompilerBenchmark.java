@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.benchmarks;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.core.compiler.batch.BatchCompiler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the batch compiler ({@link BatchCompiler}, i.e. {@link org.eclipse.jdt.internal.compiler.batch.Main})
+ * end-to-end, from reading the sources of the corpus from disk to writing the class files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BatchCompilerBenchmark {
+
+	@Param("260")
+	public int units;
+
+	/** whether the class files are written to disk (or only generated) */
+	@Param({ "true", "false" })
+	public boolean write;
+
+	private Path directory;
+	private String[] arguments;
+
+	@Setup
+	public void setUp() throws IOException {
+		this.directory = Files.createTempDirectory("jdt-benchmark"); //$NON-NLS-1$
+		Path sources = this.directory.resolve("src"); //$NON-NLS-1$
+		new SyntheticCorpus(this.units, false).writeTo(sources);
+		this.arguments = new String[] {
+			"-" + BenchmarkCompiler.COMPLIANCE, //$NON-NLS-1$
+			"-proc:none", //$NON-NLS-1$
+			"-nowarn", //$NON-NLS-1$
+			"-encoding", "UTF-8", //$NON-NLS-1$ //$NON-NLS-2$
+			"-d", this.write ? this.directory.resolve("bin").toString() : "none", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			sources.toString()
+		};
+	}
+
+	@Benchmark
+	public boolean compile() {
+		StringWriter errors = new StringWriter();
+		boolean success = BatchCompiler.compile(this.arguments, new PrintWriter(new StringWriter()), new PrintWriter(errors), null);
+		if (!success)
+			throw new IllegalStateException(errors.toString());
+		return success;
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		try (Stream<Path> files = Files.walk(this.directory)) {
+			files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+		}
+	}
+}
@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.benchmarks;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.eclipse.jdt.internal.compiler.CompilationResult;
+import org.eclipse.jdt.internal.compiler.Compiler;
+import org.eclipse.jdt.internal.compiler.DefaultErrorHandlingPolicies;
+import org.eclipse.jdt.internal.compiler.ICompilerRequestor;
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.batch.FileSystem;
+import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
+import org.eclipse.jdt.internal.compiler.env.INameEnvironment;
+import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.jdt.internal.compiler.problem.DefaultProblemFactory;
+
+/**
+ * Compiler which exposes its phases, so that the benchmarks can measure them separately.
+ */
+class BenchmarkCompiler extends Compiler {
+
+	static final String COMPLIANCE = CompilerOptions.VERSION_17;
+
+	private static final ICompilerRequestor NO_OP_REQUESTOR = result -> {
+		// class files are not written
+	};
+
+	BenchmarkCompiler(INameEnvironment environment) {
+		super(environment,
+				DefaultErrorHandlingPolicies.proceedWithAllProblems(),
+				new CompilerOptions(getOptions()),
+				NO_OP_REQUESTOR,
+				new DefaultProblemFactory(Locale.ENGLISH),
+				new PrintWriter(new StringWriter()),
+				null /* no progress */);
+	}
+
+	static Map<String, String> getOptions() {
+		Map<String, String> options = new HashMap<>();
+		options.put(CompilerOptions.OPTION_Compliance, COMPLIANCE);
+		options.put(CompilerOptions.OPTION_Source, COMPLIANCE);
+		options.put(CompilerOptions.OPTION_TargetPlatform, COMPLIANCE);
+		options.put(CompilerOptions.OPTION_LineNumberAttribute, CompilerOptions.GENERATE);
+		options.put(CompilerOptions.OPTION_SourceFileAttribute, CompilerOptions.GENERATE);
+		options.put(CompilerOptions.OPTION_LocalVariableAttribute, CompilerOptions.GENERATE);
+		return options;
+	}
+
+	/**
+	 * Answers a name environment for the system library of the running JVM.
+	 */
+	static FileSystem newNameEnvironment() {
+		String jrt = System.getProperty("java.home") + File.separator + "lib" + File.separator + "jrt-fs.jar"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		return new FileSystem(new String[] { jrt }, null, "UTF-8"); //$NON-NLS-1$
+	}
+
+	/**
+	 * Diet parses the given units and builds their type bindings, without completing them.
+	 */
+	CompilationUnitDeclaration[] buildTypeBindings(ICompilationUnit[] sourceUnits) {
+		this.totalUnits = 0;
+		this.unitsToProcess = new CompilationUnitDeclaration[sourceUnits.length];
+		for (int i = 0; i < sourceUnits.length; i++) {
+			CompilationResult unitResult = new CompilationResult(sourceUnits[i], i, sourceUnits.length, this.options.maxProblemsPerUnit);
+			CompilationUnitDeclaration parsedUnit = this.parser.dietParse(sourceUnits[i], unitResult);
+			this.lookupEnvironment.buildTypeBindings(parsedUnit, null /* no access restriction */);
+			addCompilationUnit(sourceUnits[i], parsedUnit);
+		}
+		return Arrays.copyOf(this.unitsToProcess, this.totalUnits);
+	}
+
+	/**
+	 * Diet parses the given units, builds and completes their type bindings.
+	 */
+	CompilationUnitDeclaration[] completeTypeBindings(ICompilationUnit[] sourceUnits) {
+		CompilationUnitDeclaration[] units = buildTypeBindings(sourceUnits);
+		this.lookupEnvironment.completeTypeBindings();
+		return units;
+	}
+
+	/**
+	 * Parses the method bodies of the given unit and resolves it, see {@link Compiler#process(CompilationUnitDeclaration, int)}.
+	 */
+	void resolve(CompilationUnitDeclaration unit) {
+		this.lookupEnvironment.unitBeingCompleted = unit;
+		this.parser.getMethodBodies(unit);
+		if (unit.scope != null) {
+			unit.scope.faultInTypes();
+			unit.scope.verifyMethods(this.lookupEnvironment.methodVerifier());
+		}
+		unit.resolve();
+		this.lookupEnvironment.unitBeingCompleted = null;
+	}
+
+	/**
+	 * Resolves and analyzes the given unit, so that its code can be generated.
+	 */
+	void analyze(CompilationUnitDeclaration unit) {
+		resolve(unit);
+		this.lookupEnvironment.unitBeingCompleted = unit;
+		unit.analyseCode();
+		this.lookupEnvironment.unitBeingCompleted = null;
+	}
+
+	/**
+	 * Answers the errors of the given units, which would make the measurements meaningless, or <code>null</code>.
+	 */
+	static String getErrors(CompilationUnitDeclaration[] units) {
+		StringBuilder errors = new StringBuilder();
+		for (CompilationUnitDeclaration unit : units) {
+			if (unit.compilationResult.hasErrors()) {
+				errors.append(unit.getFileName()).append(": ") //$NON-NLS-1$
+					.append(Arrays.toString(unit.compilationResult.getErrors())).append('\n');
+			}
+		}
+		return errors.length() == 0 ? null : errors.toString();
+	}
+}
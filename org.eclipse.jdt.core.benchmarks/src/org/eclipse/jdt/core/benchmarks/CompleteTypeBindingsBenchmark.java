@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.internal.compiler.batch.FileSystem;
+import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
+import org.eclipse.jdt.internal.compiler.lookup.LookupEnvironment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link LookupEnvironment#completeTypeBindings()} of the diet parsed units of the corpus, which connects
+ * the type hierarchies and builds the member bindings of the types.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 20)
+@Measurement(iterations = 20)
+@Fork(1)
+public class CompleteTypeBindingsBenchmark {
+
+	@Param("260")
+	public int units;
+
+	private SyntheticCorpus corpus;
+	private FileSystem environment;
+	private BenchmarkCompiler compiler;
+
+	@Setup
+	public void setUp() {
+		this.corpus = new SyntheticCorpus(this.units, false);
+		this.environment = BenchmarkCompiler.newNameEnvironment();
+	}
+
+	@Setup(Level.Invocation)
+	public void buildTypeBindings() {
+		ICompilationUnit[] sourceUnits = this.corpus.getCompilationUnits();
+		this.compiler = new BenchmarkCompiler(this.environment);
+		this.compiler.buildTypeBindings(sourceUnits);
+	}
+
+	@Benchmark
+	public LookupEnvironment completeTypeBindings() {
+		this.compiler.lookupEnvironment.completeTypeBindings();
+		return this.compiler.lookupEnvironment;
+	}
+
+	@TearDown(Level.Invocation)
+	public void reset() {
+		this.compiler.reset();
+		this.compiler = null;
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.environment.cleanup();
+	}
+}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.batch.FileSystem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the resolution of method bodies made of generic method calls, lambdas and method references, which is
+ * dominated by the type inference of {@link org.eclipse.jdt.internal.compiler.lookup.InferenceContext18}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@Fork(1)
+public class InferenceBenchmark {
+
+	@Param("130")
+	public int units;
+
+	private SyntheticCorpus corpus;
+	private FileSystem environment;
+	private BenchmarkCompiler compiler;
+	private CompilationUnitDeclaration[] unitDeclarations;
+
+	@Setup
+	public void setUp() {
+		this.corpus = new SyntheticCorpus(this.units, true);
+		this.environment = BenchmarkCompiler.newNameEnvironment();
+	}
+
+	@Setup(Level.Invocation)
+	public void completeTypeBindings() {
+		this.compiler = new BenchmarkCompiler(this.environment);
+		this.unitDeclarations = this.compiler.completeTypeBindings(this.corpus.getCompilationUnits());
+	}
+
+	@Benchmark
+	public CompilationUnitDeclaration[] resolve() {
+		for (CompilationUnitDeclaration unit : this.unitDeclarations)
+			this.compiler.resolve(unit);
+		return this.unitDeclarations;
+	}
+
+	@TearDown(Level.Invocation)
+	public void reset() {
+		String errors = BenchmarkCompiler.getErrors(this.unitDeclarations);
+		if (errors != null)
+			throw new IllegalStateException(errors);
+		this.compiler.reset();
+		this.compiler = null;
+		this.unitDeclarations = null;
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.environment.cleanup();
+	}
+}
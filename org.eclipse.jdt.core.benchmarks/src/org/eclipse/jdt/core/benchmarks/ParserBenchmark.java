@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.internal.compiler.CompilationResult;
+import org.eclipse.jdt.internal.compiler.DefaultErrorHandlingPolicies;
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
+import org.eclipse.jdt.internal.compiler.impl.CompilerOptions;
+import org.eclipse.jdt.internal.compiler.parser.Parser;
+import org.eclipse.jdt.internal.compiler.problem.DefaultProblemFactory;
+import org.eclipse.jdt.internal.compiler.problem.ProblemReporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link Parser#parse(ICompilationUnit, CompilationResult)} (with method bodies) and
+ * {@link Parser#dietParse(ICompilationUnit, CompilationResult)} over all the sources of the corpus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+
+	@Param("260")
+	public int units;
+
+	private ICompilationUnit[] sourceUnits;
+	private CompilerOptions options;
+
+	@Setup
+	public void setUp() {
+		this.sourceUnits = new SyntheticCorpus(this.units, false).getCompilationUnits();
+		this.options = new CompilerOptions(BenchmarkCompiler.getOptions());
+	}
+
+	private Parser newParser() {
+		ProblemReporter problemReporter = new ProblemReporter(DefaultErrorHandlingPolicies.proceedWithAllProblems(),
+				this.options, new DefaultProblemFactory());
+		return new Parser(problemReporter, this.options.parseLiteralExpressionsAsConstants);
+	}
+
+	@Benchmark
+	public void parse(Blackhole blackhole) {
+		Parser parser = newParser();
+		for (int i = 0; i < this.sourceUnits.length; i++) {
+			CompilationResult result = new CompilationResult(this.sourceUnits[i], i, this.sourceUnits.length, this.options.maxProblemsPerUnit);
+			CompilationUnitDeclaration unit = parser.parse(this.sourceUnits[i], result);
+			blackhole.consume(unit);
+		}
+	}
+
+	@Benchmark
+	public void dietParse(Blackhole blackhole) {
+		Parser parser = newParser();
+		for (int i = 0; i < this.sourceUnits.length; i++) {
+			CompilationResult result = new CompilationResult(this.sourceUnits[i], i, this.sourceUnits.length, this.options.maxProblemsPerUnit);
+			CompilationUnitDeclaration unit = parser.dietParse(this.sourceUnits[i], result);
+			blackhole.consume(unit);
+		}
+	}
+}
@@ -0,0 +1,239 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.jdt.internal.compiler.batch.CompilationUnit;
+import org.eclipse.jdt.internal.compiler.env.ICompilationUnit;
+
+/**
+ * Generates a deterministic corpus of compilable Java 17 sources, so the benchmarks do not depend on a downloaded
+ * workspace.
+ * <p>
+ * Each package declares an interface, an abstract base class and records, and classes implementing and extending
+ * them and the types of the previous package. Method bodies mix loops, switches, exceptions, string concatenation,
+ * inner and anonymous classes and generic code, and - when {@link #inferenceHeavy} is set - chains of generic method
+ * calls, lambdas and method references which keep the type inference busy.
+ * </p>
+ */
+public class SyntheticCorpus {
+
+	private static final long SEED = 42;
+
+	private final int packageCount;
+	private final int classesPerPackage;
+	private final boolean inferenceHeavy;
+	private final Map<String, String> sources = new LinkedHashMap<>();
+
+	/**
+	 * @param unitCount approximate number of compilation units to generate
+	 * @param inferenceHeavy whether the method bodies should mostly consist of generic code to infer
+	 */
+	public SyntheticCorpus(int unitCount, boolean inferenceHeavy) {
+		this.classesPerPackage = 10;
+		this.packageCount = Math.max(1, unitCount / (this.classesPerPackage + 3));
+		this.inferenceHeavy = inferenceHeavy;
+		Random random = new Random(SEED);
+		for (int p = 0; p < this.packageCount; p++)
+			generatePackage(p, random);
+	}
+
+	/**
+	 * Answers the sources by file name relative to the source folder (e.g. <code>p0/C1.java</code>).
+	 */
+	public Map<String, String> getSources() {
+		return this.sources;
+	}
+
+	/**
+	 * Answers the contents of all compilation units.
+	 */
+	public char[][] getContents() {
+		char[][] contents = new char[this.sources.size()][];
+		int i = 0;
+		for (String source : this.sources.values())
+			contents[i++] = source.toCharArray();
+		return contents;
+	}
+
+	/**
+	 * Answers new compilation units, which the compiler may consume.
+	 */
+	public ICompilationUnit[] getCompilationUnits() {
+		List<ICompilationUnit> units = new ArrayList<>(this.sources.size());
+		for (Map.Entry<String, String> entry : this.sources.entrySet())
+			units.add(new CompilationUnit(entry.getValue().toCharArray(), entry.getKey(), "UTF-8")); //$NON-NLS-1$
+		return units.toArray(new ICompilationUnit[units.size()]);
+	}
+
+	/**
+	 * Writes the sources below the given directory.
+	 */
+	public void writeTo(Path directory) throws IOException {
+		for (Map.Entry<String, String> entry : this.sources.entrySet()) {
+			Path file = directory.resolve(entry.getKey());
+			Files.createDirectories(file.getParent());
+			Files.writeString(file, entry.getValue(), StandardCharsets.UTF_8);
+		}
+	}
+
+	private void generatePackage(int p, Random random) {
+		String pkg = "p" + p; //$NON-NLS-1$
+		String previous = p == 0 ? null : "p" + (p - 1); //$NON-NLS-1$
+
+		StringBuilder b = new StringBuilder();
+		b.append("package ").append(pkg).append(";\n\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		b.append("import java.util.List;\n\n"); //$NON-NLS-1$
+		b.append("public interface Service<T extends Comparable<T>> {\n"); //$NON-NLS-1$
+		b.append("\tT id();\n"); //$NON-NLS-1$
+		b.append("\tList<T> related(int depth);\n"); //$NON-NLS-1$
+		b.append("\tdefault String describe() {\n\t\treturn getClass().getSimpleName() + '#' + id();\n\t}\n"); //$NON-NLS-1$
+		b.append("}\n"); //$NON-NLS-1$
+		this.sources.put(pkg + "/Service.java", b.toString()); //$NON-NLS-1$
+
+		b.setLength(0);
+		b.append("package ").append(pkg).append(";\n\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		b.append("public record Item(String name, int weight, double price) implements Comparable<Item> {\n"); //$NON-NLS-1$
+		b.append("\tpublic Item {\n\t\tif (weight < 0)\n\t\t\tthrow new IllegalArgumentException(name);\n\t}\n"); //$NON-NLS-1$
+		b.append("\t@Override\n\tpublic int compareTo(Item other) {\n"); //$NON-NLS-1$
+		b.append("\t\tint result = Integer.compare(this.weight, other.weight);\n"); //$NON-NLS-1$
+		b.append("\t\treturn result != 0 ? result : this.name.compareTo(other.name);\n\t}\n"); //$NON-NLS-1$
+		b.append("}\n"); //$NON-NLS-1$
+		this.sources.put(pkg + "/Item.java", b.toString()); //$NON-NLS-1$
+
+		b.setLength(0);
+		b.append("package ").append(pkg).append(";\n\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		b.append("import java.util.*;\n\n"); //$NON-NLS-1$
+		b.append("public abstract class Base<T extends Comparable<T>> implements Service<T> {\n"); //$NON-NLS-1$
+		b.append("\tprotected final Map<String, List<Item>> items = new HashMap<>();\n"); //$NON-NLS-1$
+		b.append("\tprotected int counter;\n\n"); //$NON-NLS-1$
+		b.append("\tprotected abstract T create(int seed);\n\n"); //$NON-NLS-1$
+		b.append("\t@Override\n\tpublic List<T> related(int depth) {\n"); //$NON-NLS-1$
+		b.append("\t\tList<T> result = new ArrayList<>();\n"); //$NON-NLS-1$
+		b.append("\t\tfor (int i = 0; i < depth; i++)\n\t\t\tresult.add(create(i * 31 + this.counter++));\n"); //$NON-NLS-1$
+		b.append("\t\tCollections.sort(result);\n\t\treturn result;\n\t}\n\n"); //$NON-NLS-1$
+		b.append("\tprotected void add(String key, Item item) {\n"); //$NON-NLS-1$
+		b.append("\t\tthis.items.computeIfAbsent(key, k -> new ArrayList<>()).add(item);\n\t}\n"); //$NON-NLS-1$
+		if (previous != null) {
+			b.append("\n\tprotected ").append(previous).append(".Item convert(Item item) {\n"); //$NON-NLS-1$ //$NON-NLS-2$
+			b.append("\t\treturn new ").append(previous).append(".Item(item.name(), item.weight(), item.price());\n\t}\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		b.append("}\n"); //$NON-NLS-1$
+		this.sources.put(pkg + "/Base.java", b.toString()); //$NON-NLS-1$
+
+		for (int c = 0; c < this.classesPerPackage; c++)
+			this.sources.put(pkg + "/C" + c + ".java", generateClass(pkg, previous, c, random)); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private String generateClass(String pkg, String previous, int c, Random random) {
+		String name = "C" + c; //$NON-NLS-1$
+		StringBuilder b = new StringBuilder(4096);
+		b.append("package ").append(pkg).append(";\n\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		b.append("import java.util.*;\n"); //$NON-NLS-1$
+		b.append("import java.util.function.*;\n"); //$NON-NLS-1$
+		b.append("import java.util.stream.*;\n\n"); //$NON-NLS-1$
+		b.append("/**\n * Generated class ").append(name).append(".\n */\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		b.append("public class ").append(name).append(" extends Base<String> {\n\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		b.append("\tprivate static final int LIMIT = ").append(100 + random.nextInt(900)).append(";\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		b.append("\tprivate final List<Item> cache = new ArrayList<>();\n"); //$NON-NLS-1$
+		if (c > 0)
+			b.append("\tprivate final C").append(c - 1).append(" delegate = new C").append(c - 1).append("();\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		if (previous != null)
+			b.append("\tprivate final ").append(previous).append(".C").append(c).append(" parent = new ") //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				.append(previous).append(".C").append(c).append("();\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		b.append('\n');
+
+		b.append("\t@Override\n\tpublic String id() {\n\t\treturn \"").append(pkg).append('.').append(name).append("\";\n\t}\n\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		b.append("\t@Override\n\tprotected String create(int seed) {\n\t\treturn id() + '-' + Integer.toHexString(seed);\n\t}\n\n"); //$NON-NLS-1$
+
+		int methods = 4 + random.nextInt(4);
+		for (int m = 0; m < methods; m++) {
+			if (this.inferenceHeavy || random.nextInt(3) == 0)
+				appendGenericMethod(b, m, random);
+			else
+				appendImperativeMethod(b, m, random);
+		}
+		b.append("\tpublic int compute(int input) {\n\t\tint result = input;\n"); //$NON-NLS-1$
+		for (int m = 0; m < methods; m++)
+			b.append("\t\tresult += m").append(m).append("(result).size();\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		if (c > 0)
+			b.append("\t\tresult ^= this.delegate.compute(result & 7);\n"); //$NON-NLS-1$
+		if (previous != null)
+			b.append("\t\tresult ^= this.parent.compute(result & 3);\n"); //$NON-NLS-1$
+		b.append("\t\treturn result;\n\t}\n\n"); //$NON-NLS-1$
+
+		b.append("\tstatic class Node<K extends Comparable<K>, V> {\n"); //$NON-NLS-1$
+		b.append("\t\tfinal K key;\n\t\tV value;\n\t\tNode<K, V> left, right;\n\n"); //$NON-NLS-1$
+		b.append("\t\tNode(K key, V value) {\n\t\t\tthis.key = key;\n\t\t\tthis.value = value;\n\t\t}\n\n"); //$NON-NLS-1$
+		b.append("\t\tNode<K, V> insert(K k, V v) {\n"); //$NON-NLS-1$
+		b.append("\t\t\tint cmp = k.compareTo(this.key);\n"); //$NON-NLS-1$
+		b.append("\t\t\tif (cmp < 0)\n\t\t\t\tthis.left = this.left == null ? new Node<>(k, v) : this.left.insert(k, v);\n"); //$NON-NLS-1$
+		b.append("\t\t\telse if (cmp > 0)\n\t\t\t\tthis.right = this.right == null ? new Node<>(k, v) : this.right.insert(k, v);\n"); //$NON-NLS-1$
+		b.append("\t\t\telse\n\t\t\t\tthis.value = v;\n\t\t\treturn this;\n\t\t}\n\t}\n"); //$NON-NLS-1$
+		b.append("}\n"); //$NON-NLS-1$
+		return b.toString();
+	}
+
+	private void appendImperativeMethod(StringBuilder b, int m, Random random) {
+		b.append("\tpublic List<Item> m").append(m).append("(int n) {\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		b.append("\t\tList<Item> result = new ArrayList<>();\n"); //$NON-NLS-1$
+		b.append("\t\tStringBuilder buffer = new StringBuilder();\n"); //$NON-NLS-1$
+		b.append("\t\tfor (int i = 0; i < n % LIMIT; i++) {\n"); //$NON-NLS-1$
+		b.append("\t\t\tswitch (i % ").append(3 + random.nextInt(5)).append(") {\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		b.append("\t\t\t\tcase 0:\n\t\t\t\t\tbuffer.append(\"zero\").append(i);\n\t\t\t\t\tbreak;\n"); //$NON-NLS-1$
+		b.append("\t\t\t\tcase 1:\n\t\t\t\t\tbuffer.setLength(0);\n\t\t\t\t\tbreak;\n"); //$NON-NLS-1$
+		b.append("\t\t\t\tdefault:\n\t\t\t\t\tbuffer.append(i * ").append(random.nextInt(100)).append(");\n\t\t\t}\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		b.append("\t\t\ttry {\n"); //$NON-NLS-1$
+		b.append("\t\t\t\tItem item = new Item(\"item\" + i + buffer.length(), i, i / 3.0);\n"); //$NON-NLS-1$
+		b.append("\t\t\t\tif (item.weight() > ").append(random.nextInt(50)).append(" && !this.cache.contains(item))\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		b.append("\t\t\t\t\tresult.add(item);\n"); //$NON-NLS-1$
+		b.append("\t\t\t} catch (IllegalArgumentException e) {\n\t\t\t\tbuffer.append(e.getMessage());\n"); //$NON-NLS-1$
+		b.append("\t\t\t} finally {\n\t\t\t\tthis.counter++;\n\t\t\t}\n"); //$NON-NLS-1$
+		b.append("\t\t}\n"); //$NON-NLS-1$
+		b.append("\t\tRunnable task = new Runnable() {\n\t\t\t@Override\n\t\t\tpublic void run() {\n"); //$NON-NLS-1$
+		b.append("\t\t\t\tadd(id(), new Item(\"task\", 1, 1.0));\n\t\t\t}\n\t\t};\n"); //$NON-NLS-1$
+		b.append("\t\ttask.run();\n"); //$NON-NLS-1$
+		b.append("\t\treturn result;\n\t}\n\n"); //$NON-NLS-1$
+	}
+
+	private void appendGenericMethod(StringBuilder b, int m, Random random) {
+		b.append("\tpublic List<Item> m").append(m).append("(int n) {\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		b.append("\t\tMap<Boolean, List<Item>> parts = IntStream.range(0, n % LIMIT)\n"); //$NON-NLS-1$
+		b.append("\t\t\t.mapToObj(i -> new Item(create(i), i, i * ").append(random.nextInt(10) + 1).append(".5))\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		b.append("\t\t\t.filter(item -> item.weight() % ").append(2 + random.nextInt(5)).append(" != 0)\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		b.append("\t\t\t.sorted(Comparator.comparing(Item::price).thenComparing(Item::name, Comparator.reverseOrder()))\n"); //$NON-NLS-1$
+		b.append("\t\t\t.collect(Collectors.partitioningBy(item -> item.price() > ").append(random.nextInt(100)).append("));\n"); //$NON-NLS-1$ //$NON-NLS-2$
+		b.append("\t\tMap<String, Double> totals = parts.values().stream()\n"); //$NON-NLS-1$
+		b.append("\t\t\t.flatMap(List::stream)\n"); //$NON-NLS-1$
+		b.append("\t\t\t.collect(Collectors.groupingBy(item -> item.name().substring(0, 2), TreeMap::new,\n"); //$NON-NLS-1$
+		b.append("\t\t\t\tCollectors.summingDouble(Item::price)));\n"); //$NON-NLS-1$
+		b.append("\t\tFunction<Item, Optional<String>> namer = item -> Optional.of(item).map(Item::name).filter(s -> !s.isEmpty());\n"); //$NON-NLS-1$
+		b.append("\t\tBiFunction<List<Item>, Predicate<Item>, List<Item>> select = (list, p) -> list.stream().filter(p).collect(Collectors.toList());\n"); //$NON-NLS-1$
+		b.append("\t\tList<Item> result = select.apply(parts.getOrDefault(Boolean.TRUE, List.of()), item -> namer.apply(item).isPresent());\n"); //$NON-NLS-1$
+		b.append("\t\ttotals.forEach((k, v) -> add(k, new Item(k, v.intValue(), v)));\n"); //$NON-NLS-1$
+		b.append("\t\tNode<String, List<Item>> tree = result.stream().reduce(new Node<>(\"\", new ArrayList<>()),\n"); //$NON-NLS-1$
+		b.append("\t\t\t(node, item) -> node.insert(item.name(), List.of(item)), (a, c) -> a);\n"); //$NON-NLS-1$
+		b.append("\t\treturn tree.right == null ? result : Stream.concat(result.stream(), tree.right.value.stream()).toList();\n"); //$NON-NLS-1$
+		b.append("\t}\n\n"); //$NON-NLS-1$
+	}
+}
@@ -382,7 +382,8 @@ public void record(CategorizedProblem newProblem, ReferenceContext referenceCont
 	return;
 }
 
-public void record(CategorizedProblem newProblem, ReferenceContext referenceContext, boolean mandatoryError) {
+// synchronized since problems of a unit which is parsed ahead (see ParseManager) can be recorded by two threads
+public synchronized void record(CategorizedProblem newProblem, ReferenceContext referenceContext, boolean mandatoryError) {
 	//new Exception("VERBOSE PROBLEM REPORTING").printStackTrace();
 	if(newProblem.getID() == IProblem.Task) {
 		recordTask(newProblem);
@@ -57,6 +57,9 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 	public int annotationProcessorStartIndex = 0;
 	public ReferenceBinding[] referenceBindings;
 	public boolean useSingleThread = true; // by default the compiler will not use worker threads to read/process/write
+	public int parseAheadThreads = 0; // number of worker threads parsing method bodies ahead of processing (0: none)
+	private volatile ParseManager parseManager;
+	public ICompilerInstrumentation instrumentation; // notified of the phases completed for each unit (null: none)
 
 	// number of initial units parsed at once (-1: none)
 
@@ -554,7 +557,11 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 	protected void processCompiledUnits(int startingIndex, boolean lastRound) throws java.lang.Error {
 		CompilationUnitDeclaration unit = null;
 		ProcessTaskManager processingTask = null;
+		ParseManager parseAhead = null;
 		try {
+			if (this.parseAheadThreads > 0) {
+				this.parseManager = parseAhead = new ParseManager(this, startingIndex, this.parseAheadThreads);
+			}
 			if (this.useSingleThread) {
 				// process all units (some more could be injected in the loop by the lookup environment)
 				for (int i = startingIndex; i < this.totalUnits; i++) {
@@ -584,7 +591,10 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 					reportWorked(1, i);
 					this.stats.lineCount += unit.compilationResult.lineSeparatorPositions.length;
 					long acceptStart = System.currentTimeMillis();
+					PhaseProbe probe = newPhaseProbe();
 					this.requestor.acceptResult(unit.compilationResult.tagAsAccepted());
+					if (probe != null)
+						probe.end(unit, ICompilerInstrumentation.Phase.WRITE);
 					this.stats.generateTime += System.currentTimeMillis() - acceptStart; // record accept time as part of generation
 					if (this.options.verbose)
 						this.out.println(
@@ -611,7 +621,10 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 					if (unit == null) break;
 					reportWorked(1, acceptedCount++);
 					this.stats.lineCount += unit.compilationResult.lineSeparatorPositions.length;
+					PhaseProbe probe = newPhaseProbe();
 					this.requestor.acceptResult(unit.compilationResult.tagAsAccepted());
+					if (probe != null)
+						probe.end(unit, ICompilerInstrumentation.Phase.WRITE);
 					if (this.options.verbose)
 						this.out.println(
 							Messages.bind(Messages.compilation_done,
@@ -622,6 +635,11 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 							}));
 				}
 			}
+			if (parseAhead != null) {
+				// all units are processed, no worker may touch them during annotation processing
+				parseAhead.shutdown();
+				this.parseManager = parseAhead = null;
+			}
 			if (!lastRound) {
 				if (this.annotationProcessorManager != null && this.totalUnits > this.annotationProcessorStartIndex) {
 					int backup = this.annotationProcessorStartIndex;
@@ -644,6 +662,10 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 				processingTask.shutdown();
 				processingTask = null;
 			}
+			if (parseAhead != null) {
+				parseAhead.shutdown();
+				this.parseManager = null;
+			}
 			reset();
 			this.annotationProcessorStartIndex  = 0;
 			this.stats.endTime = System.currentTimeMillis();
@@ -662,6 +684,15 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 		return null;
 	}
 
+	/*
+	 * Answers the unit at the given index without releasing it, or null if there is none (yet).
+	 */
+	synchronized CompilationUnitDeclaration peekUnitToProcess(int index) {
+		if (this.unitsToProcess != null && index < this.totalUnits)
+			return this.unitsToProcess[index];
+		return null;
+	}
+
 	/*
 	 * Returns whether the compilation unit at the given index should be
 	 * cleaned up after processing. This basically means whether or not
@@ -803,6 +834,17 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 		this.parser = new Parser(this.problemReporter, this.options.parseLiteralExpressionsAsConstants);
 	}
 
+	/**
+	 * Answer a new parser used by a worker thread to parse method bodies ahead of processing
+	 * (see {@link #parseAheadThreads}). It must not share any state with {@link #parser}, in
+	 * particular not its problem reporter. Subclasses which install a specialized parser in
+	 * {@link #initializeParser()} must answer the same kind of parser before parsing ahead.
+	 */
+	protected Parser newMethodBodyParser() {
+		ProblemReporter reporter = new ProblemReporter(this.problemReporter.policy, this.options, this.problemReporter.problemFactory);
+		return new Parser(reporter, this.options.parseLiteralExpressionsAsConstants);
+	}
+
 	private  void abortIfPreviewNotAllowed(ICompilationUnit[] sourceUnits, int maxUnits) {
 		if (!this.options.enablePreviewFeatures)
 			return;
@@ -826,6 +868,7 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 		abortIfPreviewNotAllowed(sourceUnits,maxUnits);
 		if (!this.useSingleThread)
 			this.parser.readManager = new ReadManager(sourceUnits, maxUnits);
+		PhaseProbe probe = newPhaseProbe();
 		try {
 			// Switch the current policy and compilation result for this unit to the requested one.
 			for (int i = 0; i < maxUnits; i++) {
@@ -844,6 +887,8 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 					CompilationUnitDeclaration parsedUnit;
 					unitResult = new CompilationResult(sourceUnits[i], i, maxUnits, this.options.maxProblemsPerUnit);
 					long parseStart = System.currentTimeMillis();
+					if (probe != null)
+						probe.start();
 					if (this.totalUnits < this.parseThreshold) {
 						parsedUnit = this.parser.parse(sourceUnits[i], unitResult);
 					} else {
@@ -851,9 +896,13 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 					}
 					long resolveStart = System.currentTimeMillis();
 					this.stats.parseTime += resolveStart - parseStart;
+					if (probe != null)
+						probe.end(parsedUnit, ICompilerInstrumentation.Phase.PARSE);
 					// initial type binding creation
 					this.lookupEnvironment.buildTypeBindings(parsedUnit, null /*no access restriction*/);
 					this.stats.resolveTime += System.currentTimeMillis() - resolveStart;
+					if (probe != null)
+						probe.end(parsedUnit, ICompilerInstrumentation.Phase.RESOLVE);
 					addCompilationUnit(sourceUnits[i], parsedUnit);
 					ImportReference currentPackage = parsedUnit.currentPackage;
 					if (currentPackage != null) {
@@ -877,7 +926,16 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 			}
 		}
 		// binding resolution
+		if (probe != null)
+			probe.start();
 		this.lookupEnvironment.completeTypeBindings();
+		if (probe != null)
+			probe.end(null, ICompilerInstrumentation.Phase.RESOLVE);
+	}
+
+	private PhaseProbe newPhaseProbe() {
+		ICompilerInstrumentation currentInstrumentation = this.instrumentation;
+		return currentInstrumentation == null ? null : new PhaseProbe(currentInstrumentation, this.lookupEnvironment);
 	}
 
 	/**
@@ -886,11 +944,18 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 	public void process(CompilationUnitDeclaration unit, int i) {
 		this.lookupEnvironment.unitBeingCompleted = unit;
 		long parseStart = System.currentTimeMillis();
+		PhaseProbe probe = newPhaseProbe();
 
-		this.parser.getMethodBodies(unit);
+		ParseManager parseAhead = this.parseManager;
+		if (parseAhead != null)
+			parseAhead.getMethodBodies(unit, i);
+		else
+			this.parser.getMethodBodies(unit);
 
 		long resolveStart = System.currentTimeMillis();
 		this.stats.parseTime += resolveStart - parseStart;
+		if (probe != null)
+			probe.end(unit, ICompilerInstrumentation.Phase.PARSE);
 
 		// fault in fields & methods
 		if (unit.scope != null)
@@ -905,12 +970,16 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 
 		long analyzeStart = System.currentTimeMillis();
 		this.stats.resolveTime += analyzeStart - resolveStart;
+		if (probe != null)
+			probe.end(unit, ICompilerInstrumentation.Phase.RESOLVE);
 
 		//No need of analysis or generation of code if statements are not required
 		if (!this.options.ignoreMethodBodies) unit.analyseCode(); // flow analysis
 
 		long generateStart = System.currentTimeMillis();
 		this.stats.analyzeTime += generateStart - analyzeStart;
+		if (probe != null)
+			probe.end(unit, ICompilerInstrumentation.Phase.ANALYZE);
 
 		if (!this.options.ignoreMethodBodies) unit.generateCode(); // code generation
 
@@ -922,6 +991,8 @@ public class Compiler implements ITypeRequestor, ProblemSeverities {
 		unit.finalizeProblems();
 
 		this.stats.generateTime += System.currentTimeMillis() - generateStart;
+		if (probe != null)
+			probe.end(unit, ICompilerInstrumentation.Phase.GENERATE);
 
 		// refresh the total number of units known at this stage
 		unit.compilationResult.totalUnitsKnown = this.totalUnits;
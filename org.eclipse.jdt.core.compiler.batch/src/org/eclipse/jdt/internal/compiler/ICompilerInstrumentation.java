@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler;
+
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+
+/**
+ * Callback notified by the {@link Compiler} each time it completes a phase of the compilation of a unit, see
+ * {@link Compiler#instrumentation}. Unlike {@link org.eclipse.jdt.internal.compiler.impl.CompilerStats} which only
+ * sums up the time of each phase, it allows to find the units which dominate the compilation time.
+ * <p>
+ * A phase may complete several times for the same unit, e.g. the unit is diet parsed first and its method bodies
+ * are parsed later on. Implementations may be called from several threads.
+ * </p>
+ */
+public interface ICompilerInstrumentation {
+
+	enum Phase {
+		/** diet parsing and parsing of the method bodies */
+		PARSE,
+		/** building, completing and resolving the bindings, including type inference */
+		RESOLVE,
+		/** flow analysis */
+		ANALYZE,
+		/** code generation */
+		GENERATE,
+		/** handing over the compilation result to the {@link ICompilerRequestor}, i.e. writing the class files */
+		WRITE
+	}
+
+	/**
+	 * Notifies that the compiler completed the given phase of the given unit.
+	 *
+	 * @param unit the unit or <code>null</code> if the work done cannot be attributed to a single unit, like
+	 *  {@link org.eclipse.jdt.internal.compiler.lookup.LookupEnvironment#completeTypeBindings()}
+	 * @param phase the phase completed
+	 * @param elapsedNanos the time spent in the phase
+	 * @param allocatedBytes the bytes allocated by the current thread during the phase, or <code>-1</code> if the
+	 *  virtual machine cannot measure it
+	 * @param typeLookups the number of times the name environment was asked for a type during the phase
+	 */
+	void phaseCompleted(CompilationUnitDeclaration unit, Phase phase, long elapsedNanos, long allocatedBytes, long typeLookups);
+}
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.jdt.internal.compiler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.jdt.internal.compiler.ast.ASTNode;
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.parser.Parser;
+
+/**
+ * Parses the method bodies of diet parsed units before they are actually processed (ahead).
+ * <p>
+ * Once {@link org.eclipse.jdt.internal.compiler.lookup.LookupEnvironment#completeTypeBindings()} is done, the
+ * method bodies of a unit are only ever looked at while that unit is processed, so they can be parsed on worker
+ * threads - each unit using its own {@link Parser} - while earlier units are resolved, analyzed and generated. The
+ * remaining phases stay on the processing thread since they lazily complete bindings of the shared lookup
+ * environment. Units are still processed and handed to the requestor in their original order.
+ * </p>
+ */
+public class ParseManager {
+	/** System property to configure the number of threads parsing ahead (0 or missing: do not parse ahead) **/
+	public static final String THREAD_COUNT_PROPERTY = "jdt.compiler.parseAheadThreads"; //$NON-NLS-1$
+
+	private static final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+		Thread t = new Thread(r, "Compiler Method Body Parser"); //$NON-NLS-1$
+		t.setDaemon(true);
+		return t;
+	});
+
+	private final Compiler compiler;
+	/** number of units parsed ahead of the unit being processed, which also bounds the number of busy threads **/
+	private final int aheadCount;
+	private final Map<CompilationUnitDeclaration, Future<?>> scheduled = new ConcurrentHashMap<>();
+	private int nextIndex; // only accessed by the processing thread
+	private volatile boolean stopped;
+
+	/**
+	 * Answer the number of threads configured by {@link #THREAD_COUNT_PROPERTY}.
+	 */
+	public static int getConfiguredThreadCount() {
+		String setting = System.getProperty(THREAD_COUNT_PROPERTY);
+		if (setting == null)
+			return 0;
+		try {
+			return Math.max(0, Integer.parseInt(setting.trim()));
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	public ParseManager(Compiler compiler, int startingIndex, int threadCount) {
+		this.compiler = compiler;
+		this.aheadCount = threadCount;
+		this.nextIndex = startingIndex;
+	}
+
+	/**
+	 * Fills the method bodies of the given unit, either by waiting for the worker thread which already parses it or by
+	 * parsing it with the compiler's own parser. Meant to be called in the order of the units to process.
+	 */
+	public void getMethodBodies(CompilationUnitDeclaration unit, int index) throws Error {
+		Future<?> future = this.scheduled.remove(unit);
+		queueNextParseAhead(index);
+		if (future != null)
+			waitFor(future);
+		// no-op if the unit was parsed ahead:
+		this.compiler.parser.getMethodBodies(unit);
+	}
+
+	private void queueNextParseAhead(int index) {
+		if (this.nextIndex <= index)
+			this.nextIndex = index + 1;
+		int last = index + this.aheadCount;
+		while (!this.stopped && this.nextIndex <= last) {
+			CompilationUnitDeclaration next = this.compiler.peekUnitToProcess(this.nextIndex);
+			if (next == null)
+				return; // not yet known, retry when processing the next unit
+			this.nextIndex++;
+			if (next.ignoreMethodBodies
+					|| (next.bits & ASTNode.HasAllMethodBodies) != 0
+					|| next.compilationResult.hasBeenAccepted)
+				continue;
+			this.scheduled.put(next, executor.submit(() -> parseAhead(next)));
+		}
+	}
+
+	private void parseAhead(CompilationUnitDeclaration unit) {
+		if (this.stopped)
+			return; // the processing thread parses it itself if it still needs it
+		// a new parser for each unit since a scanner must only be used by the thread which created it
+		this.compiler.newMethodBodyParser().getMethodBodies(unit);
+	}
+
+	private void waitFor(Future<?> future) {
+		boolean interrupted = false;
+		try {
+			while (true) {
+				try {
+					future.get();
+					return;
+				} catch (InterruptedException e) {
+					// the worker still owns the unit, it must not be parsed concurrently
+					interrupted = true;
+				}
+			}
+		} catch (ExecutionException e) {
+			// rethrow the caught exception from the parsing thread in the processing thread
+			if (e.getCause() instanceof Error err) {
+				throw err;
+			}
+			if (e.getCause() instanceof RuntimeException ex) {
+				throw ex;
+			}
+			throw new RuntimeException(e);
+		} finally {
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Stops parsing ahead and waits until no worker thread touches any unit anymore.
+	 */
+	public void shutdown() {
+		this.stopped = true;
+		for (Future<?> future : this.scheduled.values()) {
+			try {
+				waitFor(future);
+			} catch (Error | RuntimeException ignored) {
+				// reported when (and if) the unit gets processed
+			}
+		}
+		this.scheduled.clear();
+	}
+}
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler;
+
+import java.lang.management.ManagementFactory;
+
+import org.eclipse.jdt.internal.compiler.ICompilerInstrumentation.Phase;
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.lookup.LookupEnvironment;
+
+/**
+ * Measures consecutive phases run by the current thread and reports them to an {@link ICompilerInstrumentation}.
+ */
+final class PhaseProbe {
+
+	private static final com.sun.management.ThreadMXBean THREADS = getThreadMXBean();
+
+	private final ICompilerInstrumentation instrumentation;
+	private final LookupEnvironment environment;
+	private long startTime;
+	private long startAllocatedBytes;
+	private long startTypeLookups;
+
+	PhaseProbe(ICompilerInstrumentation instrumentation, LookupEnvironment environment) {
+		this.instrumentation = instrumentation;
+		this.environment = environment.root;
+		this.environment.countTypeLookups = true;
+		start();
+	}
+
+	private static com.sun.management.ThreadMXBean getThreadMXBean() {
+		try {
+			if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+					&& threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled())
+				return threads;
+		} catch (LinkageError | UnsupportedOperationException e) {
+			// jdk.management is not available
+		}
+		return null;
+	}
+
+	private static long getAllocatedBytes() {
+		return THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+	}
+
+	/**
+	 * Starts measuring a phase.
+	 */
+	void start() {
+		this.startAllocatedBytes = getAllocatedBytes();
+		this.startTypeLookups = this.environment.getTypeLookups();
+		this.startTime = System.nanoTime();
+	}
+
+	/**
+	 * Reports the phase measured since the last start and starts measuring the next phase.
+	 */
+	void end(CompilationUnitDeclaration unit, Phase phase) {
+		long elapsed = System.nanoTime() - this.startTime;
+		long allocated = THREADS == null ? -1 : getAllocatedBytes() - this.startAllocatedBytes;
+		this.instrumentation.phaseCompleted(unit, phase, elapsed, allocated, this.environment.getTypeLookups() - this.startTypeLookups);
+		start();
+	}
+}
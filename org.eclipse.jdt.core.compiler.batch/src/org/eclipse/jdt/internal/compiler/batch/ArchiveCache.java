@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFormatException;
+import org.eclipse.jdt.internal.compiler.env.IBinaryType;
+import org.eclipse.jdt.internal.compiler.util.Util;
+
+/**
+ * Archives kept open across compilations by a long-lived compiler, see {@link CompilerDaemon}, together with what
+ * the {@link ClasspathJar}s compute from them: the packages and the class files decoded so far. An archive is
+ * reopened as soon as its timestamp or size changes.
+ * <p>
+ * Only used when installed as {@link #shared}, otherwise each {@link ClasspathJar} opens its own archive and closes it
+ * at the end of the compilation.
+ * </p>
+ */
+class ArchiveCache {
+
+	/** the cache used by all the {@link ClasspathJar}s, <code>null</code> if archives are not cached */
+	static volatile ArchiveCache shared;
+
+	private static final Object MISSING = new Object(); // the archive has no such class file
+
+	/**
+	 * An open archive and what was computed from it.
+	 */
+	static final class Archive {
+		final ZipFile zipFile;
+		final long lastModified;
+		final long length;
+		long lastUsed; // request which used the archive last
+		private volatile Set<String> packages;
+		private volatile SoftReference<Map<String, Object>> types = new SoftReference<>(null);
+
+		Archive(ZipFile zipFile, long lastModified, long length) {
+			this.zipFile = zipFile;
+			this.lastModified = lastModified;
+			this.length = length;
+		}
+
+		/**
+		 * Answers the packages of the archive, see {@link ClasspathJar#addToPackageCache(String, boolean)}.
+		 */
+		Set<String> getPackages() {
+			Set<String> result = this.packages;
+			if (result == null) {
+				result = new HashSet<>(41);
+				result.add(Util.EMPTY_STRING);
+				for (Enumeration<? extends ZipEntry> e = this.zipFile.entries(); e.hasMoreElements(); ) {
+					String fileName = e.nextElement().getName();
+					int last = fileName.lastIndexOf('/');
+					while (last > 0) {
+						String packageName = fileName.substring(0, last);
+						if (!result.add(packageName))
+							break;
+						last = packageName.lastIndexOf('/');
+					}
+				}
+				this.packages = result;
+			}
+			return result;
+		}
+
+		/**
+		 * Answers the decoded class file of the given name, or <code>null</code> if the archive has no such class file.
+		 * The answered type is shared by all the compilations, so it must not be modified.
+		 */
+		IBinaryType readType(String qualifiedBinaryFileName) throws ClassFormatException, IOException {
+			Map<String, Object> map = this.types.get();
+			if (map == null)
+				this.types = new SoftReference<>(map = new ConcurrentHashMap<>());
+			Object type = map.get(qualifiedBinaryFileName);
+			if (type == null) {
+				type = ClassFileReader.read(this.zipFile, qualifiedBinaryFileName);
+				map.put(qualifiedBinaryFileName, type == null ? MISSING : type);
+			}
+			return type == MISSING ? null : (IBinaryType) type;
+		}
+
+		void close() {
+			try {
+				this.zipFile.close();
+			} catch (IOException e) {
+				// ignore
+			}
+		}
+	}
+
+	private final Map<String, Archive> archives = new HashMap<>();
+	private long currentRequest;
+
+	/**
+	 * Answers the open archive for the given file, opening it if it is not cached yet or changed since.
+	 */
+	synchronized Archive getArchive(File file) throws IOException {
+		String path = file.getCanonicalPath();
+		long lastModified = file.lastModified();
+		long length = file.length();
+		Archive archive = this.archives.get(path);
+		if (archive != null && (archive.lastModified != lastModified || archive.length != length)) {
+			// the archive changed, compilations are sequential so no other compilation may still read it
+			this.archives.remove(path);
+			archive.close();
+			archive = null;
+		}
+		if (archive == null) {
+			@SuppressWarnings("resource") // closed by the archive, see Archive.close()
+			ZipFile zipFile = new ZipFile(file);
+			archive = new Archive(zipFile, lastModified, length);
+			this.archives.put(path, archive);
+		}
+		archive.lastUsed = this.currentRequest;
+		return archive;
+	}
+
+	/**
+	 * Starts a new compilation and closes the archives which were not used by the given number of last compilations.
+	 */
+	synchronized void beginRequest(int maxIdleRequests) {
+		this.currentRequest++;
+		for (Iterator<Archive> iterator = this.archives.values().iterator(); iterator.hasNext();) {
+			Archive archive = iterator.next();
+			if (this.currentRequest - archive.lastUsed > maxIdleRequests) {
+				iterator.remove();
+				archive.close();
+			}
+		}
+	}
+
+	synchronized void clear() {
+		for (Archive archive : this.archives.values())
+			archive.close();
+		this.archives.clear();
+	}
+}
@@ -53,6 +53,7 @@ protected ZipFile annotationZipFile;
 protected boolean closeZipFileAtEnd;
 protected Set<String> packageCache;
 protected List<String> annotationPaths;
+private ArchiveCache.Archive archive; // the shared archive when archives are cached, see ArchiveCache.shared
 
 public ClasspathJar(File file, boolean closeZipFileAtEnd,
 		AccessRuleSet accessRuleSet, String destinationPath) {
@@ -113,7 +114,13 @@ public NameEnvironmentAnswer findClass(char[] typeName, String qualifiedPackageN
 		return null; // most common case
 
 	try {
-		IBinaryType reader = ClassFileReader.read(this.zipFile, qualifiedBinaryFileName);
+		IBinaryType reader;
+		if (this.archive != null && this.module == null) {
+			// the readers of modules are not shared, they get their module name assigned below
+			reader = this.archive.readType(qualifiedBinaryFileName);
+		} else {
+			reader = ClassFileReader.read(this.zipFile, qualifiedBinaryFileName);
+		}
 		if (reader != null) {
 			char[] modName = this.module == null ? null : this.module.name();
 			if (reader instanceof ClassFileReader) {
@@ -194,7 +201,13 @@ public char[][][] findTypeNames(final String qualifiedPackageName, String module
 @Override
 public void initialize() throws IOException {
 	if (this.zipFile == null) {
-		this.zipFile = new ZipFile(this.file);
+		ArchiveCache cache = ArchiveCache.shared;
+		if (cache != null) {
+			this.archive = cache.getArchive(this.file);
+			this.zipFile = this.archive.zipFile;
+		} else {
+			this.zipFile = new ZipFile(this.file);
+		}
 	}
 }
 void acceptModule(ClassFileReader reader) {
@@ -231,6 +244,11 @@ public synchronized char[][] getModulesDeclaringPackage(String qualifiedPackageN
 	if (this.packageCache != null)
 		return singletonModuleNameIf(this.packageCache.contains(qualifiedPackageName));
 
+	if (this.archive != null) {
+		this.packageCache = this.archive.getPackages();
+		return singletonModuleNameIf(this.packageCache.contains(qualifiedPackageName));
+	}
+
 	this.packageCache = new HashSet<>(41);
 	this.packageCache.add(Util.EMPTY_STRING);
 
@@ -271,6 +289,11 @@ public char[][] listPackages() {
 @Override
 public void reset() {
 	super.reset();
+	if (this.archive != null) {
+		// owned by the archive cache
+		this.archive = null;
+		this.zipFile = null;
+	}
 	if (this.closeZipFileAtEnd) {
 		if (this.zipFile != null) {
 			try {
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler.batch;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.eclipse.jdt.internal.compiler.ICompilerInstrumentation;
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+
+/**
+ * Collects the phases completed for each unit and writes them as JSON, see the <code>-time:json</code> option.
+ * The units are written from the slowest to the fastest so the few units which dominate the compilation time come
+ * first:
+ * <pre>
+ * {
+ *   "units": [
+ *     { "file": "src/p/X.java", "nanos": 1234, "allocatedBytes": 5678, "typeLookups": 9,
+ *       "phases": { "parse": { "nanos": 12, "allocatedBytes": 34, "typeLookups": 0 }, ... } },
+ *     ...
+ *   ],
+ *   "unattributed": { "resolve": { ... } }
+ * }
+ * </pre>
+ * Allocated bytes are <code>-1</code> when the virtual machine cannot measure them.
+ */
+class CompilationTimings implements ICompilerInstrumentation {
+
+	private static final Phase[] PHASES = Phase.values();
+
+	/**
+	 * Phases of one unit: nanos, allocated bytes and type lookups of each phase.
+	 */
+	private static final class UnitTimings {
+		final String fileName;
+		final long[][] phases = new long[PHASES.length][];
+
+		UnitTimings(String fileName) {
+			this.fileName = fileName;
+		}
+
+		void add(Phase phase, long elapsedNanos, long allocatedBytes, long typeLookups) {
+			long[] timings = this.phases[phase.ordinal()];
+			if (timings == null) {
+				this.phases[phase.ordinal()] = new long[] { elapsedNanos, allocatedBytes, typeLookups };
+			} else {
+				timings[0] += elapsedNanos;
+				timings[1] = timings[1] < 0 || allocatedBytes < 0 ? -1 : timings[1] + allocatedBytes;
+				timings[2] += typeLookups;
+			}
+		}
+
+		long total(int index) {
+			long total = 0;
+			for (long[] timings : this.phases) {
+				if (timings != null) {
+					if (timings[index] < 0)
+						return -1;
+					total += timings[index];
+				}
+			}
+			return total;
+		}
+	}
+
+	private final Map<String, UnitTimings> units = new HashMap<>();
+	private final UnitTimings unattributed = new UnitTimings(null);
+
+	@Override
+	public synchronized void phaseCompleted(CompilationUnitDeclaration unit, Phase phase, long elapsedNanos, long allocatedBytes, long typeLookups) {
+		UnitTimings timings;
+		if (unit == null) {
+			timings = this.unattributed;
+		} else {
+			String fileName = new String(unit.getFileName());
+			timings = this.units.computeIfAbsent(fileName, UnitTimings::new);
+		}
+		timings.add(phase, elapsedNanos, allocatedBytes, typeLookups);
+	}
+
+	synchronized void write(Writer writer) throws IOException {
+		List<UnitTimings> sorted = new ArrayList<>(this.units.values());
+		sorted.sort((t1, t2) -> Long.compare(t2.total(0), t1.total(0)));
+		writer.write("{\n  \"units\": ["); //$NON-NLS-1$
+		for (int i = 0, length = sorted.size(); i < length; i++) {
+			UnitTimings timings = sorted.get(i);
+			writer.write(i == 0 ? "\n    { \"file\": " : ",\n    { \"file\": "); //$NON-NLS-1$ //$NON-NLS-2$
+			writeString(writer, timings.fileName);
+			writer.write(", \"nanos\": " + timings.total(0)); //$NON-NLS-1$
+			writer.write(", \"allocatedBytes\": " + timings.total(1)); //$NON-NLS-1$
+			writer.write(", \"typeLookups\": " + timings.total(2)); //$NON-NLS-1$
+			writer.write(",\n      \"phases\": "); //$NON-NLS-1$
+			writePhases(writer, timings);
+			writer.write(" }"); //$NON-NLS-1$
+		}
+		writer.write("\n  ],\n  \"unattributed\": "); //$NON-NLS-1$
+		writePhases(writer, this.unattributed);
+		writer.write("\n}\n"); //$NON-NLS-1$
+	}
+
+	private static void writePhases(Writer writer, UnitTimings timings) throws IOException {
+		writer.write('{');
+		boolean first = true;
+		for (Phase phase : PHASES) {
+			long[] phaseTimings = timings.phases[phase.ordinal()];
+			if (phaseTimings == null) continue;
+			writer.write(first ? " \"" : ", \""); //$NON-NLS-1$ //$NON-NLS-2$
+			first = false;
+			writer.write(phase.name().toLowerCase(Locale.ROOT));
+			writer.write("\": { \"nanos\": " + phaseTimings[0]); //$NON-NLS-1$
+			writer.write(", \"allocatedBytes\": " + phaseTimings[1]); //$NON-NLS-1$
+			writer.write(", \"typeLookups\": " + phaseTimings[2] + " }"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		writer.write(first ? "}" : " }"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private static void writeString(Writer writer, String value) throws IOException {
+		writer.write('"');
+		for (int i = 0, length = value.length(); i < length; i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '"':
+				case '\\':
+					writer.write('\\');
+					writer.write(c);
+					break;
+				case '\n':
+					writer.write("\\n"); //$NON-NLS-1$
+					break;
+				case '\r':
+					writer.write("\\r"); //$NON-NLS-1$
+					break;
+				case '\t':
+					writer.write("\\t"); //$NON-NLS-1$
+					break;
+				default:
+					if (c < 0x20) {
+						writer.write(String.format("\\u%04x", Integer.valueOf(c))); //$NON-NLS-1$
+					} else {
+						writer.write(c);
+					}
+			}
+		}
+		writer.write('"');
+	}
+}
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.compiler.batch;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Long-lived batch compiler serving compilation requests read from its standard input, so that build tools invoking
+ * the compiler many times do not pay for opening and reading the same libraries over and over: the archives of the
+ * class path and the class files read from them are kept across compilations (see {@link ArchiveCache}), like the
+ * JRT images already are. An archive is read again as soon as its timestamp or size changes.
+ * <p>
+ * The protocol is line based and uses UTF-8. A request lists the command line arguments of a compilation (see
+ * {@link Main}), one per line, and ends with an empty line. Relative paths are resolved against the working directory
+ * of the daemon. The response is made of the standard output of the compilation, each line prefixed with
+ * <code>"out "</code>, then of its error output, each line prefixed with <code>"err "</code>, and ends with a line
+ * <code>"exit 0"</code> if the compilation succeeded or <code>"exit 1"</code> otherwise. The daemon stops at the end
+ * of its input.
+ * </p>
+ * <pre>
+ * java -cp ecj.jar org.eclipse.jdt.internal.compiler.batch.CompilerDaemon
+ * </pre>
+ */
+public class CompilerDaemon {
+
+	private static final String OUT_PREFIX = "out "; //$NON-NLS-1$
+	private static final String ERR_PREFIX = "err "; //$NON-NLS-1$
+	private static final String EXIT_PREFIX = "exit "; //$NON-NLS-1$
+	private static final int MAX_IDLE_REQUESTS = 100; // archives not used by that many requests are closed
+
+	@SuppressWarnings("resource") // the error output replaces the standard output until the daemon stops
+	public static void main(String[] args) throws IOException {
+		// the standard output is reserved to the protocol, anything else printed there would corrupt it
+		System.setOut(new PrintStream(new FileOutputStream(FileDescriptor.err), true));
+		try (Writer output = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8));
+				BufferedReader input = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))) {
+			new CompilerDaemon().serve(input, output);
+		}
+	}
+
+	/**
+	 * Serves the requests read from the given input until its end.
+	 */
+	public void serve(BufferedReader input, Writer output) throws IOException {
+		ArchiveCache cache = new ArchiveCache();
+		ArchiveCache.shared = cache;
+		try {
+			List<String> arguments = new ArrayList<>();
+			String line;
+			while ((line = input.readLine()) != null) {
+				if (!line.isEmpty()) {
+					arguments.add(line);
+					continue;
+				}
+				if (arguments.isEmpty())
+					continue;
+				cache.beginRequest(MAX_IDLE_REQUESTS);
+				compile(arguments.toArray(new String[arguments.size()]), output);
+				output.flush();
+				arguments.clear();
+			}
+		} finally {
+			ArchiveCache.shared = null;
+			cache.clear();
+		}
+	}
+
+	private void compile(String[] arguments, Writer output) throws IOException {
+		StringWriter out = new StringWriter();
+		StringWriter err = new StringWriter();
+		boolean success;
+		try (PrintWriter outWriter = new PrintWriter(out); PrintWriter errWriter = new PrintWriter(err)) {
+			try {
+				success = new Main(outWriter, errWriter, false /* systemExit */, null /* options */, null /* progress */).compile(arguments);
+			} catch (RuntimeException e) {
+				e.printStackTrace(errWriter);
+				success = false;
+			}
+		}
+		writeLines(OUT_PREFIX, out.toString(), output);
+		writeLines(ERR_PREFIX, err.toString(), output);
+		output.write(EXIT_PREFIX + (success ? 0 : 1) + '\n');
+	}
+
+	private static void writeLines(String prefix, String text, Writer output) throws IOException {
+		if (text.isEmpty()) return;
+		try (BufferedReader reader = new BufferedReader(new StringReader(text))) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				output.write(prefix);
+				output.write(line);
+				output.write('\n');
+			}
+		}
+	}
+}
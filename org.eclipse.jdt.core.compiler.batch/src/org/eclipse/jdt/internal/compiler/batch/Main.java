@@ -49,9 +49,11 @@ import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.StringReader;
 import java.io.UnsupportedEncodingException;
+import java.io.Writer;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.DateFormat;
@@ -87,6 +89,7 @@ import org.eclipse.jdt.internal.compiler.Compiler;
 import org.eclipse.jdt.internal.compiler.ICompilerRequestor;
 import org.eclipse.jdt.internal.compiler.IErrorHandlingPolicy;
 import org.eclipse.jdt.internal.compiler.IProblemFactory;
+import org.eclipse.jdt.internal.compiler.ParseManager;
 import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
 import org.eclipse.jdt.internal.compiler.batch.FileSystem.Classpath;
 import org.eclipse.jdt.internal.compiler.batch.ModuleFinder.AddExport;
@@ -727,6 +730,16 @@ public class Main implements ProblemSeverities, SuffixConstants {
 				}));
 		}
 
+		public void logCannotWriteTimings(String timingsFile, IOException e) {
+			String message = this.main.bind("output.cannotWriteTimings", timingsFile, e.getMessage()); //$NON-NLS-1$
+			if ((this.tagBits & Logger.XML) != 0) {
+				HashMap<String, Object> parameters = new HashMap<>();
+				parameters.put(Logger.MESSAGE, message);
+				printTag(Logger.ERROR_TAG, parameters, true, true);
+			}
+			this.printlnErr(message);
+		}
+
 		public void logNumberOfClassFilesGenerated(int exportedClassFilesCounter) {
 			if ((this.tagBits & Logger.XML) != 0) {
 				HashMap<String, Object> parameters = new HashMap<>();
@@ -1431,6 +1444,7 @@ public class Main implements ProblemSeverities, SuffixConstants {
 
 	public int timing = TIMING_DISABLED;
 	public CompilerStats[] compilerStats;
+	public String timingsFile; // JSON file receiving the phases of each unit, see -time:json (null: none)
 	public boolean verbose = false;
 	private String[] expandedCommandLine;
 
@@ -1844,6 +1858,7 @@ public void configure(String[] argv) {
 	final int INSIDE_LIMIT_MODULES = 31;
 	final int INSIDE_MODULE_VERSION = 32;
 	final int INSIDE_PATCH_MODULE = 33;
+	final int INSIDE_TIMINGS_FILE = 34;
 
 	final int DEFAULT = 0;
 	ArrayList<String> bootclasspaths = new ArrayList<>(DEFAULT_SIZE_CLASSPATH);
@@ -2242,6 +2257,13 @@ public void configure(String[] argv) {
 					this.timing = TIMING_ENABLED|TIMING_DETAILED;
 					continue;
 				}
+				if (currentArg.equals("-time:json")) { //$NON-NLS-1$
+					if (this.timingsFile != null)
+						throw new IllegalArgumentException(
+							this.bind("configure.duplicateTimingsFile", currentArg)); //$NON-NLS-1$
+					mode = INSIDE_TIMINGS_FILE;
+					continue;
+				}
 				if (currentArg.equals("-version") //$NON-NLS-1$
 						|| currentArg.equals("-v")) { //$NON-NLS-1$
 					this.logger.logVersion(true);
@@ -2645,6 +2667,10 @@ public void configure(String[] argv) {
 				this.log = currentArg;
 				mode = DEFAULT;
 				continue;
+			case INSIDE_TIMINGS_FILE :
+				this.timingsFile = currentArg;
+				mode = DEFAULT;
+				continue;
 			case INSIDE_REPETITION :
 				try {
 					this.maxRepetition = Integer.parseInt(currentArg);
@@ -4776,6 +4802,10 @@ public void performCompilation() {
 		// temporary code to allow the compiler to revert to a single thread
 		String setting = System.getProperty("jdt.compiler.useSingleThread"); //$NON-NLS-1$
 		this.batchCompiler.useSingleThread = setting != null && setting.equals("true"); //$NON-NLS-1$
+		this.batchCompiler.parseAheadThreads = ParseManager.getConfiguredThreadCount();
+		CompilationTimings timings = null;
+		if (this.timingsFile != null)
+			this.batchCompiler.instrumentation = timings = new CompilationTimings();
 
 		if (this.compilerOptions.complianceLevel >= ClassFileConstants.JDK1_6
 				&& this.compilerOptions.processAnnotations) {
@@ -4810,6 +4840,14 @@ public void performCompilation() {
 		if (this.compilerStats != null) {
 			this.compilerStats[this.currentRepetition] = this.batchCompiler.stats;
 		}
+		if (timings != null) {
+			// each repetition overwrites the timings of the previous one
+			try (Writer writer = new OutputStreamWriter(new FileOutputStream(this.timingsFile), StandardCharsets.UTF_8)) {
+				timings.write(writer);
+			} catch (IOException e) {
+				this.logger.logCannotWriteTimings(this.timingsFile, e);
+			}
+		}
 		this.logger.printStats();
 	}
 	finally {
@@ -16,11 +16,7 @@
  *******************************************************************************/
 package org.eclipse.jdt.internal.compiler.lookup;
 
-import static java.util.function.Function.identity;
-import static java.util.stream.Collectors.toMap;
-
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -31,7 +27,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.stream.Stream;
 
 import org.eclipse.jdt.internal.compiler.ast.Wildcard;
 import org.eclipse.jdt.internal.compiler.util.Tuples.Pair;
@@ -69,6 +64,7 @@ class BoundSet {
 		TypeBinding	instantiation;
 		Map<InferenceVariable,TypeBound> inverseBounds; // from right inference variable to bound
 		Set<InferenceVariable> dependencies;
+		boolean shared; // also referenced by a copy of the bound set, must be copied before it is changed
 		public ThreeSets() {
 			// empty, the sets are lazily initialized
 		}
@@ -204,6 +200,13 @@ class BoundSet {
 			}
 			return copy;
 		}
+		/** Answer a copy which can be changed without affecting the bound sets sharing this one. */
+		ThreeSets copyForUpdate() {
+			ThreeSets copy = copy();
+			if (this.inverseBounds != null)
+				copy.inverseBounds = new HashMap<>(this.inverseBounds);
+			return copy;
+		}
 		public TypeBinding findSingleWrapperType() {
 			if (this.instantiation != null) {
 				if (this.instantiation.isProperType(true)) {
@@ -340,6 +343,9 @@ class BoundSet {
 	private TypeBound[] unincorporatedBounds = new TypeBound[8];
 	private int unincorporatedBoundsCount = 0;
 	private final TypeBound[] mostRecentBounds = new TypeBound[4]; // for quick & dirty duplicate elimination
+	// proper type bounds of the bounds most recently incorporated with each other, see properTypesByInferenceVariable()
+	private TypeBound[] properTypesFirstBounds, properTypesNextBounds;
+	private Map<InferenceVariable,TypeBound> properTypesByInferenceVariable;
 
 	public BoundSet() {}
 
@@ -381,13 +387,19 @@ class BoundSet {
 		BoundSet copy = new BoundSet();
 		if (!this.boundsPerVariable.isEmpty()) {
 			for (Entry<InferenceVariable, ThreeSets> entry : this.boundsPerVariable.entrySet()) {
-				copy.boundsPerVariable.put(entry.getKey(), entry.getValue().copy());
+				ThreeSets three = entry.getValue();
+				if (three.inverseBounds == null) {
+					// shared until either bound set changes it, most copies are only read
+					three.shared = true;
+					copy.boundsPerVariable.put(entry.getKey(), three);
+				} else {
+					copy.boundsPerVariable.put(entry.getKey(), three.copy()); // the copy has no inverse bounds
+				}
 			}
 		}
 		copy.inThrows.addAll(this.inThrows);
 		copy.captures.putAll(this.captures);
-		if (this.incorporatedBounds.length > 0)
-			System.arraycopy(this.incorporatedBounds, 0, copy.incorporatedBounds = new TypeBound[this.incorporatedBounds.length], 0, this.incorporatedBounds.length);
+		copy.incorporatedBounds = this.incorporatedBounds; // never changed, only replaced
 		if (this.unincorporatedBoundsCount > 0)
 			System.arraycopy(this.unincorporatedBounds, 0, copy.unincorporatedBounds = new TypeBound[this.unincorporatedBounds.length], 0, this.unincorporatedBounds.length);
 		copy.unincorporatedBoundsCount = this.unincorporatedBoundsCount;
@@ -426,9 +438,7 @@ class BoundSet {
 		this.mostRecentBounds[0] = bound;
 
 		InferenceVariable variable = bound.left.prototype();
-		ThreeSets three = this.boundsPerVariable.get(variable);
-		if (three == null)
-			this.boundsPerVariable.put(variable, (three = new ThreeSets()));
+		ThreeSets three = getThreeSetsForUpdate(variable);
 		if (three.addBound(bound)) {
 			int unincorporatedBoundsLength = this.unincorporatedBounds.length;
 			if (this.unincorporatedBoundsCount >= unincorporatedBoundsLength)
@@ -443,9 +453,7 @@ class BoundSet {
 				// this should be needed to determine IV dependencies independent of direction.
 				// TODO: so far no test could be identified which actually needs it ...
 				InferenceVariable rightIV = (InferenceVariable) bound.right.prototype();
-				three = this.boundsPerVariable.get(rightIV);
-				if (three == null)
-					this.boundsPerVariable.put(rightIV, (three = new ThreeSets()));
+				three = getThreeSetsForUpdate(rightIV);
 				if (three.inverseBounds == null)
 					three.inverseBounds = new HashMap<>();
 				three.inverseBounds.put(rightIV, bound);
@@ -453,6 +461,15 @@ class BoundSet {
 		}
 	}
 
+	private ThreeSets getThreeSetsForUpdate(InferenceVariable variable) {
+		ThreeSets three = this.boundsPerVariable.get(variable);
+		if (three == null)
+			this.boundsPerVariable.put(variable, (three = new ThreeSets()));
+		else if (three.shared)
+			this.boundsPerVariable.put(variable, (three = three.copyForUpdate()));
+		return three;
+	}
+
 	private boolean addBounds(TypeBound[] newBounds, LookupEnvironment environment) {
 		boolean hasProperBound = false;
 		for (TypeBound newBound : newBounds) {
@@ -892,35 +909,40 @@ class BoundSet {
 
 	private Collection<TypeBound> getProperTypesForAllInferenceVariablesOrNull(ParameterizedTypeBinding parameterizedType,
 			TypeBound[] firstBounds, TypeBound[] nextBounds) {
-		final Map<InferenceVariable,TypeBound> properTypesByInferenceVariable = properTypesByInferenceVariable(firstBounds, nextBounds);
-		if(properTypesByInferenceVariable.size() == 0) {
+		final Map<InferenceVariable,TypeBound> properTypes = properTypesByInferenceVariable(firstBounds, nextBounds);
+		if(properTypes.size() == 0) {
 			return null;
 		}
 		final Set<InferenceVariable> inferenceVariables = getInferenceVariables(parameterizedType);
-		if(properTypesByInferenceVariable.keySet().containsAll(inferenceVariables)) {
-			return properTypesByInferenceVariable.values();
+		if(properTypes.keySet().containsAll(inferenceVariables)) {
+			return properTypes.values();
 		}
 		return null;
 	}
 
 	private Map<InferenceVariable,TypeBound> properTypesByInferenceVariable(TypeBound[] firstBounds, TypeBound[] nextBounds) {
-		return getBoundsStream(firstBounds, nextBounds)
-				.filter(bound -> bound.relation == ReductionResult.SAME)
-				.filter(bound -> bound.right.isProperType(true))
-				.collect(toMap(bound -> bound.left, identity(),
-						// If nextBounds and firstBounds have a bound for the IV, prefer the newer one from nextBounds.
-						(boundFromNextBounds, boundFromFirstBounds) -> boundFromNextBounds));
-	}
-
-	private Stream<TypeBound> getBoundsStream(TypeBound[] firstBounds, TypeBound[] nextBounds) {
-		if(firstBounds == nextBounds) {
-			return Arrays.stream(firstBounds);
-		}
+		// asked for every pair of bounds being incorporated, but the arrays of bounds are never changed
+		if (firstBounds == this.properTypesFirstBounds && nextBounds == this.properTypesNextBounds)
+			return this.properTypesByInferenceVariable;
+		Map<InferenceVariable,TypeBound> properTypes = new HashMap<>();
 		// The next bounds are considered initially because it seems more
 		// likely that they contain the new bounds that enable successful
 		// incorporation in this run in case no incorporation was possible
 		// in previous runs.
-		return Stream.concat(Arrays.stream(nextBounds), Arrays.stream(firstBounds));
+		// If nextBounds and firstBounds have a bound for the IV, prefer the newer one from nextBounds.
+		addProperTypes(nextBounds, properTypes);
+		if (firstBounds != nextBounds)
+			addProperTypes(firstBounds, properTypes);
+		this.properTypesFirstBounds = firstBounds;
+		this.properTypesNextBounds = nextBounds;
+		return this.properTypesByInferenceVariable = properTypes;
+	}
+
+	private static void addProperTypes(TypeBound[] bounds, Map<InferenceVariable,TypeBound> properTypes) {
+		for (TypeBound bound : bounds) {
+			if (bound.relation == ReductionResult.SAME && bound.right.isProperType(true))
+				properTypes.putIfAbsent(bound.left, bound);
+		}
 	}
 
 	private Set<InferenceVariable> getInferenceVariables(ParameterizedTypeBinding parameterizedType) {
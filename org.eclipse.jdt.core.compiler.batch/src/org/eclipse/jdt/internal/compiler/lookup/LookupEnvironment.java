@@ -120,6 +120,9 @@ public class LookupEnvironment implements ProblemReasons, TypeConstants {
 	private ArrayList missingTypes;
 	Set<SourceTypeBinding> typesBeingConnected;	// SHARED
 	public boolean isProcessingAnnotations = false; // ROOT_ONLY
+	// number of types asked to the name environment by each thread, see askForType() and getTypeLookups() -- ROOT_ONLY
+	private final ThreadLocal<long[]> typeLookups = ThreadLocal.withInitial(() -> new long[1]);
+	public boolean countTypeLookups = false; // only set when the compiler is instrumented, see PhaseProbe -- ROOT_ONLY
 	public boolean mayTolerateMissingType = false;
 
 	PackageBinding nullableAnnotationPackage;			// the package supposed to contain the Nullable annotation type
@@ -265,6 +268,15 @@ public ModuleBinding getModule(char[] name) {
 	return moduleBinding;
 }
 
+/**
+ * Answer the number of types the current thread asked to the name environment so far, see askForType(). Each thread
+ * is counted apart, so that the phases measured on one thread (see PhaseProbe) are not charged with the lookups of
+ * another one, like the thread of the ProcessTaskManager. The types are only counted when countTypeLookups is set.
+ */
+public long getTypeLookups() {
+	return this.root.typeLookups.get()[0];
+}
+
 /**
  * Ask the name environment for a type which corresponds to the compoundName.
  * Answer null if the name cannot be found.
@@ -272,6 +284,8 @@ public ModuleBinding getModule(char[] name) {
 
 public ReferenceBinding askForType(char[][] compoundName, /*@NonNull*/ModuleBinding clientModule) {
 	assert clientModule != null : "lookup needs a module"; //$NON-NLS-1$
+	if (this.root.countTypeLookups)
+		this.root.typeLookups.get()[0]++;
 	NameEnvironmentAnswer[] answers = null;
 	if (this.useModuleSystem) {
 		IModuleAwareNameEnvironment moduleEnv = (IModuleAwareNameEnvironment) this.nameEnvironment;
@@ -327,6 +341,8 @@ public ReferenceBinding askForType(char[][] compoundName, /*@NonNull*/ModuleBind
 */
 ReferenceBinding askForType(PackageBinding packageBinding, char[] name, ModuleBinding clientModule) {
 	assert clientModule != null : "lookup needs a module"; //$NON-NLS-1$
+	if (this.root.countTypeLookups)
+		this.root.typeLookups.get()[0]++;
 	if (packageBinding == null) {
 		packageBinding = this.defaultPackage;
 	}
@@ -15,9 +15,17 @@ package org.eclipse.jdt.core.tests.builder;
 
 import static org.junit.Assert.assertArrayEquals;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.internal.core.builder.ReferenceCollection;
@@ -77,6 +85,60 @@ public class ReferenceCollectionTest extends BuilderTests {
 		}
 	}
 
+	/*
+	 * Makes the package visible ReferenceIndex reflectively available for testing
+	 */
+	private static class TestableReferenceIndex {
+		private static final Class<?> REFERENCE_INDEX;
+		static {
+			try {
+				REFERENCE_INDEX = Class.forName("org.eclipse.jdt.internal.core.builder.ReferenceIndex");
+			} catch (ClassNotFoundException e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+		private final Object index;
+
+		TestableReferenceIndex(Map<String, ReferenceCollection> references) {
+			try {
+				Constructor<?> constructor = REFERENCE_INDEX.getDeclaredConstructor(Map.class);
+				constructor.setAccessible(true);
+				this.index = constructor.newInstance(references);
+			} catch (ReflectiveOperationException | SecurityException | IllegalArgumentException e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+		private Object invoke(String name, Class<?>[] parameterTypes, Object... arguments) {
+			try {
+				Method method = REFERENCE_INDEX.getDeclaredMethod(name, parameterTypes);
+				method.setAccessible(true);
+				return method.invoke(this.index, arguments);
+			} catch (ReflectiveOperationException | SecurityException | IllegalArgumentException e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+		void add(String typeLocator, ReferenceCollection previous, ReferenceCollection refs) {
+			invoke("add", new Class<?>[] {String.class, ReferenceCollection.class, ReferenceCollection.class}, typeLocator, previous, refs);
+		}
+
+		void addDependencies(String typeLocator, ReferenceCollection refs) {
+			invoke("addDependencies", new Class<?>[] {String.class, ReferenceCollection.class}, typeLocator, refs);
+		}
+
+		void remove(String typeLocator, ReferenceCollection refs) {
+			invoke("remove", new Class<?>[] {String.class, ReferenceCollection.class}, typeLocator, refs);
+		}
+
+		@SuppressWarnings("unchecked")
+		List<String> getCandidates(char[][][] qualifiedNames, char[][] simpleNames, char[][] rootNames) {
+			return (List<String>) invoke("getCandidates", new Class<?>[] {char[][][].class, char[][].class, char[][].class},
+					qualifiedNames, simpleNames, rootNames);
+		}
+	}
+
 	public void testInternQualifiedNamesSorts_01() {
 		char[][][] qualifiedNames = new char[][][] {
 			CharOperation.splitOn('.', "java.lang.RuntimeException".toCharArray()),
@@ -316,6 +378,96 @@ public class ReferenceCollectionTest extends BuilderTests {
 		}, CharOperation.toStrings(rootReferences));
 	}
 
+	private static TestableReferenceCollection newReferenceCollection(String... typeNameDependencies) {
+		TestableReferenceCollection refs = new TestableReferenceCollection(null, null, null);
+		refs.addDependencies(typeNameDependencies);
+		return refs;
+	}
+
+	private static Set<String> setOf(String... names) {
+		return new LinkedHashSet<>(Arrays.asList(names));
+	}
+
+	/*
+	 * Asserts that the candidates of the index include all the type locators whose reference collection includes the
+	 * given names, in the order of the references, as IncrementalImageBuilder.addAffectedSourceFiles() computes them.
+	 * The qualified names are of the form 'p1/p2'.
+	 */
+	private static void assertCandidates(String expected, TestableReferenceIndex index, Map<String, ReferenceCollection> references,
+			Set<String> qualifiedSet, Set<String> simpleSet, Set<String> rootSet) {
+		char[][][] qualifiedNames = ReferenceCollection.internQualifiedNames(qualifiedSet);
+		if (qualifiedNames.length < qualifiedSet.size())
+			qualifiedNames = null;
+		char[][] simpleNames = ReferenceCollection.internSimpleNames(simpleSet, true);
+		if (simpleNames.length < simpleSet.size())
+			simpleNames = null;
+		char[][] rootNames = ReferenceCollection.internSimpleNames(rootSet, false);
+
+		List<String> included = new ArrayList<>();
+		for (Map.Entry<String, ReferenceCollection> entry : references.entrySet())
+			if (entry.getValue().includes(qualifiedNames, simpleNames, rootNames))
+				included.add(entry.getKey());
+		assertEquals("Unexpected included type locators", expected, String.join(",", included));
+
+		List<String> candidates = index.getCandidates(qualifiedNames, simpleNames, rootNames);
+		List<String> includedCandidates = new ArrayList<>();
+		for (String candidate : candidates) {
+			assertTrue("Unknown candidate " + candidate, references.containsKey(candidate));
+			if (references.get(candidate).includes(qualifiedNames, simpleNames, rootNames))
+				includedCandidates.add(candidate);
+		}
+		assertEquals("Unexpected candidates " + candidates, included, includedCandidates);
+	}
+
+	public void testReferenceIndexCandidates() {
+		Map<String, ReferenceCollection> references = new LinkedHashMap<>();
+		references.put("p/A.java", newReferenceCollection("a.b.C", "a.D"));
+		references.put("p/B.java", newReferenceCollection("x.y.Z"));
+		references.put("p/C.java", newReferenceCollection("a.b.Z", "java.util.List"));
+		references.put("p/D.java", newReferenceCollection());
+		references.put("p/E.java", newReferenceCollection("x.D", "a.b.C"));
+		TestableReferenceIndex index = new TestableReferenceIndex(references);
+
+		assertCandidates("p/A.java,p/E.java", index, references, setOf("a/b"), setOf("C"), setOf("a"));
+		assertCandidates("p/A.java,p/E.java", index, references, setOf("a", "x"), setOf("D"), setOf("a", "x"));
+		assertCandidates("p/B.java,p/C.java", index, references, setOf("x/y", "a/b"), setOf("Z"), setOf("x", "a"));
+		assertCandidates("", index, references, setOf("x/y"), setOf("C"), setOf("x"));
+		assertCandidates("", index, references, setOf("q"), setOf("C"), setOf("q"));
+		// well known names always match the other names
+		assertCandidates("p/A.java,p/C.java,p/E.java", index, references, setOf("java/lang"), setOf("Object"), setOf("a"));
+		assertCandidates("p/B.java,p/C.java", index, references, setOf("java/lang"), setOf("Z"), setOf("a", "x"));
+	}
+
+	public void testReferenceIndexUpdates() {
+		Map<String, ReferenceCollection> references = new LinkedHashMap<>();
+		references.put("p/A.java", newReferenceCollection("a.b.C"));
+		references.put("p/B.java", newReferenceCollection("x.y.Z"));
+		TestableReferenceIndex index = new TestableReferenceIndex(references);
+		assertCandidates("p/A.java", index, references, setOf("a/b"), setOf("C"), setOf("a"));
+
+		// a recompiled type locator with other references
+		ReferenceCollection refs = newReferenceCollection("x.y.C");
+		index.add("p/A.java", references.put("p/A.java", refs), refs);
+		assertCandidates("", index, references, setOf("a/b"), setOf("C"), setOf("a"));
+		assertCandidates("p/A.java", index, references, setOf("x/y"), setOf("C"), setOf("x"));
+
+		// a new type locator, which comes last in the references
+		refs = newReferenceCollection("x.y.C");
+		index.add("p/C.java", references.put("p/C.java", refs), refs);
+		assertCandidates("p/A.java,p/C.java", index, references, setOf("x/y"), setOf("C"), setOf("x"));
+
+		// dependencies added by a compilation participant
+		refs = references.get("p/B.java");
+		refs.addDependencies(new String[] {"a.b.C"});
+		index.addDependencies("p/B.java", refs);
+		assertCandidates("p/B.java", index, references, setOf("a/b"), setOf("C"), setOf("a"));
+
+		// a removed type locator
+		index.remove("p/A.java", references.remove("p/A.java"));
+		assertCandidates("p/B.java,p/C.java", index, references, setOf("x/y"), setOf("C"), setOf("x"));
+		assertCandidates("p/B.java", index, references, setOf("x/y"), setOf("Z"), setOf("x"));
+	}
+
 	private static String[] toStringArray(char[][][] qualifiedNameReferences) {
 		return Arrays.stream(qualifiedNameReferences).map(CharOperation::toString).toArray(String[]::new);
 	}
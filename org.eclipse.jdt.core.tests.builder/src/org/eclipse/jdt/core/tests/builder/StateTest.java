@@ -19,11 +19,15 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.lang.reflect.Field;
 import java.util.Arrays;
 import java.util.Map;
 import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
@@ -225,6 +229,166 @@ public class StateTest extends BuilderTests {
 		writeReadAndCompareExternalAnnotationLocations(project.getProject());
 	}
 
+	public void testJournalDelta() throws JavaModelException, Exception {
+		IPath project = buildJournalProject("JournalDelta");
+		State writtenState = getLastBuiltState(project);
+		byte[] stateBytes = writeState(writtenState);
+
+		changeJournalProject(project);
+		State changedState = getLastBuiltState(project);
+		assertNotSame(writtenState, changedState);
+		byte[] journal = journal(writeDelta(changedState, writtenState));
+
+		State readState = readStateWithJournal(project, stateBytes, journal);
+		assertNotNull(readState);
+		assertEqualLookupTables(changedState.getReferences(), readState.getReferences());
+		assertEqualTypeLocators(changedState.typeLocators, readState.typeLocators);
+		assertFalse(readState.getReferences().containsKey("a/C1.java"));
+		assertTrue(readState.getReferences().containsKey("a/C3.java"));
+
+		// nothing to journal when the state did not change since
+		ByteArrayOutputStream unchanged = new ByteArrayOutputStream();
+		assertTrue(JavaBuilder.writeStateDelta(changedState, changedState, new DataOutputStream(unchanged)));
+		assertEquals(0, unchanged.size());
+	}
+
+	public void testJournalInvalidation() throws JavaModelException, Exception {
+		IPath project = buildJournalProject("JournalInvalidation");
+		State writtenState = getLastBuiltState(project);
+		byte[] stateBytes = writeState(writtenState);
+		byte[] invalidation = writeInvalidation(writtenState);
+
+		assertNull(readStateWithJournal(project, stateBytes, journal(invalidation)));
+
+		// a later save journals the changes from the invalidated state again
+		changeJournalProject(project);
+		State changedState = getLastBuiltState(project);
+		State readState = readStateWithJournal(project, stateBytes, journal(invalidation, writeDelta(changedState, writtenState)));
+		assertNotNull(readState);
+		assertEqualLookupTables(changedState.getReferences(), readState.getReferences());
+		assertEqualTypeLocators(changedState.typeLocators, readState.typeLocators);
+	}
+
+	public void testJournalOfAnotherState() throws JavaModelException, Exception {
+		IPath project = buildJournalProject("JournalOfAnotherState");
+		State writtenState = getLastBuiltState(project);
+		byte[] previousStateBytes = writeState(writtenState);
+		writeState(writtenState); // gets a new id, as when the state file is written again
+
+		changeJournalProject(project);
+		byte[] journal = journal(writeDelta(getLastBuiltState(project), writtenState));
+
+		State previousState = JavaBuilder.readState(env.getProject(project), new DataInputStream(new ByteArrayInputStream(previousStateBytes)));
+		State readState = JavaBuilder.readStateJournal(env.getProject(project), previousState,
+				new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(journal))));
+		assertSame(previousState, readState);
+	}
+
+	public void testJournalCorruptTail() throws JavaModelException, Exception {
+		IPath project = buildJournalProject("JournalCorruptTail");
+		State writtenState = getLastBuiltState(project);
+		byte[] stateBytes = writeState(writtenState);
+		changeJournalProject(project);
+		byte[] delta = writeDelta(getLastBuiltState(project), writtenState);
+
+		// reading the journal fails, so JavaModelManager answers no state and a full build follows
+		byte[][] corruptTails = {
+			Arrays.copyOf(delta, delta.length / 2), // truncated
+			new byte[] { 0x7F }, // unknown kind of entry
+			writeInvalidation(writtenState) // applies to the state before the delta
+		};
+		for (byte[] tail : corruptTails) {
+			try {
+				readStateWithJournal(project, stateBytes, journal(delta, tail));
+				fail("Should not read a journal ending with " + Arrays.toString(tail));
+			} catch (IOException e) {
+				// expected
+			}
+		}
+	}
+
+	private IPath buildJournalProject(String projectName) throws JavaModelException {
+		IPath project = env.addProject(projectName);
+		env.addExternalJars(project, Util.getJavaClassLibs());
+		for (int i = 0; i < 8; i++) {
+			env.addClass(project, "a", "C" + i,
+				"package a;\n" +
+				"public class C" + i + " {\n" +
+				"	public Object get() { return null; }\n" +
+				"}"
+			);
+		}
+		fullBuild();
+		return project;
+	}
+
+	private void changeJournalProject(IPath project) {
+		env.removeClass(project.append("a"), "C1");
+		env.addClass(project, "a", "C3",
+			"package a;\n" +
+			"public class C3 {\n" +
+			"	public Object get() { return new java.util.ArrayList<String>(); }\n" +
+			"}"
+		);
+		incrementalBuild();
+	}
+
+	private State getLastBuiltState(IPath projectPath) throws JavaModelException {
+		PerProjectInfo info = JavaModelManager.getJavaModelManager().getPerProjectInfoCheckExistence(env.getProject(projectPath));
+		return (State) info.savedState;
+	}
+
+	private static byte[] writeState(State state) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		JavaBuilder.writeState(state, new DataOutputStream(outputStream));
+		return outputStream.toByteArray();
+	}
+
+	private static byte[] writeDelta(State state, State previousState) throws IOException {
+		int maxJournaledChangesPercent = State.MaxJournaledChangesPercent;
+		State.MaxJournaledChangesPercent = 100;
+		try {
+			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+			assertTrue(JavaBuilder.writeStateDelta(state, previousState, new DataOutputStream(outputStream)));
+			return outputStream.toByteArray();
+		} finally {
+			State.MaxJournaledChangesPercent = maxJournaledChangesPercent;
+		}
+	}
+
+	private static byte[] writeInvalidation(State state) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		assertTrue(JavaBuilder.writeStateInvalidation(state, new DataOutputStream(outputStream)));
+		return outputStream.toByteArray();
+	}
+
+	/** Answers the given entries as JavaModelManager appends them to the journal file, one GZIP member each. */
+	private static byte[] journal(byte[]... entries) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		for (byte[] entry : entries) {
+			try (GZIPOutputStream out = new GZIPOutputStream(new NonClosingOutputStream(outputStream))) {
+				out.write(entry);
+			}
+		}
+		return outputStream.toByteArray();
+	}
+
+	private static final class NonClosingOutputStream extends FilterOutputStream {
+		NonClosingOutputStream(OutputStream out) {
+			super(out);
+		}
+		@Override
+		public void close() throws IOException {
+			flush();
+		}
+	}
+
+	private State readStateWithJournal(IPath projectPath, byte[] stateBytes, byte[] journal) throws IOException, CoreException {
+		IProject project = env.getProject(projectPath);
+		State state = JavaBuilder.readState(project, new DataInputStream(new ByteArrayInputStream(stateBytes)));
+		return JavaBuilder.readStateJournal(project, state, new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(journal))));
+	}
+
 	private void writeReadAndCompareTestBinaryLocations(IPath projectPath)
 			throws JavaModelException, IOException, CoreException {
 		JavaModelManager javaModelManager = JavaModelManager.getJavaModelManager();
@@ -45,8 +45,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.regex.Pattern;
 
 import javax.lang.model.SourceVersion;
 
@@ -768,6 +771,9 @@ public void test012(){
         "    -referenceInfo     compute reference info\n" +
         "    -progress          show progress (only in -log mode)\n" +
         "    -time              display speed information \n" +
+        "    -time:json <file>  write the time spent, the bytes allocated and the types\n" +
+        "                       looked up in each phase of each compilation unit to a\n" +
+        "                       JSON file\n" +
         "    -noExit            do not call System.exit(n) at end of compilation (n==0\n" +
         "                       if no error)\n" +
         "    -repeat <n>        repeat compilation process <n> times for perf analysis\n" +
@@ -13550,4 +13556,103 @@ public void testGH2434(){
         "",
         true);
 }
+// method bodies parsed ahead on worker threads must yield the same problems as parsing on the processing thread
+public void testParseAhead(){
+	String setting = System.getProperty("jdt.compiler.parseAheadThreads");
+	try {
+		System.setProperty("jdt.compiler.parseAheadThreads", "2");
+		this.runNegativeTest(
+			new String[] {
+				"X.java",
+				"public class X {\n" +
+				"	int foo() { return new Y().bar() + Z.baz(); }\n" +
+				"}",
+				"Y.java",
+				"public class Y {\n" +
+				"	int bar() { int i = ; return i; }\n" +
+				"}",
+				"Z.java",
+				"public class Z {\n" +
+				"	static int baz() { return \"z\"; }\n" +
+				"}"
+			},
+			"\"" + OUTPUT_DIR +  File.separator + "X.java\""
+			+ " \"" + OUTPUT_DIR +  File.separator + "Y.java\""
+			+ " \"" + OUTPUT_DIR +  File.separator + "Z.java\""
+			+ " -1.5 -proc:none -d \"" + OUTPUT_DIR + "\"",
+			"",
+			"----------\n" +
+			"1. ERROR in ---OUTPUT_DIR_PLACEHOLDER---/Y.java (at line 2)\n" +
+			"	int bar() { int i = ; return i; }\n" +
+			"	                  ^\n" +
+			"Syntax error on token \"=\", Expression expected after this token\n" +
+			"----------\n" +
+			"----------\n" +
+			"2. ERROR in ---OUTPUT_DIR_PLACEHOLDER---/Z.java (at line 2)\n" +
+			"	static int baz() { return \"z\"; }\n" +
+			"	                          ^^^\n" +
+			"Type mismatch: cannot convert from String to int\n" +
+			"----------\n" +
+			"2 problems (2 errors)\n",
+			true);
+	} finally {
+		if (setting == null)
+			System.clearProperty("jdt.compiler.parseAheadThreads");
+		else
+			System.setProperty("jdt.compiler.parseAheadThreads", setting);
+	}
+}
+// -time:json writes the phases of each unit, with the type lookups of the thread that processed it
+public void testTimeJson() {
+	String timingsFile = OUTPUT_DIR + File.separator + "timings.json";
+	this.runConformTest(
+		new String[] {
+			"X.java",
+			"import java.util.List;\n" +
+			"public class X {\n" +
+			"	List<Y> ys;\n" +
+			"	int foo() { return new Y().bar() + this.ys.size(); }\n" +
+			"}",
+			"Y.java",
+			"public class Y {\n" +
+			"	int bar() { return String.valueOf(this).length(); }\n" +
+			"}"
+		},
+		"\"" + OUTPUT_DIR +  File.separator + "X.java\""
+		+ " \"" + OUTPUT_DIR +  File.separator + "Y.java\""
+		+ " -1.5 -proc:none -d \"" + OUTPUT_DIR + "\""
+		+ " -time:json \"" + timingsFile + "\"",
+		"",
+		"",
+		true);
+	String json = Util.fileContent(timingsFile);
+	assertTrue("Unexpected start:\n" + json, json.startsWith("{\n  \"units\": [\n    { \"file\": "));
+	assertTrue("Unexpected end:\n" + json, json.contains("\n  ],\n  \"unattributed\": {") && json.endsWith("}\n}\n"));
+	String measures = "\"nanos\": (\\d+), \"allocatedBytes\": (-?\\d+), \"typeLookups\": (\\d+)";
+	Pattern unitPattern = Pattern.compile("\\{ \"file\": \"([^\"]*)\", " + measures + ",\n      \"phases\": \\{([^\n]*)\\} \\}");
+	Pattern phasePattern = Pattern.compile("\"([a-z]+)\": \\{ " + measures + " \\}");
+	java.util.regex.Matcher unit = unitPattern.matcher(json);
+	List<String> files = new ArrayList<>();
+	long typeLookups = 0;
+	while (unit.find()) {
+		files.add(new File(unit.group(1)).getName());
+		long phasesLookups = 0;
+		List<String> phases = new ArrayList<>();
+		java.util.regex.Matcher phase = phasePattern.matcher(unit.group(5));
+		while (phase.find()) {
+			phases.add(phase.group(1));
+			phasesLookups += Long.parseLong(phase.group(4));
+		}
+		assertTrue("Missing parse phase in " + unit.group(), phases.contains("parse"));
+		assertTrue("Missing generate phase in " + unit.group(), phases.contains("generate"));
+		assertEquals("Unexpected type lookups in " + unit.group(), Long.parseLong(unit.group(4)), phasesLookups);
+		typeLookups += phasesLookups;
+	}
+	Collections.sort(files);
+	assertEquals("Unexpected units in:\n" + json, "[X.java, Y.java]", files.toString());
+	java.util.regex.Matcher phase = phasePattern.matcher(json.substring(json.lastIndexOf("\"unattributed\": ")));
+	while (phase.find())
+		typeLookups += Long.parseLong(phase.group(4));
+	assertTrue("No type lookup in:\n" + json, typeLookups > 0);
+}
 }
\ No newline at end of file
@@ -0,0 +1,258 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.tests.compiler.regression;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import junit.framework.Test;
+
+import org.eclipse.jdt.core.tests.util.Util;
+import org.eclipse.jdt.internal.compiler.batch.CompilerDaemon;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
+
+/**
+ * Tests the protocol of the {@link CompilerDaemon} and the archives it keeps open across compilations.
+ */
+@SuppressWarnings({ "rawtypes" })
+public class CompilerDaemonTest extends AbstractBatchCompilerTest {
+
+	static {
+//		TESTS_NAMES = new String[] { "testArchiveInvalidation" };
+	}
+
+	public static Test suite() {
+		return buildUniqueComplianceTestSuite(testClass(), ClassFileConstants.JDK1_8);
+	}
+	public static Class testClass() {
+		return CompilerDaemonTest.class;
+	}
+	public CompilerDaemonTest(String name) {
+		super(name);
+	}
+
+	private static final String DAEMON_DIR = OUTPUT_DIR + File.separator + "daemon";
+	private static final String LIB_JAR = DAEMON_DIR + File.separator + "lib.jar";
+
+	private String writeSource(String fileName, String contents) {
+		String path = DAEMON_DIR + File.separator + fileName;
+		new File(DAEMON_DIR).mkdirs();
+		Util.writeToFile(contents, path);
+		return path;
+	}
+
+	private String request(String... arguments) {
+		StringBuilder request = new StringBuilder();
+		for (String argument : arguments)
+			request.append(argument).append('\n');
+		return request.append('\n').toString();
+	}
+
+	interface Action {
+		void run() throws IOException;
+	}
+
+	/*
+	 * Serves the given requests with one daemon. An action between two requests runs once the daemon answered the
+	 * previous one.
+	 */
+	private String serve(Object... requestsAndActions) throws IOException {
+		Iterator<Object> steps = Arrays.asList(requestsAndActions).iterator();
+		BufferedReader input = new BufferedReader(new StringReader("")) {
+			private BufferedReader current = new BufferedReader(new StringReader(""));
+			@Override
+			public String readLine() throws IOException {
+				String line;
+				while ((line = this.current.readLine()) == null) {
+					if (!steps.hasNext())
+						return null;
+					Object step = steps.next();
+					if (step instanceof Action)
+						((Action) step).run();
+					else
+						this.current = new BufferedReader(new StringReader((String) step));
+				}
+				return line;
+			}
+		};
+		StringWriter output = new StringWriter();
+		new CompilerDaemon().serve(input, output);
+		return output.toString();
+	}
+
+	private String[] compileArguments(String source, String... classpath) {
+		String[] arguments = new String[] { source, "-1.8", "-proc:none", "-d", DAEMON_DIR + File.separator + "bin" };
+		if (classpath.length == 0)
+			return arguments;
+		String[] result = new String[arguments.length + 2];
+		System.arraycopy(arguments, 0, result, 0, arguments.length);
+		result[arguments.length] = "-cp";
+		result[arguments.length + 1] = String.join(File.pathSeparator, classpath);
+		return result;
+	}
+
+	/*
+	 * Writes a jar with the class file of p.Lib declaring the given static method. Its entries are stored, so that the
+	 * jars of methods of the same name length have the same size.
+	 */
+	private void writeLibJar(String methodName, long lastModified) throws IOException {
+		String classesPath = DAEMON_DIR + File.separator + "libclasses";
+		Util.flushDirectoryContent(new File(classesPath));
+		Util.compile(
+			new String[] {
+				"p/Lib.java",
+				"package p;\n" +
+				"public class Lib {\n" +
+				"	public static int " + methodName + "() { return 0; }\n" +
+				"}"
+			},
+			getCompilerOptions(),
+			classesPath);
+		byte[] bytes = Files.readAllBytes(new File(classesPath, "p/Lib.class").toPath());
+		CRC32 crc = new CRC32();
+		crc.update(bytes);
+		ZipEntry entry = new ZipEntry("p/Lib.class");
+		entry.setMethod(ZipEntry.STORED);
+		entry.setSize(bytes.length);
+		entry.setCrc(crc.getValue());
+		entry.setTime(0);
+		File jar = new File(LIB_JAR);
+		try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(jar))) {
+			zip.putNextEntry(entry);
+			zip.write(bytes);
+			zip.closeEntry();
+		}
+		jar.setLastModified(lastModified);
+	}
+
+	public void testProtocol() throws IOException {
+		String x = writeSource("X.java",
+			"public class X {\n" +
+			"	int foo() { return 0; }\n" +
+			"}");
+		String z = writeSource("Z.java",
+			"public class Z {\n" +
+			"	int foo() { return \"\"; }\n" +
+			"}");
+		String response = serve(
+			request(compileArguments(x))
+			+ "\n" // empty requests are ignored
+			+ request(compileArguments(z))
+			+ request("-version"));
+		int versionStart = response.indexOf("exit 1\n") + 7;
+		assertEquals(
+			"exit 0\n" +
+			"err ----------\n" +
+			"err 1. ERROR in " + z + " (at line 2)\n" +
+			"err 	int foo() { return \"\"; }\n" +
+			"err 	                   ^^\n" +
+			"err Type mismatch: cannot convert from String to int\n" +
+			"err ----------\n" +
+			"err 1 problem (1 error)\n" +
+			"exit 1\n",
+			response.substring(0, versionStart));
+		String version = response.substring(versionStart);
+		assertTrue("Unexpected version:\n" + version, version.startsWith("out Eclipse Compiler for Java(TM) "));
+		assertTrue("Unexpected version:\n" + version, version.endsWith("\nexit 0\n"));
+		assertTrue("Missing class file", new File(DAEMON_DIR + File.separator + "bin", "X.class").exists());
+	}
+
+	private String undefinedMethodError(String path, String method, String line) {
+		return
+			"err ----------\n" +
+			"err 1. ERROR in " + path + " (at line 2)\n" +
+			"err " + line + "\n" +
+			"err " + line.substring(0, line.lastIndexOf(method + "()")).replaceAll("[^\t]", " ") + "^^^\n" +
+			"err The method " + method + "() is undefined for the type Lib\n" +
+			"err ----------\n" +
+			"err 1 problem (1 error)\n" +
+			"exit 1\n";
+	}
+
+	public void testArchiveReuse() throws IOException {
+		long lastModified = (System.currentTimeMillis() / 1000 - 60) * 1000;
+		writeLibJar("foo", lastModified);
+		String x = writeSource("X.java",
+			"public class X {\n" +
+			"	int foo() { return p.Lib.foo(); }\n" +
+			"}");
+		String y = writeSource("Y.java",
+			"public class Y {\n" +
+			"	int bar() { return p.Lib.bar(); }\n" +
+			"}");
+		// the jar is rewritten with the same size and timestamp, the daemon keeps reading what it read before
+		String response = serve(
+			request(compileArguments(x, LIB_JAR)),
+			(Action) () -> writeLibJar("bar", lastModified),
+			request(compileArguments(x, LIB_JAR)),
+			request(compileArguments(y, LIB_JAR)));
+		assertEquals(
+			"exit 0\n" +
+			"exit 0\n" +
+			undefinedMethodError(y, "bar", "	int bar() { return p.Lib.bar(); }"),
+			response);
+		// whereas a new daemon reads the new jar
+		response = serve(
+			request(compileArguments(y, LIB_JAR)),
+			request(compileArguments(x, LIB_JAR)));
+		assertEquals(
+			"exit 0\n" +
+			undefinedMethodError(x, "foo", "	int foo() { return p.Lib.foo(); }"),
+			response);
+	}
+
+	public void testArchiveInvalidation() throws IOException {
+		long lastModified = (System.currentTimeMillis() / 1000 - 60) * 1000;
+		writeLibJar("foo", lastModified);
+		String x = writeSource("X.java",
+			"public class X {\n" +
+			"	int foo() { return p.Lib.foo(); }\n" +
+			"}");
+		String y = writeSource("Y.java",
+			"public class Y {\n" +
+			"	int bar() { return p.Lib.bar(); }\n" +
+			"}");
+		String z = writeSource("Z.java",
+			"public class Z {\n" +
+			"	int bazz() { return p.Lib.bazz(); }\n" +
+			"}");
+		String response = serve(
+			request(compileArguments(x, LIB_JAR)),
+			// same size, new timestamp
+			(Action) () -> writeLibJar("bar", lastModified + 10000),
+			request(compileArguments(y, LIB_JAR)),
+			request(compileArguments(x, LIB_JAR)),
+			// new size, same timestamp
+			(Action) () -> writeLibJar("bazz", lastModified + 10000),
+			request(compileArguments(z, LIB_JAR)),
+			request(compileArguments(y, LIB_JAR)));
+		assertEquals(
+			"exit 0\n" +
+			"exit 0\n" +
+			undefinedMethodError(x, "foo", "	int foo() { return p.Lib.foo(); }") +
+			"exit 0\n" +
+			undefinedMethodError(y, "bar", "	int bar() { return p.Lib.bar(); }"),
+			response);
+	}
+}
@@ -15,6 +15,10 @@ package org.eclipse.jdt.core.tests.dom;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.jdt.core.BindingKey;
@@ -28,11 +32,13 @@ import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.ASTRequestor;
+import org.eclipse.jdt.core.dom.ASTVisitor;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.IBinding;
 import org.eclipse.jdt.core.dom.IMethodBinding;
 import org.eclipse.jdt.core.dom.ITypeBinding;
 import org.eclipse.jdt.core.dom.IVariableBinding;
+import org.eclipse.jdt.core.dom.SimpleName;
 import org.eclipse.jdt.core.dom.Type;
 import org.eclipse.jdt.core.dom.TypeDeclaration;
 import org.eclipse.jdt.core.tests.util.Util;
@@ -2292,4 +2298,156 @@ public void test082() throws CoreException, IOException {
 					requestor.asts
 				);
 	}
+
+	/*
+	 * Enough units for ParallelCompilationUnitResolver to split them in partitions (see MIN_PARTITION_SIZE), which refer
+	 * to one another across the partitions.
+	 */
+	private String[] getParallelResolveSources() {
+		int count = 250;
+		String[] pathAndSources = new String[count * 2];
+		for (int i = 0; i < count; i++) {
+			pathAndSources[i * 2] = "/P/p1/X" + i + ".java";
+			pathAndSources[i * 2 + 1] =
+				"package p1;\n" +
+				"public class X" + i + (i == 0 ? "" : " extends X" + (i - 1)) + " {\n" +
+				"  X" + ((i + 1) % count) + " next;\n" +
+				"  String foo" + i + "(X" + (count - 1 - i) + " x) {\n" +
+				"    return this.next.toString() + x.next;\n" +
+				"  }\n" +
+				"}";
+		}
+		return pathAndSources;
+	}
+
+	/*
+	 * Answers the bindings of the names of the given ASTs by unit, to be compared from one resolution to another.
+	 */
+	private String getNameBindings(List<CompilationUnit> asts) {
+		Map<String, String> bindings = new TreeMap<>();
+		for (CompilationUnit ast : asts) {
+			StringBuilder buffer = new StringBuilder();
+			buffer.append(ast.getProblems().length).append(" problems\n");
+			ast.accept(new ASTVisitor() {
+				@Override
+				public boolean visit(SimpleName node) {
+					IBinding binding = node.resolveBinding();
+					buffer.append(node.getIdentifier()).append('=').append(binding == null ? null : binding.getKey()).append('\n');
+					return true;
+				}
+			});
+			bindings.put(ast.getTypeRoot().getElementName(), buffer.toString());
+		}
+		StringBuilder result = new StringBuilder();
+		for (Map.Entry<String, String> entry : bindings.entrySet())
+			result.append(entry.getKey()).append(":\n").append(entry.getValue());
+		return result.toString();
+	}
+
+	/*
+	 * Ensures that the ASTs resolved by several threads (see jdt.dom.resolveThreads) have the same bindings as the ASTs
+	 * resolved by one thread.
+	 */
+	public void testParallelResolve() throws CoreException {
+		this.workingCopies = createWorkingCopies(getParallelResolveSources());
+		String setting = System.getProperty("jdt.dom.resolveThreads");
+		try {
+			System.clearProperty("jdt.dom.resolveThreads");
+			TestASTRequestor requestor = new TestASTRequestor();
+			resolveASTs(this.workingCopies, requestor);
+			String expected = getNameBindings(requestor.asts);
+
+			System.setProperty("jdt.dom.resolveThreads", "2");
+			requestor = new TestASTRequestor();
+			resolveASTs(this.workingCopies, requestor);
+			assertEquals("Unexpected number of ASTs", this.workingCopies.length, requestor.asts.size());
+			assertEquals("Unexpected bindings", expected, getNameBindings(requestor.asts));
+		} finally {
+			if (setting == null)
+				System.clearProperty("jdt.dom.resolveThreads");
+			else
+				System.setProperty("jdt.dom.resolveThreads", setting);
+		}
+	}
+
+	/*
+	 * Ensures that no AST is handed to the requestor anymore once a partition failed and the failure was reported.
+	 */
+	public void testParallelResolveFailure() throws CoreException, InterruptedException {
+		this.workingCopies = createWorkingCopies(getParallelResolveSources());
+		String setting = System.getProperty("jdt.dom.resolveThreads");
+		try {
+			System.setProperty("jdt.dom.resolveThreads", "2");
+			AtomicInteger accepted = new AtomicInteger();
+			TestASTRequestor requestor = new TestASTRequestor() {
+				@Override
+				public void acceptAST(ICompilationUnit source, CompilationUnit ast) {
+					if (source.getElementName().equals("X200.java"))
+						throw new IllegalStateException("failure on " + source.getElementName());
+					accepted.incrementAndGet();
+				}
+			};
+			try {
+				resolveASTs(this.workingCopies, requestor);
+				assertTrue("Should fail", false);
+			} catch (RuntimeException e) {
+				assertEquals("Unexpected failure", "failure on X200.java", getRootCause(e).getMessage());
+			}
+			int acceptedOnFailure = accepted.get();
+			Thread.sleep(200);
+			assertEquals("ASTs accepted after the failure", acceptedOnFailure, accepted.get());
+		} finally {
+			if (setting == null)
+				System.clearProperty("jdt.dom.resolveThreads");
+			else
+				System.setProperty("jdt.dom.resolveThreads", setting);
+		}
+	}
+
+	/*
+	 * Ensures that the ASTs resolved with their own bindings (see jdt.dom.streamingResolve) have the same bindings as the
+	 * ASTs resolved with the bindings of the batch, but that the bindings of different ASTs are only equal, not identical.
+	 */
+	public void testStreamingResolve() throws CoreException {
+		this.workingCopies = createWorkingCopies(getParallelResolveSources());
+		String setting = System.getProperty("jdt.dom.streamingResolve");
+		try {
+			System.clearProperty("jdt.dom.streamingResolve");
+			TestASTRequestor requestor = new TestASTRequestor();
+			resolveASTs(this.workingCopies, requestor);
+			String expected = getNameBindings(requestor.asts);
+			ITypeBinding superX1 = getTypeBinding(requestor.asts, "X1").getSuperclass();
+			assertTrue("Super of X1 and X0 should be the same", superX1 == getTypeBinding(requestor.asts, "X0"));
+
+			System.setProperty("jdt.dom.streamingResolve", "true");
+			requestor = new TestASTRequestor();
+			resolveASTs(this.workingCopies, requestor);
+			assertEquals("Unexpected number of ASTs", this.workingCopies.length, requestor.asts.size());
+			assertEquals("Unexpected bindings", expected, getNameBindings(requestor.asts));
+			superX1 = getTypeBinding(requestor.asts, "X1").getSuperclass();
+			ITypeBinding typeX0 = getTypeBinding(requestor.asts, "X0");
+			assertTrue("Super of X1 and X0 should not be the same", superX1 != typeX0);
+			assertTrue("Super of X1 and X0 should be equal", superX1.isEqualTo(typeX0));
+		} finally {
+			if (setting == null)
+				System.clearProperty("jdt.dom.streamingResolve");
+			else
+				System.setProperty("jdt.dom.streamingResolve", setting);
+		}
+	}
+
+	private ITypeBinding getTypeBinding(List<CompilationUnit> asts, String typeName) {
+		for (CompilationUnit ast : asts) {
+			TypeDeclaration type = (TypeDeclaration) ast.types().get(0);
+			if (type.getName().getIdentifier().equals(typeName))
+				return type.resolveBinding();
+		}
+		return null;
+	}
+
+	private static Throwable getRootCause(Throwable throwable) {
+		while (throwable.getCause() != null)
+			throwable = throwable.getCause();
+		return throwable;
+	}
 }
@@ -69,6 +69,7 @@ import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.JavaConventions;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.WorkingCopyOwner;
 import org.eclipse.jdt.core.tests.model.ClasspathInitializerTests.DefaultVariableInitializer;
 import org.eclipse.jdt.core.tests.util.Util;
 import org.eclipse.jdt.internal.core.ClasspathEntry;
@@ -7512,4 +7513,39 @@ public void testBug576735a() throws Exception {
 			this.deleteProject("P1");
 	}
 }
+/*
+ * Ensures that the packages of a root which left the classpath, and whose packages changed meanwhile, are read again
+ * when the root is added back to the classpath with the same entry.
+ */
+public void testPackagesOfRootAddedBack() throws CoreException {
+	try {
+		JavaProject project = (JavaProject) createJavaProject("P", new String[] {"src", "src2"}, "bin");
+		createFolder("/P/src2/p");
+		IClasspathEntry[] classpath = project.getRawClasspath();
+		assertElementsEqual(
+			"Unexpected packages before removing src2",
+			"p [in src2 [in P]]",
+			project.newNameLookup((WorkingCopyOwner) null).findPackageFragments("p", false));
+
+		IClasspathEntry[] classpathWithoutSrc2 = new IClasspathEntry[classpath.length - 1];
+		for (int i = 0, j = 0; i < classpath.length; i++) {
+			if (!classpath[i].getPath().equals(new Path("/P/src2")))
+				classpathWithoutSrc2[j++] = classpath[i];
+		}
+		project.setRawClasspath(classpathWithoutSrc2, null);
+		assertElementsEqual(
+			"Unexpected packages after removing src2",
+			"<null>",
+			project.newNameLookup((WorkingCopyOwner) null).findPackageFragments("p", false));
+
+		createFolder("/P/src2/q");
+		project.setRawClasspath(classpath, null);
+		assertElementsEqual(
+			"Unexpected packages after adding src2 back",
+			"q [in src2 [in P]]",
+			project.newNameLookup((WorkingCopyOwner) null).findPackageFragments("q", false));
+	} finally {
+		deleteProject("P");
+	}
+}
 }
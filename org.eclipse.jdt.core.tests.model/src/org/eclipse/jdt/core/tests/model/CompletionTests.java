@@ -26296,4 +26296,110 @@ public void testGH1021OnSourceTypeArrayExpectArrayCompletion() throws JavaModelE
 					+ "}",
 			requestor.getResults());
 }
+static class PhaseRecordingRequestor extends CompletionTestsRequestor2 {
+	StringBuilder phases = new StringBuilder();
+	long phaseDelay; // milliseconds spent in beginPhase, to let a time budget expire
+	PhaseRecordingRequestor() {
+		super(true);
+	}
+	@Override
+	public void beginPhase(int phase) {
+		this.phases.append("begin(").append(phase).append(")\n");
+		if (this.phaseDelay > 0) {
+			try {
+				Thread.sleep(this.phaseDelay);
+			} catch (InterruptedException e) {
+				// ignore
+			}
+		}
+	}
+	@Override
+	public void endPhase(int phase, boolean truncated) {
+		this.phases.append("end(").append(phase).append(", ").append(truncated).append(")\n");
+	}
+}
+private ICompilationUnit[] getPhaseWorkingCopies() throws JavaModelException {
+	ICompilationUnit[] copies = new ICompilationUnit[2];
+	copies[0] = getWorkingCopy(
+			"Completion/src/phases/PhaseType.java",
+			"package phases;\n" +
+			"public class PhaseType {\n" +
+			"  public PhaseType() {}\n" +
+			"}\n");
+	copies[1] = getWorkingCopy(
+			"Completion/src/phases/PhaseTest.java",
+			"package phases;\n" +
+			"public class PhaseTest {\n" +
+			"  void foo() {\n" +
+			"    new PhaseTy\n" +
+			"  }\n" +
+			"}\n");
+	return copies;
+}
+private void assertPhasesBalanced(String phases) {
+	String[] lines = phases.split("\n");
+	assertTrue("No phase in:\n" + phases, lines.length >= 2 && lines.length % 2 == 0);
+	for (int i = 0; i < lines.length; i += 2) {
+		assertTrue("Unexpected phase id in:\n" + phases,
+				lines[i].equals("begin(" + CompletionRequestor.TYPES_FROM_INDEXES_PHASE + ")")
+				|| lines[i].equals("begin(" + CompletionRequestor.CONSTRUCTORS_FROM_INDEXES_PHASE + ")")
+				|| lines[i].equals("begin(" + CompletionRequestor.MISSING_TYPES_PHASE + ")"));
+		String phase = lines[i].substring("begin(".length(), lines[i].length() - 1);
+		assertTrue("Unbalanced phases in:\n" + phases, lines[i + 1].startsWith("end(" + phase + ", "));
+	}
+}
+// every phase that begins ends, and is not truncated without a time budget
+public void testCompletionPhases() throws JavaModelException {
+	this.workingCopies = getPhaseWorkingCopies();
+
+	PhaseRecordingRequestor requestor = new PhaseRecordingRequestor();
+	requestor.allowAllRequiredProposals();
+	String str = this.workingCopies[1].getSource();
+	String completeBehind = "new PhaseTy";
+	int cursorLocation = str.lastIndexOf(completeBehind) + completeBehind.length();
+	this.workingCopies[1].codeComplete(cursorLocation, requestor, this.wcOwner);
+
+	String phases = requestor.phases.toString();
+	assertPhasesBalanced(phases);
+	assertTrue("Types from indexes not searched in:\n" + phases, phases.contains("begin(" + CompletionRequestor.TYPES_FROM_INDEXES_PHASE + ")\n"));
+	assertFalse("Truncated phase in:\n" + phases, phases.contains("true"));
+	assertTrue("PhaseType not proposed in:\n" + requestor.getResults(), requestor.getResults().contains("PhaseType["));
+}
+// a phase that begins after the time budget expired is skipped
+public void testCompletionPhasesExpiredTimeBudget() throws JavaModelException {
+	this.workingCopies = getPhaseWorkingCopies();
+
+	PhaseRecordingRequestor requestor = new PhaseRecordingRequestor();
+	requestor.allowAllRequiredProposals();
+	requestor.setTimeBudget(1);
+	requestor.phaseDelay = 10;
+	assertEquals(1, requestor.getTimeBudget());
+	String str = this.workingCopies[1].getSource();
+	String completeBehind = "new PhaseTy";
+	int cursorLocation = str.lastIndexOf(completeBehind) + completeBehind.length();
+	this.workingCopies[1].codeComplete(cursorLocation, requestor, this.wcOwner);
+
+	String phases = requestor.phases.toString();
+	assertPhasesBalanced(phases);
+	assertFalse("Complete phase in:\n" + phases, phases.contains("false"));
+}
+// without a time budget, the proposals are the same as without phase notifications
+public void testCompletionPhasesNoTimeBudget() throws JavaModelException {
+	this.workingCopies = getPhaseWorkingCopies();
+	String str = this.workingCopies[1].getSource();
+	String completeBehind = "new PhaseTy";
+	int cursorLocation = str.lastIndexOf(completeBehind) + completeBehind.length();
+
+	CompletionTestsRequestor2 requestor = new CompletionTestsRequestor2(true);
+	requestor.allowAllRequiredProposals();
+	this.workingCopies[1].codeComplete(cursorLocation, requestor, this.wcOwner);
+
+	PhaseRecordingRequestor phaseRequestor = new PhaseRecordingRequestor();
+	phaseRequestor.allowAllRequiredProposals();
+	phaseRequestor.setTimeBudget(0);
+	this.workingCopies[1].codeComplete(cursorLocation, phaseRequestor, this.wcOwner);
+
+	assertEquals(0, phaseRequestor.getTimeBudget());
+	assertResults(requestor.getResults(), phaseRequestor.getResults());
+}
 }
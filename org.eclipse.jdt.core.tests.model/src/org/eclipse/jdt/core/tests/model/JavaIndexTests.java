@@ -16,8 +16,16 @@ package org.eclipse.jdt.core.tests.model;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.zip.CRC32;
 
 import junit.framework.Test;
@@ -34,15 +42,24 @@ import org.eclipse.jdt.core.IClasspathEntry;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IJavaProject;
 import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.core.index.*;
 import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchPattern;
 import org.eclipse.jdt.core.tests.util.Util;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileConstants;
 import org.eclipse.jdt.internal.core.ClasspathEntry;
 import org.eclipse.jdt.internal.core.JavaModelManager;
 import org.eclipse.jdt.internal.core.UserLibraryClasspathContainer;
 import org.eclipse.jdt.internal.core.index.DiskIndex;
+import org.eclipse.jdt.internal.core.index.EntryResult;
+import org.eclipse.jdt.internal.core.index.FileIndexLocation;
 import org.eclipse.jdt.internal.core.index.Index;
+import org.eclipse.jdt.internal.core.search.indexing.IIndexConstants;
 import org.eclipse.jdt.internal.core.search.indexing.IndexManager;
+import org.eclipse.jdt.internal.core.search.indexing.SharedIndexStore;
+import org.eclipse.jdt.internal.core.search.matching.SecondaryTypeDeclarationPattern;
+import org.eclipse.jdt.internal.core.search.matching.TypeDeclarationPattern;
 import org.osgi.service.prefs.BackingStoreException;
 
 public class JavaIndexTests extends AbstractJavaSearchTests  {
@@ -78,6 +95,274 @@ public class JavaIndexTests extends AbstractJavaSearchTests  {
 		}
 	}
 
+	// Test that exact match queries against a saved index answer the same documents as were added
+	public void testExactMatchQueries() throws IOException {
+		String indexFilePath = getExternalResourcePath("Exact.index");
+		try {
+			Index index = new Index(new FileIndexLocation(new File(indexFilePath)), "Exact", false);
+			char[] category = "ref".toCharArray();
+			char[] otherCategory = "other".toCharArray();
+			Map<String, Set<String>> expected = new HashMap<>();
+			// more words than fit in a read buffer, some not ASCII
+			for (int i = 0; i < 3000; i++)
+				addIndexEntry(index, category, (i % 7 == 0 ? "w\u00f6rd\u4e2d" : "word") + i, "doc" + (i % 300) + ".java", expected);
+			// more than 255 documents are stored apart from the table
+			for (int i = 0; i < 300; i++)
+				addIndexEntry(index, category, "common", "doc" + i + ".java", expected);
+			index.addIndexEntry(otherCategory, "word1".toCharArray(), "other.java");
+			index.save();
+
+			int matchRule = SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE;
+			// the first lookup of a category scans its table on disk
+			for (String word : new String[] {"word1", "w\u00f6rd\u4e2d7", "word2999", "common", "word3000"}) {
+				Index reopened = new Index(new FileIndexLocation(new File(indexFilePath)), "Exact", true);
+				EntryResult[] results = reopened.query(new char[][] {category}, word.toCharArray(), matchRule);
+				if (expected.containsKey(word)) {
+					assertNotNull("No result for " + word, results);
+					assertEquals(expected.get(word), new TreeSet<>(Arrays.asList(results[0].getDocumentNames(reopened))));
+				} else {
+					assertNull("Unexpected result for " + word, results);
+				}
+			}
+			// the next ones read the table
+			for (Map.Entry<String, Set<String>> entry : expected.entrySet()) {
+				EntryResult[] results = index.query(new char[][] {category}, entry.getKey().toCharArray(), matchRule);
+				assertNotNull("No result for " + entry.getKey(), results);
+				assertEquals(1, results.length);
+				assertEquals(entry.getKey(), new String(results[0].getWord()));
+				assertEquals(entry.getValue(), new TreeSet<>(Arrays.asList(results[0].getDocumentNames(index))));
+			}
+			for (String word : new String[] {"word", "word3000", "Word1", "commo", "commons"})
+				assertNull("Unexpected result for " + word, index.query(new char[][] {category}, word.toCharArray(), matchRule));
+			assertNull(index.query(new char[][] {"unknown".toCharArray()}, "word1".toCharArray(), matchRule));
+
+			EntryResult[] results = index.query(new char[][] {otherCategory, category}, "word1".toCharArray(), matchRule);
+			assertEquals(1, results.length);
+			assertEquals("[doc1.java, other.java]", new TreeSet<>(Arrays.asList(results[0].getDocumentNames(index))).toString());
+		} finally {
+			new File(indexFilePath).delete();
+		}
+	}
+
+	// Test that substring, pattern and camel case queries, answered from the trigram postings of large category tables,
+	// match the same words as matching every word
+	public void testNgramQueries() throws IOException {
+		String indexFilePath = getExternalResourcePath("Ngram.index");
+		try {
+			Index index = new Index(new FileIndexLocation(new File(indexFilePath)), "Ngram", false);
+			char[] category = "typeDecl".toCharArray();
+			String[] parts = {"Abstract", "Array", "List", "Map", "Hash", "Tree", "Node", "Visitor", "Factory", "Impl", "X", "IO", "Url", "\u00fcmlaut"};
+			String[] packages = {"java/util", "org/eclipse/jdt", "p", ""};
+			List<String> words = new ArrayList<>();
+			// more words than the largest table kept in the cache
+			for (int i = 0; i < 25000; i++) {
+				String name = parts[i % parts.length] + parts[(i / parts.length) % parts.length]
+						+ (i % 3 == 0 ? "" : parts[(i / 7) % parts.length]) + i % 101;
+				String word = name + "/" + packages[i % packages.length] + "/" + (i % 5 == 0 ? "Outer" : "") + "/" + (i % 2);
+				words.add(word);
+				index.addIndexEntry(category, word.toCharArray(), "doc" + i + ".java");
+			}
+			index.save();
+
+			int[] matchRules = {
+				SearchPattern.R_SUBSTRING_MATCH,
+				SearchPattern.R_PATTERN_MATCH,
+				SearchPattern.R_PATTERN_MATCH | SearchPattern.R_CASE_SENSITIVE,
+				SearchPattern.R_CAMELCASE_MATCH,
+				SearchPattern.R_CAMELCASE_MATCH | SearchPattern.R_CASE_SENSITIVE,
+				SearchPattern.R_CAMELCASE_SAME_PART_COUNT_MATCH,
+				SearchPattern.R_PREFIX_MATCH | SearchPattern.R_SUBSTRING_MATCH,
+				SearchPattern.R_PREFIX_MATCH,
+				SearchPattern.R_EXACT_MATCH
+			};
+			String[] keys = {"list", "ashMa", "*map*impl*", "A?stract*", "*Map*/java/util/*", "HM", "AbsLi", "LiMaHa",
+					"MapTree1", "url", "Outer", "util", "\u00fcmla", "xyz", "IO", "*/1", "Tree*/p/*"};
+			// the second time, the table is read again and gets new postings
+			for (int i = 0; i < 2; i++) {
+				index.startQuery();
+				try {
+					for (int matchRule : matchRules) {
+						for (String key : keys) {
+							Set<String> expected = new TreeSet<>();
+							for (String word : words)
+								if (Index.isMatch(key.toCharArray(), word.toCharArray(), matchRule))
+									expected.add(word);
+							Set<String> actual = new TreeSet<>();
+							EntryResult[] results = index.query(new char[][] {category}, key.toCharArray(), matchRule);
+							if (results != null)
+								for (EntryResult result : results)
+									actual.add(new String(result.getWord()));
+							assertEquals("Unexpected words for " + key + " with match rule " + matchRule, expected, actual);
+						}
+					}
+				} finally {
+					index.stopQuery();
+				}
+			}
+		} finally {
+			new File(indexFilePath).delete();
+		}
+	}
+
+	private static void addIndexEntry(Index index, char[] category, String word, String documentName, Map<String, Set<String>> expected) {
+		index.addIndexEntry(category, word.toCharArray(), documentName);
+		expected.computeIfAbsent(word, w -> new TreeSet<>()).add(documentName);
+	}
+
+	private static void assertSecondaryTypes(String expected, Index index) throws IOException {
+		SecondaryTypeDeclarationPattern pattern = new SecondaryTypeDeclarationPattern();
+		char[][] categories = pattern.getIndexCategories();
+		assertEquals(1, categories.length);
+		assertTrue("Unexpected category " + new String(categories[0]), CharOperation.equals(IIndexConstants.SECONDARY_TYPE_DECL, categories[0]));
+		Set<String> typeNames = new TreeSet<>();
+		EntryResult[] results = pattern.queryIn(index);
+		if (results != null) {
+			for (EntryResult result : results) {
+				TypeDeclarationPattern decoded = (TypeDeclarationPattern) pattern.getBlankPattern();
+				decoded.decodeIndexKey(result.getWord());
+				typeNames.add(new String(decoded.pkg) + '.' + new String(decoded.simpleName));
+			}
+		}
+		assertEquals("Unexpected secondary types", expected, String.join(",", typeNames));
+	}
+
+	// Test that the secondary types of a unit are indexed in their own category, where SecondaryTypeDeclarationPattern
+	// finds them, and that an index of the previous version, which has no such category, is rebuilt rather than reused
+	public void testSecondaryTypeDeclarationIndex() throws CoreException, IOException {
+		try {
+			IJavaProject project = createJavaProject("P");
+			createFolder("/P/p");
+			createFile(
+				"/P/p/X.java",
+				"package p;\n" +
+				"public class X {\n" +
+				"  class Member {}\n" +
+				"}\n" +
+				"class Y {}\n");
+			waitUntilIndexesReady();
+			IndexManager indexManager = JavaModelManager.getIndexManager();
+			Index index = indexManager.getIndex(project.getPath(), true /*reuse*/, false /*don't create*/);
+			assertNotNull("Missing index of P", index);
+			assertSecondaryTypes("p.Y", index);
+
+			// replace the index with one of the previous version, where secondary types are only type declarations
+			File indexFile = index.getIndexFile();
+			simulateExit();
+			Index staleIndex = new Index(new FileIndexLocation(indexFile), "/P", false);
+			staleIndex.addIndexEntry(IIndexConstants.TYPE_DECL,
+					TypeDeclarationPattern.createIndexKey(ClassFileConstants.AccPublic, "X".toCharArray(), "p".toCharArray(), null, false),
+					"/P/p/X.java");
+			staleIndex.addIndexEntry(IIndexConstants.TYPE_DECL,
+					TypeDeclarationPattern.createIndexKey(0, "Y".toCharArray(), "p".toCharArray(), null, true),
+					"/P/p/X.java");
+			staleIndex.save();
+			byte[] contents = Files.readAllBytes(indexFile.toPath());
+			String version = DiskIndex.SIGNATURE.substring(DiskIndex.SIGNATURE.lastIndexOf('.') + 1);
+			String previousVersion = String.format("%0" + version.length() + "d", Integer.parseInt(version) - 1);
+			// the signature is written first, after its length
+			int versionStart = 2 + DiskIndex.SIGNATURE.length() - version.length();
+			assertEquals(version, new String(contents, versionStart, version.length(), StandardCharsets.US_ASCII));
+			System.arraycopy(previousVersion.getBytes(StandardCharsets.US_ASCII), 0, contents, versionStart, version.length());
+			Files.write(indexFile.toPath(), contents);
+			try {
+				new Index(new FileIndexLocation(indexFile), "/P", true);
+				fail("An index of the previous version should not be reused");
+			} catch (IOException e) {
+				// expected, the index manager rebuilds it
+			}
+
+			simulateRestart();
+			indexManager = JavaModelManager.getIndexManager();
+			indexManager.getIndex(project.getPath(), true /*reuse*/, false /*don't create*/); // schedules the rebuild
+			waitUntilIndexesReady();
+			index = indexManager.getIndex(project.getPath(), true /*reuse*/, false /*don't create*/);
+			assertNotNull("Missing rebuilt index of P", index);
+			assertSecondaryTypes("p.Y", index);
+		} finally {
+			deleteProject("P");
+		}
+	}
+
+	// Test that the modification count of an index, which tells whether the super type references cached for it
+	// are still valid, changes whenever entries are added or removed, but not when the index is saved or queried
+	public void testModificationCount() throws IOException {
+		String indexFilePath = getExternalResourcePath("Modification.index");
+		try {
+			Index index = new Index(new FileIndexLocation(new File(indexFilePath)), "Modification", false);
+			int count = index.getModificationCount();
+			index.addIndexEntry(IIndexConstants.SUPER_REF, "Base/p/A/p//C/C/\1".toCharArray(), "p/A.java");
+			assertTrue("Adding an entry should change the count", index.getModificationCount() != count);
+
+			count = index.getModificationCount();
+			index.save();
+			index.query(new char[][] {IIndexConstants.SUPER_REF}, "Base/".toCharArray(), SearchPattern.R_PREFIX_MATCH | SearchPattern.R_CASE_SENSITIVE);
+			assertEquals("Saving or querying should not change the count", count, index.getModificationCount());
+
+			index.remove("p/A.java");
+			assertTrue("Removing a document should change the count", index.getModificationCount() != count);
+
+			count = index.getModificationCount();
+			index.reset();
+			assertTrue("Resetting should change the count", index.getModificationCount() != count);
+		} finally {
+			new File(indexFilePath).delete();
+		}
+	}
+
+	// Test that the shared index store names the index of a library after its contents, publishes an index only once
+	// and restores it as a complete index file in another location
+	public void testSharedIndexStore() throws IOException {
+		File storeDir = Files.createTempDirectory("index_store").toFile();
+		File workDir = Files.createTempDirectory("index_work").toFile();
+		try {
+			SharedIndexStore store = new SharedIndexStore(new File(storeDir, "store"));
+			File jar = new File(workDir, "Test.jar");
+			createJar(new String[] {
+					"pkg/Test.java",
+					"package pkg;\n" +
+					"public class Test {\n" +
+					"}"}, jar.getPath());
+			File sharedFile = store.getSharedFile(jar);
+			assertEquals(new File(storeDir, "store"), sharedFile.getParentFile());
+			assertEquals("The same library should share the same index", sharedFile, store.getSharedFile(jar));
+			File copy = new File(workDir, "Copy.jar");
+			Files.copy(jar.toPath(), copy.toPath());
+			assertFalse("Libraries of another name should not share their index", sharedFile.equals(store.getSharedFile(copy)));
+			assertNull("A missing library cannot be shared", store.getSharedFile(new File(workDir, "Missing.jar")));
+			assertFalse("An index which is not shared yet should not be restored", store.restore(sharedFile, new File(workDir, "Restored.index")));
+
+			File indexFile = new File(workDir, "Test.index");
+			JavaIndexer.generateIndexForJar(jar.getPath(), indexFile.getPath());
+			store.publish(sharedFile, indexFile);
+			byte[] contents = Files.readAllBytes(indexFile.toPath());
+			assertTrue("The index should be published", Arrays.equals(contents, Files.readAllBytes(sharedFile.toPath())));
+			// another workspace publishing the same library keeps the shared index
+			File otherIndexFile = new File(workDir, "Other.index");
+			Files.write(otherIndexFile.toPath(), new byte[] {0});
+			store.publish(sharedFile, otherIndexFile);
+			assertTrue("The shared index should not change", Arrays.equals(contents, Files.readAllBytes(sharedFile.toPath())));
+
+			File restoredFile = new File(workDir, "other/Restored.index");
+			assertTrue("The shared index should be restored", store.restore(sharedFile, restoredFile));
+			Index index = new Index(new FileIndexLocation(restoredFile), "Restored", true);
+			EntryResult[] results = index.query(new char[][] {IIndexConstants.TYPE_DECL}, "Test/pkg/".toCharArray(), SearchPattern.R_PREFIX_MATCH | SearchPattern.R_CASE_SENSITIVE);
+			assertNotNull("Missing type in the restored index", results);
+			assertEquals("[pkg/Test.class]", Arrays.toString(results[0].getDocumentNames(index)));
+
+			// a changed library has another shared index
+			createJar(new String[] {
+					"pkg/Test.java",
+					"package pkg;\n" +
+					"public class Test {\n" +
+					"  public void foo() {}\n" +
+					"}"}, jar.getPath());
+			assertFalse("A changed library should not share the same index", sharedFile.equals(store.getSharedFile(jar)));
+		} finally {
+			Util.delete(storeDir);
+			Util.delete(workDir);
+		}
+	}
+
 	// Test that the index file and the jar can be deleted after the indexing is done
 	// This is to ensure that the files are closed
 	public void testDeleteIndexedFile() {
@@ -98,6 +383,71 @@ public class JavaIndexTests extends AbstractJavaSearchTests  {
 		}
 	}
 
+	// Test that the index of a big jar, whose class files are indexed concurrently (if the common pool has more than
+	// one thread), has the same entries as the index of a small jar with the same class files, indexed sequentially
+	public void testIndexBigJar() throws CoreException, IOException {
+		String bigJarPath = getExternalResourcePath("Big.jar");
+		String smallJarPath = getExternalResourcePath("Small.jar");
+		try {
+			// more class files than are indexed in one batch
+			String[] classes = new String[600 * 2];
+			for (int i = 0; i < 600; i++) {
+				classes[i * 2] = "p/X" + i + ".java";
+				classes[i * 2 + 1] =
+					"package p;\n" +
+					"public class X" + i + (i == 0 ? "" : " extends X" + (i - 1)) + " {\n" +
+					"  X" + (i + 1) % 600 + " next;\n" +
+					"  public X" + i + "(int i) {" + (i == 0 ? "" : " super(i);") + " }\n" +
+					"  public int m" + i % 10 + "() { return this.next.m" + (i + 1) % 10 + "(); }\n" +
+					"}";
+			}
+			// and enough other entries to be a big jar
+			String[] resources = new String[500 * 2];
+			for (int i = 0; i < 500; i++) {
+				resources[i * 2] = "res/r" + i + ".txt";
+				resources[i * 2 + 1] = "r" + i;
+			}
+			Util.createJar(classes, resources, bigJarPath, "1.8");
+			Util.createJar(classes, null, smallJarPath, "1.8");
+
+			IJavaProject p = createJavaProject("P");
+			Path bigLibPath = new Path(bigJarPath);
+			Path smallLibPath = new Path(smallJarPath);
+			setClasspath(p, new IClasspathEntry[] {
+					JavaCore.newLibraryEntry(bigLibPath, null, null),
+					JavaCore.newLibraryEntry(smallLibPath, null, null)});
+			waitUntilIndexesReady();
+
+			IndexManager indexManager = JavaModelManager.getIndexManager();
+			List<String> bigEntries = indexEntries(indexManager.getIndex(bigLibPath, false, false));
+			List<String> smallEntries = indexEntries(indexManager.getIndex(smallLibPath, false, false));
+			assertTrue("Missing type declaration", bigEntries.stream().anyMatch(e -> e.startsWith("typeDecl X599/p/") && e.endsWith(" [p/X599.class]")));
+			assertEquals("Unexpected index entries", String.join("\n", smallEntries), String.join("\n", bigEntries));
+		} finally {
+			deleteProject("P");
+			new File(bigJarPath).delete();
+			new File(smallJarPath).delete();
+		}
+	}
+
+	private static List<String> indexEntries(Index index) throws IOException {
+		List<String> entries = new ArrayList<>();
+		char[][] categories = {
+				IIndexConstants.REF, IIndexConstants.METHOD_REF, IIndexConstants.CONSTRUCTOR_REF, IIndexConstants.SUPER_REF,
+				IIndexConstants.TYPE_DECL, IIndexConstants.SECONDARY_TYPE_DECL, IIndexConstants.METHOD_DECL,
+				IIndexConstants.METHOD_DECL_PLUS, IIndexConstants.CONSTRUCTOR_DECL, IIndexConstants.FIELD_DECL };
+		for (char[] category : categories) {
+			EntryResult[] results = index.query(new char[][] {category}, null, SearchPattern.R_EXACT_MATCH);
+			if (results == null)
+				continue;
+			for (EntryResult result : results)
+				entries.add(new String(category) + " " + new String(result.getWord()) + " "
+						+ new TreeSet<>(Arrays.asList(result.getDocumentNames(index))));
+		}
+		entries.sort(null);
+		return entries;
+	}
+
 	// Test that search works fine with the index file
 	public void testUseIndex() throws CoreException, IOException {
 		String indexFilePath = getExternalResourcePath("Test.index");
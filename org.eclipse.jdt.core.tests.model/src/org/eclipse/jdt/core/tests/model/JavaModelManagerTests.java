@@ -1,5 +1,6 @@
 package org.eclipse.jdt.core.tests.model;
 
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
@@ -20,6 +21,8 @@ import org.eclipse.jdt.core.IOrdinaryClassFile;
 import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader;
+import org.eclipse.jdt.internal.core.BinaryTypeCache;
 import org.eclipse.jdt.internal.core.JavaElement;
 import org.eclipse.jdt.internal.core.JavaModelManager;
 
@@ -87,6 +90,58 @@ public class JavaModelManagerTests extends AbstractJavaModelTests {
 		}
 	}
 
+	private static ClassFileReader readTestClass(int[] reads) throws Exception {
+		reads[0]++;
+		try (InputStream stream = JavaModelManagerTests.class.getResourceAsStream("JavaModelManagerTests.class")) {
+			return new ClassFileReader(stream.readAllBytes(), "JavaModelManagerTests.class".toCharArray(), true);
+		}
+	}
+
+	/**
+	 * Reading the same class file of an unchanged archive twice hits the {@link BinaryTypeCache}, whereas a changed
+	 * timestamp or size of the archive misses it.
+	 */
+	public void testBinaryTypeCache() throws Exception {
+		BinaryTypeCache cache = new BinaryTypeCache(10);
+		int[] reads = new int[1];
+		String archive = "/lib/lib.jar";
+		String fileName = "p/X.class";
+
+		ClassFileReader type = cache.getType(archive, 1000, 200, fileName, null, () -> readTestClass(reads));
+		assertSame("Unexpected cached type", type, cache.getType(archive, 1000, 200, fileName, null, () -> readTestClass(reads)));
+		assertEquals("Unexpected reads", 1, reads[0]);
+		assertEquals("Unexpected hits", 1, cache.getHits());
+		assertEquals("Unexpected misses", 1, cache.getMisses());
+
+		ClassFileReader touched = cache.getType(archive, 2000, 200, fileName, null, () -> readTestClass(reads));
+		assertNotSame("Unexpected type of the touched archive", type, touched);
+		ClassFileReader resized = cache.getType(archive, 2000, 300, fileName, null, () -> readTestClass(reads));
+		assertNotSame("Unexpected type of the resized archive", touched, resized);
+		assertEquals("Unexpected reads", 3, reads[0]);
+		assertEquals("Unexpected hits", 1, cache.getHits());
+		assertEquals("Unexpected misses", 3, cache.getMisses());
+	}
+
+	/**
+	 * Flushing an archive from the {@link BinaryTypeCache} only drops the types read from this archive.
+	 */
+	public void testBinaryTypeCacheFlush() throws Exception {
+		BinaryTypeCache cache = new BinaryTypeCache(10);
+		int[] reads = new int[1];
+		String fileName = "p/X.class";
+		cache.getType("/lib/lib1.jar", 1000, 200, fileName, null, () -> readTestClass(reads));
+		cache.getType("/lib/lib2.jar", 1000, 200, fileName, null, () -> readTestClass(reads));
+
+		cache.flush("/lib/lib1.jar");
+		cache.getType("/lib/lib1.jar", 1000, 200, fileName, null, () -> readTestClass(reads));
+		cache.getType("/lib/lib2.jar", 1000, 200, fileName, null, () -> readTestClass(reads));
+		assertEquals("Unexpected reads", 3, reads[0]);
+
+		cache.flush();
+		cache.getType("/lib/lib2.jar", 1000, 200, fileName, null, () -> readTestClass(reads));
+		assertEquals("Unexpected reads", 4, reads[0]);
+	}
+
 	private static List<Thread> startThreads(List<CheckIfTypeExists> runnables) {
 		List<Thread> threads = new ArrayList<>(runnables.size());
 		for (CheckIfTypeExists runnable : runnables) {
@@ -3179,4 +3179,66 @@ public class JavaSearchBugsTests2 extends AbstractJavaSearchTests {
 					LANGMatcher.matches());
 		}
 	}
+
+	/**
+	 * Test that the matches found with the possible matches parsed by several threads (see jdt.search.parseThreads)
+	 * are the same, in the same order, as the ones found by the calling thread only
+	 */
+	public void testParallelParsing() throws CoreException {
+		String setting = System.getProperty("jdt.search.parseThreads");
+		try {
+			IJavaProject project = createJavaProject("P", new String[] {""}, new String[] {"JCL15_LIB"}, "", "1.5");
+			createFolder("/P/p");
+			createFile("/P/p/Target.java",
+				"package p;\n" +
+				"public class Target {\n" +
+				"	public int foo() { return 0; }\n" +
+				"}");
+			// enough possible matches to be parsed by workers
+			int count = 60;
+			for (int i = 0; i < count; i++) {
+				createFile("/P/p/C" + i + ".java",
+					"package p;\n" +
+					"public class C" + i + " {\n" +
+					"	int bar() {\n" +
+					"		Target t = new Target();\n" +
+					"		return t.foo()" + (i % 2 == 0 ? " + new C" + ((i + 1) % count) + "().bar()" : "") + ";\n" +
+					"	}\n" +
+					"}");
+			}
+			// a working copy is left to the calling thread
+			this.workingCopies = new ICompilationUnit[1];
+			this.workingCopies[0] = getWorkingCopy("/P/p/C1.java",
+				"package p;\n" +
+				"public class C1 {\n" +
+				"	Target t;\n" +
+				"	int bar() {\n" +
+				"		return this.t.foo() + this.t.foo();\n" +
+				"	}\n" +
+				"}");
+			waitUntilIndexesReady();
+			IJavaSearchScope scope = SearchEngine.createJavaSearchScope(new IJavaElement[] { project });
+
+			System.clearProperty("jdt.search.parseThreads");
+			JavaSearchResultCollector expected = new JavaSearchResultCollector();
+			expected.showAccuracy(true);
+			search("foo", IJavaSearchConstants.METHOD, IJavaSearchConstants.REFERENCES, EXACT_RULE, scope, expected);
+			search("Target", IJavaSearchConstants.TYPE, IJavaSearchConstants.REFERENCES, EXACT_RULE, scope, expected);
+			// 2 references to Target and 1 to foo() in each unit, the working copy of C1 included
+			assertEquals("Unexpected number of matches", count * 3, expected.count);
+
+			System.setProperty("jdt.search.parseThreads", "4");
+			JavaSearchResultCollector actual = new JavaSearchResultCollector();
+			actual.showAccuracy(true);
+			search("foo", IJavaSearchConstants.METHOD, IJavaSearchConstants.REFERENCES, EXACT_RULE, scope, actual);
+			search("Target", IJavaSearchConstants.TYPE, IJavaSearchConstants.REFERENCES, EXACT_RULE, scope, actual);
+			assertSearchResults(expected.toString(), actual);
+		} finally {
+			if (setting == null)
+				System.clearProperty("jdt.search.parseThreads");
+			else
+				System.setProperty("jdt.search.parseThreads", setting);
+			deleteProject("P");
+		}
+	}
 }
\ No newline at end of file
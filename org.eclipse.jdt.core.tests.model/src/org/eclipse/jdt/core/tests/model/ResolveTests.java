@@ -30,6 +30,8 @@ import org.eclipse.jdt.core.IType;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.WorkingCopyOwner;
+import org.eclipse.jdt.internal.core.CompilationUnit;
+import org.eclipse.jdt.internal.core.SelectionCache;
 
 public class ResolveTests extends AbstractJavaModelTests {
 	ICompilationUnit wc = null;
@@ -2732,4 +2734,111 @@ public void testConstantInLocal() throws JavaModelException {
 			"CONSTANT [in Local [in main(String[]) [in X [in [Working copy] Test2.java [in <default> [in src [in Resolve]]]]]]]",
 			elements);
 }
+private SelectionCache getSelectionCache(ICompilationUnit workingCopy) {
+	return ((CompilationUnit) workingCopy).getPerWorkingCopyInfo().getSelectionCache();
+}
+private ICompilationUnit[] getSelectionCacheWorkingCopies() throws JavaModelException {
+	ICompilationUnit[] copies = new ICompilationUnit[2];
+	copies[0] = getWorkingCopy(
+		"/Resolve/src/test/Test.java",
+		"package test;\n"+
+		"public class Test {\n" +
+		"  void foo(Test1 t) {}\n" +
+		"  void bar() {\n" +
+		"    foo(new Test1());\n" +
+		"  }\n" +
+		"}\n");
+	copies[1] = getWorkingCopy(
+		"/Resolve/src/test/Test1.java",
+		"package test;\n"+
+		"public class Test1 {\n" +
+		"}\n");
+	return copies;
+}
+private IJavaElement[] selectFoo(ICompilationUnit workingCopy) throws JavaModelException {
+	String str = workingCopy.getSource();
+	return workingCopy.codeSelect(str.lastIndexOf("foo("), "foo".length(), this.wcOwner);
+}
+/*
+ * Asserts the selected elements, and that they are the previous ones if the selection is expected to be answered
+ * by the cache (the elements selected by a new resolution are new handles).
+ */
+private IJavaElement[] assertSelection(String message, IJavaElement[] previous, boolean cached, IJavaElement[] elements) {
+	assertElementsEqual(
+		"Unexpected elements",
+		"foo(Test1) [in Test [in [Working copy] Test.java [in test [in src [in Resolve]]]]]",
+		elements);
+	if (cached)
+		assertSame(message + ": should answer the cached element", previous[0], elements[0]);
+	else
+		assertNotSame(message + ": should not answer the cached element", previous[0], elements[0]);
+	return elements;
+}
+/*
+ * Ensures that a repeated selection in an unchanged working copy is answered by its selection cache, and that
+ * a change of its buffer or a reconcile invalidates the cache.
+ */
+public void testSelectionCache1() throws JavaModelException {
+	this.workingCopies = getSelectionCacheWorkingCopies();
+	ICompilationUnit workingCopy = this.workingCopies[0];
+	assertNotNull("Selection cache should be enabled", getSelectionCache(workingCopy));
+
+	IJavaElement[] selection = selectFoo(workingCopy);
+	selection = assertSelection("Repeated selection", selection, true, selectFoo(workingCopy));
+
+	// buffer edit
+	workingCopy.getBuffer().append("class Other {}\n");
+	selection = assertSelection("Selection after a buffer edit", selection, false, selectFoo(workingCopy));
+	selection = assertSelection("Repeated selection after a buffer edit", selection, true, selectFoo(workingCopy));
+
+	// reconcile of the same contents, whose structure changed
+	workingCopy.reconcile(ICompilationUnit.NO_AST, false, null, null);
+	selection = assertSelection("Selection after a reconcile", selection, false, selectFoo(workingCopy));
+	assertSelection("Repeated selection after a reconcile", selection, true, selectFoo(workingCopy));
+}
+/*
+ * Ensures that a structural change of another unit invalidates the selection cache of a working copy.
+ */
+public void testSelectionCache2() throws JavaModelException {
+	this.workingCopies = getSelectionCacheWorkingCopies();
+	ICompilationUnit workingCopy = this.workingCopies[0];
+
+	IJavaElement[] selection = selectFoo(workingCopy);
+	selection = assertSelection("Repeated selection", selection, true, selectFoo(workingCopy));
+
+	ICompilationUnit dependent = this.workingCopies[1];
+	dependent.getBuffer().setContents(
+		"package test;\n"+
+		"public class Test1 {\n" +
+		"  void baz() {}\n" +
+		"}\n");
+	selection = assertSelection("Selection after an edit of another unit", selection, true, selectFoo(workingCopy));
+	dependent.reconcile(ICompilationUnit.NO_AST, false, null, null);
+	selection = assertSelection("Selection after a reconcile of another unit", selection, false, selectFoo(workingCopy));
+	assertSelection("Repeated selection after a reconcile of another unit", selection, true, selectFoo(workingCopy));
+}
+/*
+ * Ensures that the selection cache is disabled by a size of 0.
+ */
+public void testSelectionCache3() throws JavaModelException {
+	String setting = System.getProperty(SelectionCache.SIZE_PROPERTY);
+	try {
+		System.setProperty(SelectionCache.SIZE_PROPERTY, "0");
+		this.workingCopies = getSelectionCacheWorkingCopies();
+		ICompilationUnit workingCopy = this.workingCopies[0];
+		assertNull("Selection cache should be disabled", getSelectionCache(workingCopy));
+		IJavaElement[] first = selectFoo(workingCopy);
+		IJavaElement[] second = selectFoo(workingCopy);
+		assertElementsEqual(
+			"Unexpected elements",
+			"foo(Test1) [in Test [in [Working copy] Test.java [in test [in src [in Resolve]]]]]",
+			second);
+		assertNotSame("Should not answer the previous element", first[0], second[0]);
+	} finally {
+		if (setting == null)
+			System.clearProperty(SelectionCache.SIZE_PROPERTY);
+		else
+			System.setProperty(SelectionCache.SIZE_PROPERTY, setting);
+	}
+}
 }
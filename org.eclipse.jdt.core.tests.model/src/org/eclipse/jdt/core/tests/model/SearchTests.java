@@ -16,7 +16,11 @@ package org.eclipse.jdt.core.tests.model;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
@@ -27,12 +31,19 @@ import org.eclipse.jdt.core.compiler.CharOperation;
 import org.eclipse.jdt.core.search.*;
 import org.eclipse.jdt.core.tests.model.Semaphore.TimeOutException;
 import org.eclipse.jdt.core.tests.util.Util;
+import org.eclipse.jdt.internal.compiler.env.AccessRestriction;
 import org.eclipse.jdt.internal.core.JavaElement;
 import org.eclipse.jdt.internal.core.JavaModelManager;
 import org.eclipse.jdt.internal.core.LocalVariable;
+import org.eclipse.jdt.internal.core.index.EntryResult;
+import org.eclipse.jdt.internal.core.index.Index;
 import org.eclipse.jdt.internal.core.search.BasicSearchEngine;
+import org.eclipse.jdt.internal.core.search.IRestrictedAccessTypeRequestor;
+import org.eclipse.jdt.internal.core.search.TypeNameCache;
+import org.eclipse.jdt.internal.core.search.indexing.IIndexConstants;
 import org.eclipse.jdt.internal.core.search.indexing.IndexManager;
 import org.eclipse.jdt.internal.core.search.processing.IJob;
+import org.eclipse.jdt.internal.core.search.processing.JobManager;
 
 import junit.framework.Test;
 
@@ -248,6 +259,71 @@ public class SearchTests extends ModifyingResourceTests implements IJavaSearchCo
 			JavaModelManager.getIndexManager().enable();
 		}
 	}
+	/*
+	 * A job working on the given concurrency key, which logs its start and its end. It waits at most the given time
+	 * for the awaited latch (if any) before ending, and counts down the other given latches when it starts and ends.
+	 */
+	static class KeyedJob implements IJob {
+		private final String name;
+		private final Object key;
+		private final List<String> log;
+		private final CountDownLatch started;
+		private final CountDownLatch awaited;
+		private final long awaitedMillis;
+		private final CountDownLatch done;
+		boolean overlapped; // whether the awaited latch was counted down while this job was running
+		InterruptedException interrupted; // asserted by the test thread, an exception thrown here would only be logged
+		KeyedJob(String name, Object key, List<String> log, CountDownLatch started, CountDownLatch awaited, long awaitedMillis, CountDownLatch done) {
+			this.name = name;
+			this.key = key;
+			this.log = log;
+			this.started = started;
+			this.awaited = awaited;
+			this.awaitedMillis = awaitedMillis;
+			this.done = done;
+		}
+		public boolean belongsTo(String jobFamily) {
+			return false;
+		}
+		public void cancel() {
+		}
+		public void ensureReadyToRun() {
+		}
+		public boolean execute(IProgressMonitor progress) {
+			this.log.add("start " + this.name);
+			if (this.started != null)
+				this.started.countDown();
+			try {
+				if (this.awaited != null)
+					this.overlapped = this.awaited.await(this.awaitedMillis, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				this.interrupted = e;
+			}
+			this.log.add("end " + this.name);
+			this.done.countDown();
+			return true;
+		}
+		public String getJobFamily() {
+			return "SearchTests.Keyed";
+		}
+		@Override
+		public Object getConcurrencyKey() {
+			return this.key;
+		}
+		@Override
+		public String toString() {
+			return this.name;
+		}
+	}
+	static class TestJobManager extends JobManager {
+		@Override
+		public String processName() {
+			return "SearchTests Job Manager";
+		}
+		@Override
+		protected void notifyIdle(long idlingMilliSeconds) {
+		}
+	}
 static {
 	//TESTS_PREFIX = "testSearchPatternValidateMatchRule";
 }
@@ -535,6 +611,69 @@ public void testConcurrentJob() throws CoreException, InterruptedException, IOEx
 		deleteProject("P1");
 	}
 }
+/*
+ * Runs the given jobs with a new job manager, which executes up to the given number of jobs concurrently.
+ */
+private void runJobs(String concurrentJobs, CountDownLatch done, IJob... jobs) throws InterruptedException {
+	String previous = System.getProperty(JobManager.CONCURRENT_JOBS_PROPERTY);
+	JobManager manager;
+	try {
+		if (concurrentJobs == null)
+			System.clearProperty(JobManager.CONCURRENT_JOBS_PROPERTY);
+		else
+			System.setProperty(JobManager.CONCURRENT_JOBS_PROPERTY, concurrentJobs);
+		manager = new TestJobManager();
+	} finally {
+		if (previous == null)
+			System.clearProperty(JobManager.CONCURRENT_JOBS_PROPERTY);
+		else
+			System.setProperty(JobManager.CONCURRENT_JOBS_PROPERTY, previous);
+	}
+	try {
+		manager.disable();
+		for (IJob job : jobs)
+			manager.request(job);
+		manager.reset();
+		manager.enable();
+		assertTrue("Jobs didn't complete", done.await(30, TimeUnit.SECONDS));
+	} finally {
+		manager.shutdown();
+	}
+}
+/*
+ * Ensures that the jobs at the start of the queue with distinct concurrency keys are executed concurrently, and that
+ * a job with the key of a running job or without a key waits until the running jobs are done.
+ */
+public void testConcurrentJobs() throws InterruptedException {
+	List<String> log = Collections.synchronizedList(new ArrayList<>());
+	CountDownLatch bStarted = new CountDownLatch(1);
+	CountDownLatch done = new CountDownLatch(4);
+	KeyedJob a = new KeyedJob("A", "key1", log, null, bStarted, 30000, done);
+	KeyedJob b = new KeyedJob("B", "key2", log, bStarted, null, 0, done);
+	KeyedJob c = new KeyedJob("C", "key1", log, null, null, 0, done);
+	KeyedJob d = new KeyedJob("D", null, log, null, null, 0, done);
+	runJobs("2", done, a, b, c, d);
+	assertNull("A should not be interrupted", a.interrupted);
+	assertTrue("A and B should run concurrently", a.overlapped);
+	List<String> batch = new ArrayList<>(log.subList(0, 4));
+	Collections.sort(batch);
+	assertEquals("Unexpected first batch", "[end A, end B, start A, start B]", batch.toString());
+	assertEquals("Unexpected following jobs", "[start C, end C, start D, end D]", log.subList(4, log.size()).toString());
+}
+/*
+ * Ensures that jobs with distinct concurrency keys are executed one at a time by default.
+ */
+public void testConcurrentJobsDisabled() throws InterruptedException {
+	List<String> log = Collections.synchronizedList(new ArrayList<>());
+	CountDownLatch bStarted = new CountDownLatch(1);
+	CountDownLatch done = new CountDownLatch(2);
+	KeyedJob a = new KeyedJob("A", "key1", log, null, bStarted, 200, done);
+	KeyedJob b = new KeyedJob("B", "key2", log, bStarted, null, 0, done);
+	runJobs(null, done, a, b);
+	assertNull("A should not be interrupted", a.interrupted);
+	assertFalse("A and B should run one at a time", a.overlapped);
+	assertEquals("Unexpected jobs", "[start A, end A, start B, end B]", log.toString());
+}
 /*
  * Ensures that passing a null progress monitor with a CANCEL_IF_NOT_READY_TO_SEARCH
  * waiting policy doesn't throw a NullPointerException but an OperationCanceledException.
@@ -582,6 +721,133 @@ public void testConcurrentJob() throws CoreException, InterruptedException, IOEx
  		deleteProject("P1");
  	}
  }
+protected void assertSecondaryTypeDeclarations(String expected, IJavaProject project) throws IOException {
+	Index index = JavaModelManager.getIndexManager().getIndex(project.getPath(), true /*reuse*/, false /*don't create*/);
+	assertNotNull("Missing index of " + project.getElementName(), index);
+	EntryResult[] results = index.query(
+		new char[][] {IIndexConstants.SECONDARY_TYPE_DECL},
+		null, // all the entries of the category
+		SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE);
+	List<String> typeNames = new ArrayList<>();
+	if (results != null) {
+		for (EntryResult result : results) {
+			char[] word = result.getWord();
+			// the key ends with the secondary suffix, its first part is the simple type name
+			assertEquals("Not a secondary type: " + new String(word), IIndexConstants.SECONDARY_SUFFIX, word[word.length - 1]);
+			typeNames.add(new String(CharOperation.subarray(word, 0, CharOperation.indexOf(IIndexConstants.SEPARATOR, word))));
+		}
+	}
+	Collections.sort(typeNames);
+	assertEquals("Unexpected secondary type declarations", expected, String.join("\n", typeNames));
+}
+/*
+ * Ensures that the secondary types of a project, and only them, are indexed in the secondary type declaration
+ * category, and that this category is updated when the secondary types change.
+ */
+public void testSecondaryTypeDeclarations() throws CoreException, IOException {
+	try {
+		IJavaProject project = createJavaProject("P1");
+		createFolder("/P1/p");
+		createFile(
+			"/P1/p/X.java",
+			"package p;\n" +
+			"public class X {\n" +
+			"  class Member {}\n" +
+			"}\n" +
+			"class Y {}\n" +
+			"interface Z {}"
+		);
+		createFile(
+			"/P1/p/W.java",
+			"package p;\n" +
+			"public class W {}"
+		);
+		waitUntilIndexesReady();
+		assertSecondaryTypeDeclarations(
+			"Y\n" +
+			"Z",
+			project);
+
+		editFile(
+			"/P1/p/X.java",
+			"package p;\n" +
+			"public class X {}\n" +
+			"class V {}"
+		);
+		waitUntilIndexesReady();
+		assertSecondaryTypeDeclarations("V", project);
+
+		// the secondary types found by searching this category
+		Map<String, Map<String, IType>> secondaryTypes = JavaModelManager.getJavaModelManager().secondaryTypes(project, true /*wait for indexes*/, null);
+		Map<String, IType> types = secondaryTypes.get("p");
+		assertNotNull("Missing secondary types of p", types);
+		assertEquals("Unexpected secondary types of p", Collections.singleton("V"), types.keySet());
+	} finally {
+		deleteProject("P1");
+	}
+}
+protected String searchTypeNames(IJavaProject project, String prefix, TypeNameCache cache) throws JavaModelException {
+	final List<String> types = new ArrayList<>();
+	new BasicSearchEngine().searchAllTypeNames(
+		null,
+		SearchPattern.R_EXACT_MATCH,
+		prefix.toCharArray(),
+		SearchPattern.R_PREFIX_MATCH | SearchPattern.R_CASE_SENSITIVE,
+		TYPE,
+		BasicSearchEngine.createJavaSearchScope(new IJavaElement[] {project}),
+		true, // resolve document names
+		new IRestrictedAccessTypeRequestor() {
+			public void acceptType(int modifiers, char[] packageName, char[] simpleTypeName, char[][] enclosingTypeNames, String path, AccessRestriction access) {
+				types.add(new String(CharOperation.concat(packageName, simpleTypeName, '.')));
+			}
+		},
+		WAIT_UNTIL_READY_TO_SEARCH,
+		null,
+		cache);
+	Collections.sort(types);
+	return String.join("\n", types);
+}
+/*
+ * Ensures that the types found by a type name search are cached until an index changes, and that a search of a longer
+ * prefix is answered from them.
+ */
+public void testTypeNameCache() throws CoreException {
+	try {
+		IJavaProject project = createJavaProject("P1");
+		createFolder("/P1/p");
+		createFile(
+			"/P1/p/FooA.java",
+			"package p;\n" +
+			"public class FooA {}"
+		);
+		createFile(
+			"/P1/p/Foobar.java",
+			"package p;\n" +
+			"public class Foobar {}"
+		);
+		waitUntilIndexesReady();
+		TypeNameCache cache = new TypeNameCache(TypeNameCache.DEFAULT_SIZE);
+
+		assertEquals("Unexpected types", "p.FooA\np.Foobar", searchTypeNames(project, "Foo", cache));
+		assertEquals("Unexpected types", "p.FooA\np.Foobar", searchTypeNames(project, "Foo", cache));
+		// a longer prefix narrows the cached types
+		assertEquals("Unexpected types", "p.Foobar", searchTypeNames(project, "Foob", cache));
+
+		// a new type changes the index of the project, the cached types are dropped
+		int generation = JavaModelManager.getIndexManager().getIndexGeneration();
+		createFile(
+			"/P1/p/FooB.java",
+			"package p;\n" +
+			"public class FooB {}"
+		);
+		waitUntilIndexesReady();
+		assertTrue("The index generation should change", JavaModelManager.getIndexManager().getIndexGeneration() != generation);
+		assertEquals("Unexpected types", "p.FooA\np.FooB\np.Foobar", searchTypeNames(project, "Foo", cache));
+		assertEquals("Unexpected types", "p.FooB", searchTypeNames(project, "FooB", cache));
+	} finally {
+		deleteProject("P1");
+	}
+}
 /*
  * Ensure that removing the outer folder from the classpath doesn't remove cus in inner folder
  * from index
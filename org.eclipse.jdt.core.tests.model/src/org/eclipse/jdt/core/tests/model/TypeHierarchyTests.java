@@ -47,6 +47,8 @@ import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.core.tests.model.SearchTests.WaitingJob;
 import org.eclipse.jdt.core.tests.model.Semaphore.TimeOutException;
 import org.eclipse.jdt.core.tests.util.Util;
+import org.eclipse.jdt.internal.core.JavaModelManager;
+import org.eclipse.jdt.internal.core.search.matching.SuperTypeReferenceCache;
 
 import junit.framework.Test;
 
@@ -3740,5 +3742,97 @@ public void testBugGh269() throws Exception {
 		deleteProject(testProjectName);
 	}
 }
+/*
+ * Ensures that the hierarchy computed with the candidates loaded by several threads (see jdt.hierarchy.loadThreads)
+ * is the same as the hierarchy computed by the calling thread only.
+ */
+public void testParallelCandidateLoading() throws Exception {
+	String testProjectName = "TypeHierarchyParallel";
+	String setting = System.getProperty("jdt.hierarchy.loadThreads");
+	try {
+		createJavaProject(testProjectName, new String[] {"src"}, new String[] {"JCL15_LIB"}, "bin", "1.5");
+		createFolder("/" + testProjectName + "/src/p");
+		createFile("/" + testProjectName + "/src/p/Base.java",
+			"package p;\n" +
+			"public class Base {\n" +
+			"}");
+		createFile("/" + testProjectName + "/src/p/I.java",
+			"package p;\n" +
+			"public interface I {\n" +
+			"}");
+		// enough candidates to be loaded by workers, some of them extending one another, some of them open
+		int count = 120;
+		for (int i = 0; i < count; i++) {
+			createFile("/" + testProjectName + "/src/p/C" + i + ".java",
+				"package p;\n" +
+				"public class C" + i + " extends " + (i % 3 == 0 ? "Base" : "C" + (i - 1)) + (i % 4 == 0 ? " implements I" : "") + " {\n" +
+				"}");
+		}
+		for (int i = 0; i < count; i += 10)
+			getCompilationUnit("/" + testProjectName + "/src/p/C" + i + ".java").open(null);
+		waitUntilIndexesReady();
+		IType base = getCompilationUnit("/" + testProjectName + "/src/p/Base.java").getType("Base");
+		IType superInterface = getCompilationUnit("/" + testProjectName + "/src/p/I.java").getType("I");
+
+		System.clearProperty("jdt.hierarchy.loadThreads");
+		ITypeHierarchy expectedBaseHierarchy = base.newTypeHierarchy(null);
+		ITypeHierarchy expectedIHierarchy = superInterface.newTypeHierarchy(null);
+		assertEquals("Unexpected number of sub types", count, expectedBaseHierarchy.getAllSubtypes(base).length);
+
+		System.setProperty("jdt.hierarchy.loadThreads", "4");
+		ITypeHierarchy baseHierarchy = base.newTypeHierarchy(null);
+		ITypeHierarchy iHierarchy = superInterface.newTypeHierarchy(null);
+		assertHierarchyEquals(expectedBaseHierarchy.toString(), baseHierarchy);
+		assertHierarchyEquals(expectedIHierarchy.toString(), iHierarchy);
+	} finally {
+		if (setting == null)
+			System.clearProperty("jdt.hierarchy.loadThreads");
+		else
+			System.setProperty("jdt.hierarchy.loadThreads", setting);
+		deleteProject(testProjectName);
+	}
+}
+
+/*
+ * Ensures that the super type references cached for the indexes are reused as long as the indexes don't change, and
+ * that adding a subtype invalidates the references of its index.
+ */
+public void testSuperTypeReferenceCache() throws CoreException {
+	String testProjectName = "TypeHierarchySuperTypeReferences";
+	try {
+		createJavaProject(testProjectName, new String[] {"src"}, new String[] {"JCL15_LIB"}, "bin", "1.5");
+		createFolder("/" + testProjectName + "/src/p");
+		createFile("/" + testProjectName + "/src/p/Base.java",
+			"package p;\n" +
+			"public class Base {\n" +
+			"}");
+		createFile("/" + testProjectName + "/src/p/A.java",
+			"package p;\n" +
+			"public class A extends Base {\n" +
+			"}");
+		waitUntilIndexesReady();
+		IType base = getCompilationUnit("/" + testProjectName + "/src/p/Base.java").getType("Base");
+		SuperTypeReferenceCache cache = JavaModelManager.getIndexManager().getSuperTypeReferenceCache();
+		assertTrue("The cache should be enabled", cache.isEnabled());
+
+		ITypeHierarchy hierarchy = base.newTypeHierarchy(null);
+		assertTypesEqual("Unexpected sub types", "p.A\n", hierarchy.getAllSubtypes(base));
+
+		// nothing changed, the references are taken from the cache
+		hierarchy = base.newTypeHierarchy(null);
+		assertTypesEqual("Unexpected sub types", "p.A\n", hierarchy.getAllSubtypes(base));
+
+		// a new subtype changes the index of the project, its references are queried again
+		createFile("/" + testProjectName + "/src/p/B.java",
+			"package p;\n" +
+			"public class B extends Base {\n" +
+			"}");
+		waitUntilIndexesReady();
+		hierarchy = base.newTypeHierarchy(null);
+		assertTypesEqual("Unexpected sub types", "p.A\np.B\n", hierarchy.getAllSubtypes(base));
+	} finally {
+		deleteProject(testProjectName);
+	}
+}
 
 }
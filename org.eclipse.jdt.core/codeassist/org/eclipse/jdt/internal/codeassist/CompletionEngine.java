@@ -32,11 +32,13 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.CompletionContext;
 import org.eclipse.jdt.core.CompletionFlags;
@@ -860,6 +862,10 @@ public final class CompletionEngine
 
 	private int foundConstructorsCount;
 	private ObjectVector acceptedConstructors;
+
+	private long timeBudgetDeadline; // System.nanoTime() when the time budget of the requestor expires, 0 if none
+	private int currentPhase; // one of the phases of CompletionRequestor, 0 outside of them
+	private volatile boolean currentPhaseTruncated; // also set by the searches of the phase, see #getPhaseMonitor()
 	/**
 	 * The strictMatchForExtepectedType used to skip all elements found at <code>findVariablesAndMethods</code>
 	 * which doesn't match the current expected types in the engine in <code>expectedTypes</code>. Since in this mode
@@ -945,6 +951,8 @@ public final class CompletionEngine
 		if ((this.foundConstructorsCount % (CHECK_CANCEL_FREQUENCY)) == 0) checkCancel();
 		this.foundConstructorsCount++;
 
+		if (isCurrentPhaseTruncated()) return;
+
 		if ((typeModifiers & ClassFileConstants.AccEnum) != 0) return;
 
 		if (this.options.checkDeprecation && (typeModifiers & ClassFileConstants.AccDeprecated) != 0) return;
@@ -1018,7 +1026,10 @@ public final class CompletionEngine
 			next : for (int i = 0; i < length; i++) {
 
 				// does not check cancellation for every types to avoid performance loss
-				if ((i % CHECK_CANCEL_FREQUENCY) == 0) checkCancel();
+				if ((i % CHECK_CANCEL_FREQUENCY) == 0) {
+					checkCancel();
+					if (isCurrentPhaseTruncated()) break next;
+				}
 
 				AcceptedConstructor acceptedConstructor = (AcceptedConstructor)this.acceptedConstructors.elementAt(i);
 				final int typeModifiers = acceptedConstructor.typeModifiers;
@@ -1457,6 +1468,8 @@ public final class CompletionEngine
 		if ((this.foundTypesCount % CHECK_CANCEL_FREQUENCY) == 0) checkCancel();
 		this.foundTypesCount++;
 
+		if (isCurrentPhaseTruncated()) return;
+
 		if (this.options.checkDeprecation && (modifiers & ClassFileConstants.AccDeprecated) != 0) return;
 		if (this.assistNodeIsExtendedType && (modifiers & ClassFileConstants.AccFinal) != 0) return;
 		if (this.assistNodeIsExtendedType && (modifiers & ExtraCompilerModifiers.AccRecord) != 0) return;
@@ -1514,7 +1527,10 @@ public final class CompletionEngine
 			next : for (int i = 0; i < length; i++) {
 
 				// does not check cancellation for every types to avoid performance loss
-				if ((i % CHECK_CANCEL_FREQUENCY) == 0) checkCancel();
+				if ((i % CHECK_CANCEL_FREQUENCY) == 0) {
+					checkCancel();
+					if (isCurrentPhaseTruncated()) break next;
+				}
 
 				AcceptedType acceptedType = (AcceptedType)this.acceptedTypes.elementAt(i);
 				char[] packageName = acceptedType.packageName;
@@ -1990,6 +2006,121 @@ public final class CompletionEngine
 		}
 	}
 
+	private void startTimeBudget() {
+		long timeBudget = this.requestor == null ? 0 : this.requestor.getTimeBudget();
+		this.timeBudgetDeadline = timeBudget > 0 ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudget) : 0;
+		this.currentPhase = 0;
+	}
+
+	/**
+	 * Notifies the requestor that the given phase begins, and answers whether its proposals must be computed, i.e.
+	 * whether the time budget of the requestor has not expired yet. A skipped phase is ended as truncated, otherwise
+	 * {@link #endPhase()} must be called once it is done.
+	 */
+	private boolean beginPhase(int phase) {
+		this.requestor.beginPhase(phase);
+		this.currentPhase = phase;
+		this.currentPhaseTruncated = false;
+		if (isCurrentPhaseTruncated()) {
+			endPhase();
+			return false;
+		}
+		return true;
+	}
+
+	private void endPhase() {
+		int phase = this.currentPhase;
+		this.currentPhase = 0;
+		this.requestor.endPhase(phase, this.currentPhaseTruncated);
+	}
+
+	/**
+	 * Answers whether the time budget of the requestor expired during the current phase, in which case the rest of
+	 * the phase is skipped. Always false outside of the phases.
+	 */
+	private boolean isCurrentPhaseTruncated() {
+		if (this.currentPhase == 0)
+			return false;
+		if (!this.currentPhaseTruncated && this.timeBudgetDeadline != 0 && System.nanoTime() - this.timeBudgetDeadline >= 0)
+			this.currentPhaseTruncated = true;
+		return this.currentPhaseTruncated;
+	}
+
+	/**
+	 * Answers the monitor to pass to the searches of the current phase, which is also canceled when the time budget of
+	 * the requestor expires. The searches then throw an {@link OperationCanceledException}, which the phase ignores
+	 * if it was only truncated.
+	 */
+	private IProgressMonitor getPhaseMonitor() {
+		if (this.timeBudgetDeadline == 0)
+			return this.monitor;
+		final IProgressMonitor completionMonitor = this.monitor;
+		return new NullProgressMonitor() {
+			@Override
+			public boolean isCanceled() {
+				return super.isCanceled()
+						|| (completionMonitor != null && completionMonitor.isCanceled())
+						|| isCurrentPhaseTruncated();
+			}
+		};
+	}
+
+	private void findTypesFromIndexes(char[] token, boolean proposeAllMemberTypes, int searchFor, Scope scope) {
+		if (!beginPhase(CompletionRequestor.TYPES_FROM_INDEXES_PHASE))
+			return;
+		try {
+			this.foundTypesCount = 0;
+			try {
+				this.nameEnvironment.findTypes(
+						token,
+						proposeAllMemberTypes,
+						getTypesMatchRule(),
+						searchFor,
+						false,
+						this,
+						getPhaseMonitor());
+			} catch (OperationCanceledException e) {
+				if (!isCurrentPhaseTruncated())
+					throw e;
+			}
+			acceptTypes(scope);
+		} finally {
+			endPhase();
+		}
+	}
+
+	private void findConstructorsFromIndexes(char[] token, Scope scope) {
+		if (!beginPhase(CompletionRequestor.CONSTRUCTORS_FROM_INDEXES_PHASE))
+			return;
+		try {
+			this.foundConstructorsCount = 0;
+			try {
+				this.nameEnvironment.findConstructorDeclarations(
+						token,
+						getTypesMatchRule(),
+						false,
+						this,
+						getPhaseMonitor());
+			} catch (OperationCanceledException e) {
+				if (!isCurrentPhaseTruncated())
+					throw e;
+			}
+			acceptConstructors(scope);
+		} finally {
+			endPhase();
+		}
+	}
+
+	private void guessMissingTypes(MissingTypesGuesser guesser, TypeReference typeRef, Scope scope, MissingTypesGuesser.GuessedTypeRequestor guessedTypeRequestor) {
+		if (!beginPhase(CompletionRequestor.MISSING_TYPES_PHASE))
+			return;
+		try {
+			guesser.guess(typeRef, scope, guessedTypeRequestor);
+		} finally {
+			endPhase();
+		}
+	}
+
 	private boolean complete(
 			ASTNode astNode,
 			ASTNode astNodeParent,
@@ -2122,6 +2253,7 @@ public final class CompletionEngine
 		}
 		if (this.monitor != null) this.monitor.beginTask(Messages.engine_completing, IProgressMonitor.UNKNOWN);
 		this.requestor.beginReporting();
+		startTimeBudget();
 		boolean contextAccepted = false;
 		try {
 			this.fileName = sourceUnit.getFileName();
@@ -2530,6 +2662,7 @@ public final class CompletionEngine
 		if(this.requestor != null){
 			this.requestor.beginReporting();
 		}
+		startTimeBudget();
 		boolean contextAccepted = false;
 		IType topLevelType = type;
 		while(topLevelType.getDeclaringType() != null) {
@@ -6067,7 +6200,7 @@ public final class CompletionEngine
 					}
 				}
 			};
-		missingTypesConverter.guess(typeRef, scope, substitutionRequestor);
+		guessMissingTypes(missingTypesConverter, typeRef, scope, substitutionRequestor);
 	}
 
 	private void findConstructors(ReferenceBinding currentType, TypeBinding[] argTypes, Scope scope,
@@ -8329,7 +8462,7 @@ public final class CompletionEngine
 
 				}
 			};
-		missingTypesConverter.guess(typeRef, scope, substitutionRequestor);
+		guessMissingTypes(missingTypesConverter, typeRef, scope, substitutionRequestor);
 	}
 
 	private void findFieldsAndMethodsFromStaticImports(
@@ -8682,16 +8815,7 @@ public final class CompletionEngine
 				false);
 		}
 		if(!this.requestor.isIgnored(CompletionProposal.TYPE_REF)) {
-			this.foundTypesCount = 0;
-			this.nameEnvironment.findTypes(
-					importName,
-					findMembers,
-					getTypesMatchRule(),
-					IJavaSearchConstants.TYPE,
-					false,
-					this,
-					this.monitor);
-			acceptTypes(null);
+			findTypesFromIndexes(importName, findMembers, IJavaSearchConstants.TYPE, null);
 		}
 	}
 
@@ -10528,7 +10652,7 @@ public final class CompletionEngine
 			};
 		SingleTypeReference typeRef = new SingleTypeReference(token, pos);
 		typeRef.resolvedType = new ProblemReferenceBinding(new char[][]{ token }, null, ProblemReasons.NotFound);
-		missingTypesConverter.guess(typeRef, scope, substitutionRequestor);
+		guessMissingTypes(missingTypesConverter, typeRef, scope, substitutionRequestor);
 	}
 
 	private void findMemberTypes(
@@ -10899,7 +11023,7 @@ public final class CompletionEngine
 			};
 		SingleTypeReference typeRef = new SingleTypeReference(typeName, pos);
 		typeRef.resolvedType = new ProblemReferenceBinding(new char[][]{ typeName }, null, ProblemReasons.NotFound);
-		missingTypesConverter.guess(typeRef, scope, substitutionRequestor);
+		guessMissingTypes(missingTypesConverter, typeRef, scope, substitutionRequestor);
 	}
 
 	private void findMemberTypesFromMissingType(
@@ -10932,7 +11056,7 @@ public final class CompletionEngine
 					}
 				}
 			};
-		missingTypesConverter.guess(typeRef, scope, substitutionRequestor);
+		guessMissingTypes(missingTypesConverter, typeRef, scope, substitutionRequestor);
 	}
 
 	private void findMethodDeclarations(
@@ -11911,14 +12035,7 @@ public final class CompletionEngine
 
 				checkCancel();
 
-				this.foundConstructorsCount = 0;
-				this.nameEnvironment.findConstructorDeclarations(
-						token,
-						getTypesMatchRule(),
-						false,
-						this,
-						this.monitor);
-				acceptConstructors(scope);
+				findConstructorsFromIndexes(token, scope);
 			} else if (proposeType) {
 				int l = typesFound.size();
 				for (int i = 0; i < l; i++) {
@@ -11945,16 +12062,7 @@ public final class CompletionEngine
 
 				checkCancel();
 
-				this.foundTypesCount = 0;
-				this.nameEnvironment.findTypes(
-						token,
-						proposeAllMemberTypes,
-						getTypesMatchRule(),
-						searchFor,
-						false,
-						this,
-						this.monitor);
-				acceptTypes(scope);
+				findTypesFromIndexes(token, proposeAllMemberTypes, searchFor, scope);
 			}
 			if(!isEmptyPrefix && !this.requestor.isIgnored(CompletionProposal.PACKAGE_REF)) {
 
@@ -12251,14 +12359,7 @@ public final class CompletionEngine
 
 			checkCancel();
 
-			this.foundConstructorsCount = 0;
-			this.nameEnvironment.findConstructorDeclarations(
-					qualifiedName,
-					getTypesMatchRule(),
-					false,
-					this,
-					this.monitor);
-			acceptConstructors(scope);
+			findConstructorsFromIndexes(qualifiedName, scope);
 		} if(proposeType) {
 			int searchFor = IJavaSearchConstants.TYPE;
 			if(this.assistNodeIsClass) {
@@ -12275,16 +12376,7 @@ public final class CompletionEngine
 
 			checkCancel();
 
-			this.foundTypesCount = 0;
-			this.nameEnvironment.findTypes(
-					qualifiedName,
-					false,
-					getTypesMatchRule(),
-					searchFor,
-					false,
-					this,
-					this.monitor);
-			acceptTypes(scope);
+			findTypesFromIndexes(qualifiedName, false, searchFor, scope);
 		}
 
 		if(!this.requestor.isIgnored(CompletionProposal.PACKAGE_REF)) {
@@ -109,6 +109,8 @@ class CompilationUnitResolver extends Compiler {
 		public void resolve(ICompilationUnit[] compilationUnits, String[] bindingKeys, ASTRequestor requestor,
 				int apiLevel, Map<String, String> compilerOptions, IJavaProject project,
 				WorkingCopyOwner workingCopyOwner, int flags, IProgressMonitor monitor) {
+			if (ParallelCompilationUnitResolver.resolve(compilationUnits, bindingKeys, requestor, apiLevel, compilerOptions, project, workingCopyOwner, flags, monitor))
+				return;
 			CompilationUnitResolver.resolve(compilationUnits, bindingKeys, requestor, apiLevel, compilerOptions, project, workingCopyOwner, flags, monitor);
 		}
 
@@ -136,6 +138,16 @@ class CompilationUnitResolver extends Compiler {
 	public static final int BINDING_RECOVERY = 0x10;
 	public static final int INCLUDE_RUNNING_VM_BOOTCLASSPATH = 0x20;
 
+	/**
+	 * System property to resolve batches of compilation units with a flat memory profile. The bindings of the ASTs are
+	 * shared by the whole batch, and each binding holds the compiler AST and scopes it was created from, so the
+	 * resolved units of a batch can only be collected once the batch is done. If set to <code>true</code>, each AST
+	 * gets its own bindings instead, so everything is released as soon as the requestor drops the AST, except for the
+	 * bindings it keeps. Bindings of different ASTs are then no longer identical and must be compared with
+	 * {@link IBinding#isEqualTo(IBinding)} or by key.
+	 */
+	public static final String STREAMING_PROPERTY = "jdt.dom.streamingResolve"; //$NON-NLS-1$
+
 	/* A list of int */
 	static class IntArrayList {
 		public int[] list = new int[5];
@@ -162,6 +174,11 @@ class CompilationUnitResolver extends Compiler {
 
 	DefaultBindingResolver.BindingTables bindingTables;
 
+	/*
+	 * Whether each requested AST gets its own binding tables, see STREAMING_PROPERTY.
+	 */
+	final boolean streaming = Boolean.getBoolean(STREAMING_PROPERTY);
+
 	boolean hasCompilationAborted;
 	CategorizedProblem abortProblem;
 
@@ -1047,6 +1064,8 @@ class CompilationUnitResolver extends Compiler {
 						ast.setFlag(flags | AST.RESOLVED_BINDINGS);
 						ast.setDefaultNodeFlag(ASTNode.ORIGINAL);
 						ASTConverter converter = new ASTConverter(compilerOptions, true/*need to resolve bindings*/, this.monitor);
+						if (this.streaming)
+							this.bindingTables = new DefaultBindingResolver.BindingTables(); // don't retain the previous ASTs
 						BindingResolver resolver = new DefaultBindingResolver(unit.scope, owner, this.bindingTables, (flags & ICompilationUnit.ENABLE_BINDINGS_RECOVERY) != 0, this.fromJavaProject);
 						ast.setBindingResolver(resolver);
 						converter.setAST(ast);
@@ -1185,6 +1204,8 @@ class CompilationUnitResolver extends Compiler {
 						ast.setFlag(flags | AST.RESOLVED_BINDINGS);
 						ast.setDefaultNodeFlag(ASTNode.ORIGINAL);
 						ASTConverter converter = new ASTConverter(compilerOptions, true/*need to resolve bindings*/, this.monitor);
+						if (this.streaming)
+							this.bindingTables = new DefaultBindingResolver.BindingTables(); // don't retain the previous ASTs
 						BindingResolver resolver = new DefaultBindingResolver(unit.scope, null, this.bindingTables, (flags & ICompilationUnit.ENABLE_BINDINGS_RECOVERY) != 0, this.fromJavaProject);
 						ast.setBindingResolver(resolver);
 						converter.setAST(ast);
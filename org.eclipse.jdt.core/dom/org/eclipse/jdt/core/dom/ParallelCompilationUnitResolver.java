@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.core.dom;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.SubMonitor;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.WorkingCopyOwner;
+import org.eclipse.jdt.internal.core.util.ParallelWorkers;
+
+/**
+ * Resolves a big batch of compilation units on worker threads, see
+ * {@link ASTParser#createASTs(ICompilationUnit[], String[], ASTRequestor, IProgressMonitor)}.
+ * <p>
+ * A lookup environment must only be used by one thread, so the units are split into contiguous partitions and each
+ * partition is resolved by its own {@link CompilationUnitResolver} and name environment (the decoded binary types are
+ * shared by all of them, see {@link org.eclipse.jdt.internal.core.BinaryTypeCache}). The ASTs are handed to the
+ * requestor as soon as they are resolved, one at a time, so the requestor needs not be thread safe. Since the
+ * partitions don't share their bindings, bindings of ASTs from different partitions must be compared with
+ * {@link IBinding#isEqualTo(IBinding)} or by key rather than by identity, which is why this is only done when
+ * configured with {@link #THREAD_COUNT_PROPERTY}.
+ * </p>
+ */
+final class ParallelCompilationUnitResolver {
+	/** number of threads resolving a batch of compilation units, see {@link ParallelWorkers#getThreadCount(String)} **/
+	public static final String THREAD_COUNT_PROPERTY = "jdt.dom.resolveThreads"; //$NON-NLS-1$
+
+	/** each partition completes the types it needs by itself, which is only worth it for enough units **/
+	static final int MIN_PARTITION_SIZE = 100;
+
+	private static final String[] NO_KEYS = new String[0];
+
+	/**
+	 * Resolves the given units in parallel if configured so and if there are enough of them.
+	 *
+	 * @return whether the units were resolved, otherwise the caller must resolve them itself
+	 */
+	static boolean resolve(ICompilationUnit[] compilationUnits, String[] bindingKeys, ASTRequestor requestor,
+			int apiLevel, Map<String, String> options, IJavaProject javaProject, WorkingCopyOwner owner, int flags,
+			IProgressMonitor monitor) {
+		// binding keys are reported after all the ASTs, which needs a single environment
+		if (bindingKeys.length > 0)
+			return false;
+		int partitionCount = Math.min(ParallelWorkers.getThreadCount(THREAD_COUNT_PROPERTY), compilationUnits.length / MIN_PARTITION_SIZE);
+		if (partitionCount < 2)
+			return false;
+
+		SubMonitor subMonitor = SubMonitor.convert(monitor, compilationUnits.length * 2); // as CompilationUnitResolver does
+		WorkerMonitor workerMonitor = new WorkerMonitor();
+		Runnable[] partitions = new Runnable[partitionCount];
+		int length = compilationUnits.length;
+		for (int i = 0; i < partitionCount; i++) {
+			ICompilationUnit[] units = Arrays.copyOfRange(compilationUnits,
+					(int) ((long) length * i / partitionCount), (int) ((long) length * (i + 1) / partitionCount));
+			PartitionRequestor partitionRequestor = new PartitionRequestor(requestor);
+			partitions[i] = () -> CompilationUnitResolver.resolve(units, NO_KEYS, partitionRequestor,
+					apiLevel, options, javaProject, owner, flags, workerMonitor);
+		}
+		ParallelWorkers.run(partitions,
+				() -> {
+					subMonitor.worked(workerMonitor.takeWorked());
+					if (subMonitor.isCanceled())
+						workerMonitor.setCanceled(true);
+				},
+				() -> workerMonitor.setCanceled(true));
+		subMonitor.worked(workerMonitor.takeWorked());
+		return true;
+	}
+
+	/**
+	 * Hands the ASTs of a partition to the actual requestor, one partition at a time.
+	 */
+	private static final class PartitionRequestor extends ASTRequestor {
+		private final ASTRequestor requestor;
+
+		PartitionRequestor(ASTRequestor requestor) {
+			this.requestor = requestor;
+		}
+
+		@Override
+		public void acceptAST(ICompilationUnit source, CompilationUnit ast) {
+			synchronized (this.requestor) {
+				// ASTRequestor#createBindings() must use the environment of this partition
+				Function<String, IBinding> previous = this.requestor.additionalBindingResolver;
+				this.requestor.additionalBindingResolver = this.additionalBindingResolver;
+				try {
+					this.requestor.acceptAST(source, ast);
+				} finally {
+					this.requestor.additionalBindingResolver = previous;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Progress monitor of the workers, whose work is reported to the caller's monitor by the calling thread.
+	 */
+	private static final class WorkerMonitor extends NullProgressMonitor {
+		private final AtomicInteger worked = new AtomicInteger();
+		private volatile boolean canceled;
+
+		@Override
+		public void internalWorked(double work) {
+			// SubMonitor only reports whole ticks
+			this.worked.addAndGet((int) work);
+		}
+
+		@Override
+		public void worked(int work) {
+			this.worked.addAndGet(work);
+		}
+
+		@Override
+		public boolean isCanceled() {
+			return this.canceled;
+		}
+
+		@Override
+		public void setCanceled(boolean canceled) {
+			this.canceled = canceled;
+		}
+
+		int takeWorked() {
+			return this.worked.getAndSet(0);
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- *  Copyright (c) 2005, 2016 IBM Corporation and others.
+ *  Copyright (c) 2005, 2024 IBM Corporation and others.
  *
  *  This program and the accompanying materials
  *  are made available under the terms of the Eclipse Public License 2.0
@@ -17,17 +17,36 @@
 package org.eclipse.jdt.core.formatter;
 
 import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
-
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.equinox.app.IApplication;
 import org.eclipse.equinox.app.IApplicationContext;
+import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.ToolFactory;
 import org.eclipse.jdt.internal.compiler.env.IModule;
 import org.eclipse.jdt.internal.core.util.Util;
@@ -36,6 +55,7 @@ import org.eclipse.jface.text.Document;
 import org.eclipse.jface.text.IDocument;
 import org.eclipse.osgi.util.NLS;
 import org.eclipse.text.edits.TextEdit;
+import org.osgi.framework.Bundle;
 
 /**
  * Implements an Eclipse Application for org.eclipse.jdt.core.JavaCodeFormatter.
@@ -44,9 +64,12 @@ import org.eclipse.text.edits.TextEdit;
  * in which the eclipse.ini file is located. This makes it harder to use relative paths to point to the
  * files to be formatted or the configuration file to use to set the code formatter's options.</p>
  *
- * <p>There are a couple improvements that could be made: 1. Make a list of all the
- * files first so that a file does not get formatted twice. 2. Use a text based
- * progress monitor for output.</p>
+ * <p>With <code>-threads</code> the files are formatted on several threads, each with its own formatter, and with
+ * <code>-cache</code> the files which did not change since they were last formatted with the same configuration are
+ * skipped. In both modes only the files changed by the formatter are reported.</p>
+ *
+ * <p>There is one improvement that could be made: use a text based progress monitor
+ * for output.</p>
  *
  * @since 3.2
  * @noinstantiate This class is not intended to be instantiated by clients.
@@ -66,6 +89,10 @@ public class CodeFormatterApplication implements IApplication {
 
 		public static String CommandLineDone;
 
+		public static String CommandLineFormatted;
+
+		public static String CommandLineSummary;
+
 		public static String CommandLineErrorConfig;
 
 		public static String CommandLineErrorFileTryFullPath;
@@ -78,6 +105,8 @@ public class CodeFormatterApplication implements IApplication {
 
 		public static String CommandLineErrorNoConfigFile;
 
+		public static String CommandLineErrorThreads;
+
 		public static String CommandLineFormatting;
 
 		public static String CommandLineStart;
@@ -88,6 +117,8 @@ public class CodeFormatterApplication implements IApplication {
 
 		public static String ConfigFileReadingError;
 
+		public static String CacheFileWritingError;
+
 		public static String FormatProblem;
 
 		public static String CaughtException;
@@ -159,14 +190,20 @@ public class CodeFormatterApplication implements IApplication {
 		}
 	}
 
+	private static final String ARG_CACHE = "-cache"; //$NON-NLS-1$
+
 	private static final String ARG_CONFIG = "-config"; //$NON-NLS-1$
 
 	private static final String ARG_HELP = "-help"; //$NON-NLS-1$
 
 	private static final String ARG_QUIET = "-quiet"; //$NON-NLS-1$
 
+	private static final String ARG_THREADS = "-threads"; //$NON-NLS-1$
+
 	private static final String ARG_VERBOSE = "-verbose"; //$NON-NLS-1$
 
+	private static final String CACHE_FILE_SUFFIX = ".cache"; //$NON-NLS-1$
+
 	private String configName;
 
 	private Map options = null;
@@ -177,6 +214,93 @@ public class CodeFormatterApplication implements IApplication {
 
 	private boolean verbose = false;
 
+	private boolean useCache = false;
+
+	private int threadCount = 1;
+
+	private final AtomicInteger changedCount = new AtomicInteger();
+
+	private final AtomicInteger skippedCount = new AtomicInteger();
+
+	/**
+	 * The hashes of the formatted contents of the files, stored next to the configuration file.
+	 * Files whose contents have the hash recorded for them were formatted with the same configuration
+	 * and formatter, so they are skipped.
+	 */
+	private static final class FormatCache {
+		private static final String CONFIG_KEY = "@config"; //$NON-NLS-1$
+
+		private final File file;
+
+		private final String configHash;
+
+		private final Map<String, String> hashes = new ConcurrentHashMap<>();
+
+		FormatCache(File file, Map<?, ?> options) {
+			this.file = file;
+			// a new formatter may format differently
+			Bundle bundle = Platform.getBundle(JavaCore.PLUGIN_ID);
+			String version = bundle == null ? "" : bundle.getVersion().toString(); //$NON-NLS-1$
+			this.configHash = hash(version + new TreeMap<>(options));
+		}
+
+		/**
+		 * Read the hashes of the last run, unless it used another configuration or formatter.
+		 * A missing or unreadable cache file is the same as an empty one.
+		 */
+		void load() {
+			if (!this.file.isFile())
+				return;
+			Properties properties = new Properties();
+			try (BufferedInputStream stream = new BufferedInputStream(new FileInputStream(this.file))) {
+				properties.load(stream);
+			} catch (IOException e) {
+				return;
+			}
+			if (!this.configHash.equals(properties.getProperty(CONFIG_KEY)))
+				return;
+			properties.remove(CONFIG_KEY);
+			for (String path : properties.stringPropertyNames())
+				this.hashes.put(path, properties.getProperty(path));
+		}
+
+		boolean isFormatted(String path, String hash) {
+			return hash.equals(this.hashes.get(path));
+		}
+
+		void put(String path, String hash) {
+			this.hashes.put(path, hash);
+		}
+
+		/**
+		 * Write the hashes of this run, dropping the files which no longer exist so that the
+		 * cache file doesn't keep growing with deleted and renamed files.
+		 */
+		void save() throws IOException {
+			this.hashes.keySet().removeIf(path -> !new File(path).isFile());
+			Properties properties = new Properties();
+			properties.putAll(this.hashes);
+			properties.setProperty(CONFIG_KEY, this.configHash);
+			try (BufferedOutputStream stream = new BufferedOutputStream(new FileOutputStream(this.file))) {
+				properties.store(stream, null);
+			}
+		}
+
+		static String hash(String contents) {
+			MessageDigest digest;
+			try {
+				digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException(e); // every Java platform supports it
+			}
+			byte[] bytes = digest.digest(contents.getBytes(StandardCharsets.UTF_8));
+			StringBuilder hash = new StringBuilder(bytes.length * 2);
+			for (byte b : bytes)
+				hash.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			return hash.toString();
+		}
+	}
+
 	/**
 	 * Display the command line usage message.
 	 */
@@ -191,10 +315,10 @@ public class CodeFormatterApplication implements IApplication {
 	}
 
 	/**
-	 * Recursively format the Java source code that is contained in the
+	 * Recursively collect the Java source files that are contained in the
 	 * directory rooted at dir.
 	 */
-	private void formatDirTree(File dir, CodeFormatter codeFormatter) {
+	private void collectDirTree(File dir, List<File> javaFiles) {
 
 		File[] files = dir.listFiles();
 		if (files == null)
@@ -202,24 +326,87 @@ public class CodeFormatterApplication implements IApplication {
 
 		for (File file : files) {
 			if (file.isDirectory()) {
-				formatDirTree(file, codeFormatter);
+				collectDirTree(file, javaFiles);
 			} else if (Util.isJavaLikeFileName(file.getPath())) {
-				formatFile(file, codeFormatter);
+				javaFiles.add(file);
 			}
 		}
 	}
 
+	private boolean isBatchMode() {
+		return this.threadCount > 1 || this.useCache;
+	}
+
+	private CodeFormatter createCodeFormatter() {
+		return ToolFactory.createCodeFormatter(this.options, ToolFactory.M_FORMAT_EXISTING);
+	}
+
+	/**
+	 * Format the given Java source files with the configured number of threads,
+	 * each with its own formatter.
+	 */
+	private void formatFiles(List<File> files, FormatCache cache) throws InterruptedException {
+		int workerCount = Math.min(this.threadCount, files.size());
+		if (workerCount < 2) {
+			CodeFormatter codeFormatter = createCodeFormatter();
+			for (File file : files) {
+				formatFile(file, codeFormatter, cache);
+			}
+			return;
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(workerCount, r -> {
+			Thread t = new Thread(r, "Code Formatter"); //$NON-NLS-1$
+			t.setDaemon(true);
+			return t;
+		});
+		try {
+			AtomicInteger next = new AtomicInteger();
+			Future<?>[] workers = new Future<?>[workerCount];
+			for (int i = 0; i < workerCount; i++) {
+				workers[i] = executor.submit(() -> {
+					CodeFormatter codeFormatter = createCodeFormatter();
+					int index;
+					while ((index = next.getAndIncrement()) < files.size()) {
+						formatFile(files.get(index), codeFormatter, cache);
+					}
+				});
+			}
+			for (Future<?> worker : workers) {
+				worker.get();
+			}
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof Error)
+				throw (Error) cause;
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			throw new IllegalStateException(cause);
+		} finally {
+			executor.shutdownNow(); // stops the other workers if one failed
+		}
+	}
+
 	/**
 	 * Format the given Java source file.
+	 *
+	 * @param cache the hashes of the files known to be formatted, or <code>null</code>
 	 */
-	private void formatFile(File file, CodeFormatter codeFormatter) {
+	private void formatFile(File file, CodeFormatter codeFormatter, FormatCache cache) {
 		IDocument doc = new Document();
 		try {
 			// read the file
-			if (this.verbose) {
+			if (this.verbose && !isBatchMode()) {
 				System.out.println(Messages.bind(Messages.CommandLineFormatting, file.getAbsolutePath()));
 			}
 			String contents = new String(org.eclipse.jdt.internal.compiler.util.Util.getFileCharContent(file, null));
+			String path = null;
+			if (cache != null) {
+				path = file.getAbsolutePath();
+				if (cache.isFormatted(path, FormatCache.hash(contents))) {
+					this.skippedCount.incrementAndGet();
+					return;
+				}
+			}
 			// format the file (the meat and potatoes)
 			doc.set(contents);
 			int kind = (file.getName().equals(IModule.MODULE_INFO_JAVA)? CodeFormatter.K_MODULE_INFO
@@ -232,10 +419,20 @@ public class CodeFormatterApplication implements IApplication {
 				return;
 			}
 
-			// write the file
-			try (BufferedWriter out = new BufferedWriter(new FileWriter(file))) {
-				out.write(doc.get());
-				out.flush();
+			// write the file, unless the formatter didn't change it
+			String formatted = doc.get();
+			if (!formatted.equals(contents)) {
+				try (BufferedWriter out = new BufferedWriter(new FileWriter(file))) {
+					out.write(formatted);
+					out.flush();
+				}
+				this.changedCount.incrementAndGet();
+				if (isBatchMode() && !this.quiet) {
+					System.out.println(Messages.bind(Messages.CommandLineFormatted, file.getAbsolutePath()));
+				}
+			}
+			if (cache != null) {
+				cache.put(path, FormatCache.hash(formatted));
 			}
 		} catch (IOException e) {
 			String errorMessage = Messages.bind(Messages.CaughtException, "IOException", e.getLocalizedMessage()); //$NON-NLS-1$
@@ -255,6 +452,7 @@ public class CodeFormatterApplication implements IApplication {
 
 		final int DEFAULT_MODE = 0;
 		final int CONFIG_MODE = 1;
+		final int THREADS_MODE = 2;
 
 		int mode = DEFAULT_MODE;
 		final int INITIAL_SIZE = 1;
@@ -286,6 +484,14 @@ public class CodeFormatterApplication implements IApplication {
 						mode = CONFIG_MODE;
 						continue loop;
 					}
+					if (ARG_THREADS.equals(currentArg)) {
+						mode = THREADS_MODE;
+						continue loop;
+					}
+					if (ARG_CACHE.equals(currentArg)) {
+						this.useCache = true;
+						continue loop;
+					}
 					// the current arg should be a file or a directory name
 					File file = new File(currentArg);
 					if (file.exists()) {
@@ -316,9 +522,25 @@ public class CodeFormatterApplication implements IApplication {
 					}
 					mode = DEFAULT_MODE;
 					continue loop;
+				case THREADS_MODE :
+					try {
+						this.threadCount = Integer.parseInt(currentArg);
+					} catch (NumberFormatException e) {
+						this.threadCount = 0;
+					}
+					if (this.threadCount < 1) {
+						displayHelp(Messages.bind(Messages.CommandLineErrorThreads, ARG_THREADS));
+						return null;
+					}
+					mode = DEFAULT_MODE;
+					continue loop;
 			}
 		}
 
+		if (mode == THREADS_MODE) {
+			displayHelp(Messages.bind(Messages.CommandLineErrorThreads, ARG_THREADS));
+			return null;
+		}
 		if (mode == CONFIG_MODE || this.options == null) {
 			displayHelp(Messages.bind(Messages.CommandLineErrorNoConfigFile));
 			return null;
@@ -392,17 +614,41 @@ public class CodeFormatterApplication implements IApplication {
 			System.out.println(Messages.bind(Messages.CommandLineStart));
 		}
 
-		final CodeFormatter codeFormatter = ToolFactory.createCodeFormatter(this.options,
-				ToolFactory.M_FORMAT_EXISTING);
-		// format the list of files and/or directories
+		// list the files first, then format them
+		List<File> javaFiles = new ArrayList<>();
 		for (final File file : filesToFormat) {
 			if (file.isDirectory()) {
-				formatDirTree(file, codeFormatter);
+				collectDirTree(file, javaFiles);
 			} else if (Util.isJavaLikeFileName(file.getPath())) {
-				formatFile(file, codeFormatter);
+				javaFiles.add(file);
+			}
+		}
+		// a file given on its own and within a given directory is formatted once
+		Set<Path> listedFiles = new HashSet<>();
+		javaFiles.removeIf(file -> !listedFiles.add(file.getAbsoluteFile().toPath().normalize()));
+		FormatCache cache = null;
+		if (this.useCache) {
+			cache = new FormatCache(new File(this.configName + CACHE_FILE_SUFFIX), this.options);
+			cache.load();
+		}
+		formatFiles(javaFiles, cache);
+		if (cache != null) {
+			try {
+				cache.save();
+			} catch (IOException e) {
+				String errorMessage = Messages.bind(Messages.CacheFileWritingError, this.configName + CACHE_FILE_SUFFIX);
+				Util.log(e, errorMessage);
+				System.err.println(errorMessage);
 			}
 		}
 		if (!this.quiet) {
+			if (isBatchMode()) {
+				System.out.println(Messages.bind(Messages.CommandLineSummary, new Object[] {
+					Integer.valueOf(javaFiles.size()),
+					Integer.valueOf(this.changedCount.get()),
+					Integer.valueOf(this.skippedCount.get())
+				}));
+			}
 			System.out.println(Messages.bind(Messages.CommandLineDone));
 		}
 
@@ -49,6 +49,16 @@ import org.eclipse.jdt.core.compiler.IProblem;
  * <code>acceptContext</code> call.
  * </p>
  * <p>
+ * Some proposals are computed in expensive phases, e.g. searching the types
+ * of the project in its indexes. The engine brackets them with
+ * <code>beginPhase</code> and <code>endPhase</code> calls, so that a client
+ * may already show the proposals accepted before a phase begins. If the
+ * requestor sets a time budget (see {@link #setTimeBudget(long)}), a phase
+ * which begins after the budget expired is skipped, and a phase running when
+ * it expires stops early; <code>endPhase</code> then reports the phase as
+ * truncated.
+ * </p>
+ * <p>
  * The class was introduced in 3.0 as a more evolvable replacement
  * for the <code>ICompletionRequestor</code> interface.
  * </p>
@@ -76,6 +86,39 @@ public abstract class CompletionRequestor {
 
 	private boolean requireExtendedContext = false;
 
+	/**
+	 * Phase in which the types matching the completion token are searched in
+	 * the indexes of the project.
+	 *
+	 * @see #beginPhase(int)
+	 * @since 3.39
+	 */
+	public static final int TYPES_FROM_INDEXES_PHASE = 1;
+
+	/**
+	 * Phase in which the constructors of the types matching the completion
+	 * token are searched in the indexes of the project.
+	 *
+	 * @see #beginPhase(int)
+	 * @since 3.39
+	 */
+	public static final int CONSTRUCTORS_FROM_INDEXES_PHASE = 2;
+
+	/**
+	 * Phase in which the types of a reference to a missing type are guessed,
+	 * to propose the members of the guessed types.
+	 *
+	 * @see #beginPhase(int)
+	 * @since 3.39
+	 */
+	public static final int MISSING_TYPES_PHASE = 3;
+
+	/**
+	 * The time in milliseconds after which the expensive phases of the
+	 * computation of the proposals stop; <code>0</code> means no limit.
+	 */
+	private long timeBudget = 0;
+
 	/**
 	 * Creates a new completion requestor.
 	 * The requestor is interested in all kinds of completion
@@ -384,4 +427,73 @@ public abstract class CompletionRequestor {
 	public boolean isTestCodeExcluded() {
 		return false;
 	}
+
+	/**
+	 * Returns the time budget of a completion request, in milliseconds since the
+	 * request began.
+	 *
+	 * By default this method returns <code>0</code>.
+	 *
+	 * @return the time budget in milliseconds, or <code>0</code> if the
+	 * expensive phases are never stopped
+	 *
+	 * @see #setTimeBudget(long)
+	 *
+	 * @since 3.39
+	 */
+	public long getTimeBudget() {
+		return this.timeBudget;
+	}
+
+	/**
+	 * Sets the time budget of a completion request, in milliseconds since the
+	 * request began. Once it expired, the expensive phases of the computation
+	 * of the proposals are stopped and reported as truncated; the proposals of
+	 * the other phases are still computed.
+	 *
+	 * @param milliseconds the time budget, or <code>0</code> to never stop the
+	 * expensive phases
+	 *
+	 * @see #endPhase(int, boolean)
+	 *
+	 * @since 3.39
+	 */
+	public void setTimeBudget(long milliseconds) {
+		this.timeBudget = Math.max(0, milliseconds);
+	}
+
+	/**
+	 * Pro forma notification sent before an expensive phase of the computation
+	 * of the proposals begins. All the proposals accepted so far can be shown,
+	 * the proposals of the phase are accepted before the matching call to
+	 * {@link #endPhase(int, boolean)}.
+	 * The default implementation of this method does nothing.
+	 * Clients may override.
+	 *
+	 * @param phase one of {@link #TYPES_FROM_INDEXES_PHASE},
+	 * {@link #CONSTRUCTORS_FROM_INDEXES_PHASE} or {@link #MISSING_TYPES_PHASE}
+	 *
+	 * @since 3.39
+	 */
+	public void beginPhase(int phase) {
+		// do nothing
+	}
+
+	/**
+	 * Pro forma notification sent after an expensive phase of the computation
+	 * of the proposals ended.
+	 * The default implementation of this method does nothing.
+	 * Clients may override.
+	 *
+	 * @param phase the phase given to the matching call to {@link #beginPhase(int)}
+	 * @param truncated <code>true</code> if the time budget expired before the
+	 * phase ended, in which case some of its proposals are missing
+	 *
+	 * @see #setTimeBudget(long)
+	 *
+	 * @since 3.39
+	 */
+	public void endPhase(int phase, boolean truncated) {
+		// do nothing
+	}
 }
@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core;
+
+import java.lang.ref.SoftReference;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFormatException;
+
+/**
+ * Process-wide cache of the class files decoded from archives, shared by the builder's
+ * {@link org.eclipse.jdt.internal.core.builder.NameEnvironment} and by the Java model (so by reconcile and by the
+ * {@link SearchableEnvironment}), see {@link JavaModelManager#getBinaryTypeCache()}.
+ * <p>
+ * The cached readers are fully initialized, so they no longer change and can be shared by concurrent compilations.
+ * Entries are keyed by the archive, its timestamp and size, so a changed archive never answers stale types. The
+ * number of entries is bounded (least recently used entries are evicted first) and the readers are only softly
+ * reachable, so the cache gives memory back under pressure.
+ * </p>
+ */
+public class BinaryTypeCache {
+
+	public static final String SIZE_PROPERTY = "org.eclipse.jdt.core.binarytypecache.size"; //$NON-NLS-1$
+	public static final int DEFAULT_SIZE = 20_000;
+
+	/**
+	 * Reads a type which is not in the cache.
+	 */
+	@FunctionalInterface
+	public interface TypeReader<E extends Exception> {
+		/**
+		 * @return the fully initialized reader or <code>null</code> if the archive has no such class file
+		 */
+		ClassFileReader read() throws ClassFormatException, E;
+	}
+
+	private static final class Key {
+		final String archivePath;
+		final long lastModified;
+		final long size;
+		final String fileName; // the file name given to the reader, see ClassFileReader#getFileName()
+		final char[] moduleName;
+		final int hashCode;
+
+		Key(String archivePath, long lastModified, long size, String fileName, char[] moduleName) {
+			this.archivePath = archivePath;
+			this.lastModified = lastModified;
+			this.size = size;
+			this.fileName = fileName;
+			this.moduleName = moduleName;
+			this.hashCode = Objects.hash(archivePath, Long.valueOf(lastModified), fileName);
+		}
+
+		@Override
+		public int hashCode() {
+			return this.hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) return false;
+			Key other = (Key) obj;
+			return this.hashCode == other.hashCode
+					&& this.lastModified == other.lastModified
+					&& this.size == other.size
+					&& this.fileName.equals(other.fileName)
+					&& this.archivePath.equals(other.archivePath)
+					&& Arrays.equals(this.moduleName, other.moduleName);
+		}
+	}
+
+	private static final SoftReference<ClassFileReader> MISSING = new SoftReference<>(null); // no such class file
+
+	private final int maxSize;
+	private final LinkedHashMap<Key, SoftReference<ClassFileReader>> types;
+	private long hits;
+	private long misses;
+	private long evictions; // least recently used entries removed
+	private long collected; // entries found cleared by the garbage collector
+
+	public BinaryTypeCache(int maxSize) {
+		this.maxSize = maxSize;
+		this.types = new LinkedHashMap<>(Math.min(maxSize, 1024), 0.75f, true /* access order */) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, SoftReference<ClassFileReader>> eldest) {
+				if (size() <= BinaryTypeCache.this.maxSize)
+					return false;
+				BinaryTypeCache.this.evictions++;
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * Answers the type of the given file in the given archive, reading it with the given reader if it is not cached.
+	 *
+	 * @param archivePath the path of the archive
+	 * @param lastModified the timestamp of the archive
+	 * @param size the size of the archive
+	 * @param fileName the file name of the type, which the reader answers as {@link ClassFileReader#getFileName()}
+	 * @param moduleName the module name the reader is assigned, see {@link ClassFileReader#moduleName}
+	 * @param reader reads the type if it is not cached
+	 * @return the cached or read type, or <code>null</code> if the archive has no such type
+	 */
+	public <E extends Exception> ClassFileReader getType(String archivePath, long lastModified, long size,
+			String fileName, char[] moduleName, TypeReader<E> reader) throws ClassFormatException, E {
+		if (this.maxSize <= 0)
+			return reader.read();
+
+		Key key = new Key(archivePath, lastModified, size, fileName, moduleName);
+		synchronized (this) {
+			SoftReference<ClassFileReader> reference = this.types.get(key);
+			if (reference == MISSING) {
+				this.hits++;
+				return null;
+			}
+			if (reference != null) {
+				ClassFileReader type = reference.get();
+				if (type != null) {
+					this.hits++;
+					return type;
+				}
+				this.collected++;
+			}
+			this.misses++;
+		}
+		// read outside of the lock, concurrent reads of the same type are harmless
+		ClassFileReader type = reader.read();
+		synchronized (this) {
+			this.types.put(key, type == null ? MISSING : new SoftReference<>(type));
+		}
+		return type;
+	}
+
+	/**
+	 * Removes the types of the given archive, e.g. because it was removed or changed.
+	 */
+	public synchronized void flush(String archivePath) {
+		for (Iterator<Key> iterator = this.types.keySet().iterator(); iterator.hasNext();) {
+			if (iterator.next().archivePath.equals(archivePath))
+				iterator.remove();
+		}
+	}
+
+	public synchronized void flush() {
+		this.types.clear();
+	}
+
+	public synchronized long getHits() {
+		return this.hits;
+	}
+
+	public synchronized long getMisses() {
+		return this.misses;
+	}
+
+	@Override
+	public synchronized String toString() {
+		long lookups = this.hits + this.misses;
+		return "BinaryTypeCache: " + this.types.size() + '/' + this.maxSize + " entries, " //$NON-NLS-1$ //$NON-NLS-2$
+				+ this.hits + " hits, " + this.misses + " misses" //$NON-NLS-1$ //$NON-NLS-2$
+				+ (lookups == 0 ? "" : " (" + (this.hits * 100 / lookups) + "% hit ratio)") //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ ", " + this.evictions + " evicted, " + this.collected + " collected"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+}
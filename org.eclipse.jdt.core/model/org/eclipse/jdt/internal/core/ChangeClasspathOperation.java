@@ -47,7 +47,7 @@ public abstract class ChangeClasspathOperation extends JavaModelOperation {
 		// reset the project's caches early since some clients rely on the project's caches being up-to-date when run inside an IWorkspaceRunnable
 		// (see https://bugs.eclipse.org/bugs/show_bug.cgi?id=212769#c5 )
 		JavaProject project = change.project;
-		project.resetCaches();
+		project.resetClasspathCaches();
 
 		if (this.canChangeResources) {
 			// workaround for https://bugs.eclipse.org/bugs/show_bug.cgi?id=177922
@@ -379,7 +379,26 @@ public IJavaElement[] codeSelect(int offset, int length) throws JavaModelExcepti
  */
 @Override
 public IJavaElement[] codeSelect(int offset, int length, WorkingCopyOwner workingCopyOwner) throws JavaModelException {
-	return super.codeSelect(this, offset, length, workingCopyOwner);
+	JavaModelManager.PerWorkingCopyInfo perWorkingCopyInfo = getPerWorkingCopyInfo();
+	SelectionCache selectionCache = perWorkingCopyInfo == null ? null : perWorkingCopyInfo.getSelectionCache();
+	if (selectionCache == null)
+		return super.codeSelect(this, offset, length, workingCopyOwner);
+
+	// the count of deltas is taken first, so that a concurrent change makes the answer stale
+	int deltasCount = DeltaProcessor.getRegisteredDeltasCount();
+	SelectionCache.OptionsStamp options = SelectionCache.OptionsStamp.of(getJavaProject());
+	if (options == null)
+		return super.codeSelect(this, offset, length, workingCopyOwner);
+	char[] contents = getContents();
+	IJavaElement[] elements = selectionCache.getSelection(offset, length, workingCopyOwner, contents, deltasCount, options);
+	if (elements == null) {
+		elements = super.codeSelect(this, offset, length, workingCopyOwner);
+		// the engine reads the buffer again, which may have been changed meanwhile (only checked on a miss, which
+		// costs a whole selection anyway)
+		if (CharOperation.equals(contents, getContents()))
+			selectionCache.putSelection(offset, length, workingCopyOwner, contents, deltasCount, options, elements);
+	}
+	return elements;
 }
 /**
  * @see IWorkingCopy#commit(boolean, IProgressMonitor)
@@ -21,6 +21,7 @@ import static org.eclipse.jdt.internal.core.JavaModelManager.trace;
 import java.io.File;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.resources.IBuildConfiguration;
 import org.eclipse.core.resources.IContainer;
@@ -261,6 +262,11 @@ public class DeltaProcessor {
 	 */
 	public Map<ICompilationUnit, IJavaElementDelta> reconcileDeltas = new HashMap<>();
 
+	/*
+	 * Number of Java model deltas and reconcile deltas registered so far by all the delta processors.
+	 */
+	static final AtomicInteger registeredDeltasCount = new AtomicInteger();
+
 	/*
 	 * Turns delta firing on/off. By default it is on.
 	 */
@@ -1025,8 +1031,9 @@ public class DeltaProcessor {
 							if (this.state.getExternalLibTimeStamps().remove(entryPath) != null /* file was known*/
 									&& this.state.roots.get(entryPath) != null /* and it was on the classpath*/) {
 								externalArchivesStatus.put(entryPath, EXTERNAL_JAR_REMOVED);
-								// the jar was physically removed: remove the index
+								// the jar was physically removed: remove the index and the types read from it
 								this.manager.indexManager.removeIndex(entryPath);
+								JavaModelManager.getBinaryTypeCache().flush(entryPath.toOSString());
 							}
 
 						} else if (targetLibrary instanceof File){ // external JAR
@@ -1041,8 +1048,9 @@ public class DeltaProcessor {
 								if (newTimeStamp == 0){ // file doesn't exist
 									externalArchivesStatus.put(entryPath, EXTERNAL_JAR_REMOVED);
 									this.state.getExternalLibTimeStamps().remove(entryPath);
-									// remove the index
+									// remove the index and the types read from the jar
 									this.manager.indexManager.removeIndex(entryPath);
+									JavaModelManager.getBinaryTypeCache().flush(externalFile.getPath());
 
 								} else if (oldTimestamp.longValue() != newTimeStamp){
 									externalArchivesStatus.put(entryPath, EXTERNAL_JAR_CHANGED);
@@ -1051,6 +1059,8 @@ public class DeltaProcessor {
 									this.manager.indexManager.removeIndex(entryPath);
 									// then index the jar
 									this.manager.indexManager.indexLibrary(entryPath, project.getProject(), ((ClasspathEntry)entry).getLibraryIndexLocation(), true);
+									// the cached types are keyed by the timestamp of the jar, drop the stale ones
+									JavaModelManager.getBinaryTypeCache().flush(externalFile.getPath());
 								} else {
 									URL indexLocation = ((ClasspathEntry)entry).getLibraryIndexLocation();
 									if (indexLocation != null) { // force reindexing, this could be faster rather than maintaining the list
@@ -2026,6 +2036,14 @@ public class DeltaProcessor {
 			throw new IllegalStateException("Its not allow to modify JavaModel during ReadOnly action. delta=" + delta); //$NON-NLS-1$
 		}
 		this.javaModelDeltas.add(delta);
+		registeredDeltasCount.incrementAndGet();
+	}
+	/*
+	 * Returns the number of deltas registered so far, which changes whenever the structure of the Java model changes,
+	 * working copies included.
+	 */
+	public static int getRegisteredDeltasCount() {
+		return registeredDeltasCount.get();
 	}
 	/*
 	 * Removes the given element from its parents cache of children. If the
@@ -2751,11 +2769,13 @@ public class DeltaProcessor {
 							indexManager.removeIndex(jarPath);
 							// then index the jar
 							indexManager.indexLibrary(jarPath, root.getJavaProject().getProject(), root.getIndexPath());
+							flushBinaryTypes(delta.getResource());
 							break;
 						case IResourceDelta.REMOVED:
-							// the jar was physically removed: remove the index
+							// the jar was physically removed: remove the index and the types read from it
 							indexManager.discardJobs(jarPath.toString());
 							indexManager.removeIndex(jarPath);
+							flushBinaryTypes(delta.getResource());
 							break;
 					}
 					break;
@@ -2877,6 +2897,14 @@ public class DeltaProcessor {
 			this.modelUpdater.processJavaDelta(customDelta);
 		}
 	}
+	/*
+	 * Removes the types read from the given archive from the binary type cache (see BinaryTypeCache).
+	 */
+	private static void flushBinaryTypes(IResource archive) {
+		IPath location = archive.getLocation();
+		if (location != null)
+			JavaModelManager.getBinaryTypeCache().flush(location.toOSString());
+	}
 	/*
 	 * Updates the index of the given root (assuming it's an addition or a removal).
 	 * This is done recusively, pkg being the current package.
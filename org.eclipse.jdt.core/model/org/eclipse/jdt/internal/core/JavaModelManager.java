@@ -27,6 +27,7 @@ package org.eclipse.jdt.internal.core;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.File;
@@ -1268,6 +1269,12 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 
 	public IndexManager indexManager = null;
 
+	/**
+	 * Decoded class files of archives, shared by the builder and the Java model.
+	 */
+	private final BinaryTypeCache binaryTypeCache = new BinaryTypeCache(
+			Integer.getInteger(BinaryTypeCache.SIZE_PROPERTY, BinaryTypeCache.DEFAULT_SIZE).intValue());
+
 	/**
 	 * Table from IProject to PerProjectInfo.
 	 * NOTE: this object itself is used as a lock to synchronize creation/removal of per project infos
@@ -1359,6 +1366,7 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 
 		public IProject project;
 		public Object savedState;
+		public Object persistedState; // the build state described by the state file and its journal
 		public boolean triedRead;
 		public IClasspathEntry[] rawClasspath;
 		public IClasspathEntry[] referencedEntries;
@@ -1626,6 +1634,7 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		int useCount = 0;
 		private final IProblemRequestor problemRequestor;
 		final CompilationUnit workingCopy;
+		private SelectionCache selectionCache;
 		public PerWorkingCopyInfo(CompilationUnit workingCopy, IProblemRequestor problemRequestor) {
 			this.workingCopy = workingCopy;
 			this.problemRequestor = problemRequestor;
@@ -1657,6 +1666,16 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		public ICompilationUnit getWorkingCopy() {
 			return this.workingCopy;
 		}
+		/**
+		 * Returns the cache of the elements selected in this working copy, or <code>null</code> if it is disabled.
+		 */
+		public synchronized SelectionCache getSelectionCache() {
+			if (this.selectionCache == null) {
+				this.selectionCache = new SelectionCache(
+						Integer.getInteger(SelectionCache.SIZE_PROPERTY, SelectionCache.DEFAULT_SIZE).intValue());
+			}
+			return this.selectionCache.isEnabled() ? this.selectionCache : null;
+		}
 		@Override
 		public boolean isActive() {
 			IProblemRequestor requestor = getProblemRequestor();
@@ -2261,6 +2280,10 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		return MANAGER.indexManager;
 	}
 
+	public static BinaryTypeCache getBinaryTypeCache() {
+		return MANAGER.binaryTypeCache;
+	}
+
 	/**
 	 *  Returns the info for the element.
 	 */
@@ -2368,6 +2391,7 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 				if (monitor != null)
 					monitor.subTask(Messages.bind(Messages.build_readStateProgress, project.getName()));
 				info.savedState = readState(project);
+				info.persistedState = info.savedState;
 			} catch (CoreException e) {
 				Util.log(e, "Exception while reading last build state for: " + project); //$NON-NLS-1$
 			}
@@ -2872,6 +2896,14 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		return workingLocation.append("state.dat").toFile(); //$NON-NLS-1$
 	}
 
+	/**
+	 * Returns the File to use for journaling the changes of the last built state saved for the given project.
+	 */
+	private File getSerializationJournalFile(IProject project) {
+		IPath workingLocation = project.getWorkingLocation(JavaCore.PLUGIN_ID);
+		return workingLocation.append("state.journal").toFile(); //$NON-NLS-1$
+	}
+
 	public static UserLibraryManager getUserLibraryManager() {
 		JavaModelManager m = MANAGER;
 		synchronized(m) {
@@ -4204,8 +4236,21 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 				String kind = in.readUTF();
 				if (!kind.equals("STATE")) //$NON-NLS-1$
 					throw new IOException(Messages.build_wrongFileFormat);
-				if (in.readBoolean())
-					return JavaBuilder.readState(project, in);
+				if (in.readBoolean()) {
+					Object state = JavaBuilder.readState(project, in);
+					File journalFile = getSerializationJournalFile(project);
+					if (state != null && journalFile.exists()) {
+						Object journaledState;
+						try (DataInputStream journal = new DataInputStream(createInputStream(journalFile))) {
+							journaledState = JavaBuilder.readStateJournal(project, state, journal);
+						}
+						// the journal of another state must not be continued
+						if (journaledState == state && !journalFile.delete())
+							throw new IOException("Cannot delete " + journalFile); //$NON-NLS-1$
+						state = journaledState;
+					}
+					return state;
+				}
 				if (JavaBuilder.DEBUG) {
 					trace("Saved state thinks last build failed for " + project.getName()); //$NON-NLS-1$
 				}
@@ -4427,6 +4472,10 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 
 	/**
 	 * Saves the built state for the project.
+	 * <p>
+	 * Once written, the changes of later states are appended to a journal, which is read together with the state file,
+	 * until the journal gets too big compared to the state file or too much changed.
+	 * </p>
 	 */
 	private void saveBuiltState(PerProjectInfo info) throws CoreException {
 		if (JavaBuilder.DEBUG) {
@@ -4434,21 +4483,48 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		}
 		File file = getSerializationFile(info.project);
 		if (file == null) return;
+		File journalFile = getSerializationJournalFile(info.project);
 		long t = System.currentTimeMillis();
+		Object state = info.savedState;
+		Object persistedState = info.persistedState;
 		try {
-			try (DataOutputStream out = new DataOutputStream(createOutputStream(file))) {
+			if (persistedState != null && file.exists() && journalFile.length() < file.length() / 2) {
+				if (state == null)
+					return; // the invalidation of the persisted state was already journaled
+				ByteArrayOutputStream delta = new ByteArrayOutputStream();
+				try (DataOutputStream out = new DataOutputStream(delta)) {
+					if (JavaBuilder.writeStateDelta(state, persistedState, out)) {
+						out.flush();
+						if (delta.size() > 0)
+							appendToJournal(journalFile, delta);
+						info.persistedState = state;
+						if (JavaBuilder.DEBUG) {
+							t = System.currentTimeMillis() - t;
+							trace("Journaled " + delta.size() + " bytes of the build state in " + t + "ms"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+						}
+						return;
+					}
+				}
+			}
+			info.persistedState = null;
+			try (DataOutputStream out = new DataOutputStream(createOutputStream(file, false))) {
 				out.writeUTF(JavaCore.PLUGIN_ID);
 				out.writeUTF("STATE"); //$NON-NLS-1$
-				if (info.savedState == null) {
+				if (state == null) {
 					out.writeBoolean(false);
 				} else {
 					out.writeBoolean(true);
-					JavaBuilder.writeState(info.savedState, out);
+					JavaBuilder.writeState(state, out);
 				}
 			}
+			// a journal left over (when failing to delete it) does not apply to the new state
+			journalFile.delete();
+			info.persistedState = state;
 		} catch (RuntimeException | IOException e) {
+			info.persistedState = null;
 			try {
 				file.delete();
+				journalFile.delete();
 			} catch(SecurityException se) {
 				// could not delete file: cannot do much more
 			}
@@ -4462,6 +4538,12 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		}
 	}
 
+	private void appendToJournal(File journalFile, ByteArrayOutputStream entry) throws IOException {
+		try (OutputStream out = createOutputStream(journalFile, true)) {
+			entry.writeTo(out);
+		}
+	}
+
 	private InputStream createInputStream(File file) throws IOException {
 		InputStream in = new FileInputStream(file);
 		try {
@@ -4480,11 +4562,12 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 		}
 	}
 
-	private OutputStream createOutputStream(File file) throws IOException {
+	private OutputStream createOutputStream(File file, boolean append) throws IOException {
 		if (SAVE_ZIPPED) {
-			return new BufferedOutputStream(new java.util.zip.GZIPOutputStream(new FileOutputStream(file), 8192));
+			// appended GZIP members are read as one stream
+			return new BufferedOutputStream(new java.util.zip.GZIPOutputStream(new FileOutputStream(file, append), 8192));
 		} else {
-			return new BufferedOutputStream(new FileOutputStream(file));
+			return new BufferedOutputStream(new FileOutputStream(file, append));
 		}
 	}
 
@@ -5314,23 +5397,47 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 	 * Sets the last built state for the given project, or null to reset it.
 	 */
 	public void setLastBuiltState(IProject project, Object state) {
+		Object persistedState = null;
 		if (JavaProject.hasJavaNature(project)) {
 			// should never be requested on non-Java projects
 			PerProjectInfo info = getPerProjectInfo(project, true /*create if missing*/);
 			info.triedRead = true; // no point trying to re-read once using setter
 			info.savedState = state;
+			persistedState = info.persistedState;
 		}
-		if (state == null) { // delete state file to ensure a full build happens if the workspace crashes
-			try {
-				File file = getSerializationFile(project);
-				if (file != null && file.exists())
+		if (state == null) { // invalidate the saved state to ensure a full build happens if the workspace crashes
+			File file = getSerializationFile(project);
+			if (file != null && file.exists()) {
+				if (persistedState != null && invalidateSavedState(project, persistedState))
+					return; // the next save can journal the changes from the persisted state
+				try {
 					file.delete();
-			} catch(SecurityException se) {
-				// could not delete file: cannot do much more
+					getSerializationJournalFile(project).delete();
+				} catch(SecurityException se) {
+					// could not delete file: cannot do much more
+				}
 			}
 		}
 	}
 
+	private boolean invalidateSavedState(IProject project, Object persistedState) {
+		File journalFile = getSerializationJournalFile(project);
+		try {
+			ByteArrayOutputStream entry = new ByteArrayOutputStream();
+			try (DataOutputStream out = new DataOutputStream(entry)) {
+				if (!JavaBuilder.writeStateInvalidation(persistedState, out))
+					return false;
+			}
+			appendToJournal(journalFile, entry);
+			return true;
+		} catch (IOException e) {
+			if (JavaBuilder.DEBUG) {
+				trace("Failed to journal the invalidation of the build state of " + project.getName(), e); //$NON-NLS-1$
+			}
+			return false;
+		}
+	}
+
 	/**
 	 * Store the preferences value for the given option name.
 	 *
@@ -5560,6 +5667,8 @@ public class JavaModelManager implements ISaveParticipant, IContentTypeChangeLis
 			this.indexManager.shutdown();
 		}
 
+		this.binaryTypeCache.flush();
+
 		// Stop listening to preferences changes
 		preferences.removePreferenceChangeListener(this.propertyListener);
 		((IEclipsePreferences) this.preferencesLookup[PREF_DEFAULT].parent()).removeNodeChangeListener(this.defaultNodeListener);
@@ -195,6 +195,7 @@ public abstract class JavaModelOperation implements IWorkspaceRunnable, IProgres
 		} else {
 			reconcileDeltas.put(workingCopy, delta);
 		}
+		DeltaProcessor.registeredDeltasCount.incrementAndGet();
 	}
 	/*
 	 * Deregister the reconcile delta for the given working copy
@@ -3047,6 +3047,16 @@ public class JavaProject
 		}
 	}
 
+	/*
+	 * Resets this project's caches after a change of its classpath, keeping what does not depend on the classpath
+	 */
+	public void resetClasspathCaches() {
+		JavaProjectElementInfo info = (JavaProjectElementInfo) JavaModelManager.getJavaModelManager().peekAtInfo(this);
+		if (info != null){
+			info.resetClasspathCaches();
+		}
+	}
+
 	public ClasspathChange resetResolvedClasspath() {
 		try {
 			return getPerProjectInfo().resetResolvedClasspath();
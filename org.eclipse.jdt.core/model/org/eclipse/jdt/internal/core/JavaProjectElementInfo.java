@@ -15,6 +15,7 @@ package org.eclipse.jdt.internal.core;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 import org.eclipse.core.resources.IContainer;
 import org.eclipse.core.resources.IResource;
@@ -28,6 +29,7 @@ import org.eclipse.jdt.core.IPackageFragmentRoot;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.internal.core.DeltaProcessor.RootInfo;
+import org.eclipse.jdt.internal.core.search.TypeNameCache;
 import org.eclipse.jdt.internal.core.util.HashSetOfArray;
 import org.eclipse.jdt.internal.core.util.HashtableOfArrayToObject;
 import org.eclipse.jdt.internal.core.util.Util;
@@ -76,11 +78,26 @@ class JavaProjectElementInfo extends OpenableElementInfo {
 		 * (so as to be able to figure inclusion/exclusion rules)
 		 */
 		public Map<IPackageFragmentRoot, IClasspathEntry> rootToResolvedEntries;
+
+		/*
+		 * A cache of the types found in the indexes by the type name searches of this project
+		 * (see SearchableEnvironment#findTypes(...))
+		 */
+		public TypeNameCache typeNameCache = new TypeNameCache(
+				Integer.getInteger(TypeNameCache.SIZE_PROPERTY, TypeNameCache.DEFAULT_SIZE).intValue());
 	}
 
 	ProjectCache projectCache;
 	ProjectCache mainProjectCache;
 
+	/*
+	 * The package names and resolved classpath entries of the roots of the project caches dropped by the last classpath
+	 * change, which the next project caches reuse for the roots still on the classpath with the same entry, see
+	 * resetClasspathCaches()
+	 */
+	private Map<IPackageFragmentRoot, HashSetOfArray> previousPkgFragmentsCaches;
+	private Map<IPackageFragmentRoot, IClasspathEntry> previousRootToResolvedEntries;
+
 	/*
 	 * Adds the given name and its super names to the given set
 	 * (e.g. for {"a", "b", "c"}, adds {"a", "b", "c"}, {"a", "b"}, and {"a"})
@@ -231,6 +248,8 @@ class JavaProjectElementInfo extends OpenableElementInfo {
 
 			Map<IPath, RootInfo> rootInfos = JavaModelManager.getJavaModelManager().deltaState.roots;
 			HashMap<IPackageFragmentRoot, HashSetOfArray> pkgFragmentsCaches = new HashMap<>();
+			Map<IPackageFragmentRoot, HashSetOfArray> previousCaches = this.previousPkgFragmentsCaches;
+			Map<IPackageFragmentRoot, IClasspathEntry> previousEntries = this.previousRootToResolvedEntries;
 			int length = roots.length;
 			JavaModelManager  manager = JavaModelManager.getJavaModelManager();
 			for (int i = 0; i < length; i++) {
@@ -239,9 +258,14 @@ class JavaProjectElementInfo extends OpenableElementInfo {
 				if (rootInfo == null || rootInfo.project.equals(project)) {
 					// ensure that an identical root is used (see https://bugs.eclipse.org/bugs/show_bug.cgi?id=217059 )
 					roots[i] = root = (IPackageFragmentRoot) manager.getExistingElement(root);
-					// compute fragment cache
-					HashSetOfArray fragmentsCache = new HashSetOfArray();
-					initializePackageNames(root, fragmentsCache);
+					// compute fragment cache, unless the root was already on the classpath with the same inclusion/exclusion rules
+					HashSetOfArray fragmentsCache = null;
+					if (previousCaches != null && previousEntries != null && Objects.equals(previousEntries.get(root), reverseMap.get(root)))
+						fragmentsCache = previousCaches.get(root);
+					if (fragmentsCache == null) {
+						fragmentsCache = new HashSetOfArray();
+						initializePackageNames(root, fragmentsCache);
+					}
 					pkgFragmentsCaches.put(root, fragmentsCache);
 				}
 			}
@@ -373,6 +397,30 @@ class JavaProjectElementInfo extends OpenableElementInfo {
 	 * Reset the package fragment roots and package fragment caches
 	 */
 	void resetCaches() {
+		this.previousPkgFragmentsCaches = null;
+		this.previousRootToResolvedEntries = null;
+		this.projectCache = null;
+		this.mainProjectCache = null;
+	}
+
+	/*
+	 * Reset the package fragment roots and package fragment caches after a change of the classpath only: the package
+	 * names of the roots of the last project caches are kept, and the next project caches reuse them for the roots
+	 * which are still on the new classpath with the same resolved entry (see getProjectCache(...)), so only the other
+	 * roots need to be read. The new classpath is not resolved here, it is resolved by the next lookup. The package
+	 * names of the roots of older project caches are not kept: the changes of a root which left the classpath are no
+	 * longer tracked by the delta processor.
+	 */
+	void resetClasspathCaches() {
+		Map<IPackageFragmentRoot, HashSetOfArray> previousCaches = new HashMap<>();
+		Map<IPackageFragmentRoot, IClasspathEntry> previousEntries = new HashMap<>();
+		for (ProjectCache cache : new ProjectCache[] { this.projectCache, this.mainProjectCache }) {
+			if (cache == null) continue;
+			previousCaches.putAll(cache.pkgFragmentsCaches);
+			previousEntries.putAll(cache.rootToResolvedEntries);
+		}
+		this.previousRootToResolvedEntries = previousEntries;
+		this.previousPkgFragmentsCaches = previousCaches;
 		this.projectCache = null;
 		this.mainProjectCache = null;
 	}
@@ -257,15 +257,8 @@ public class NameLookup implements SuffixConstants {
 		}
 		this.rootToModule = new HashMap<>();
 		this.packageFragmentRoots = packageFragmentRoots;
-		if (workingCopies == null) {
-			this.packageFragments = packageFragments;
-		} else {
-			// clone tables as we're adding packages from working copies
-			try {
-				this.packageFragments = (HashtableOfArrayToObject) packageFragments.clone();
-			} catch (CloneNotSupportedException e1) {
-				// ignore (implementation of HashtableOfArrayToObject supports cloning)
-			}
+		this.packageFragments = packageFragments;
+		if (workingCopies != null) {
 			this.typesInWorkingCopies = new HashMap();
 			HashtableOfObjectToInt rootPositions = new HashtableOfObjectToInt();
 			for (int i = 0, length = packageFragmentRoots.length; i < length; i++) {
@@ -314,6 +307,7 @@ public class NameLookup implements SuffixConstants {
 				String[] pkgName = pkg.names;
 				Object existing = this.packageFragments.get(pkgName);
 				if (existing == null || existing == JavaProjectElementInfo.NO_ROOTS) {
+					copyPackageFragments(packageFragments);
 					this.packageFragments.put(pkgName, root);
 					// ensure super packages (see https://bugs.eclipse.org/bugs/show_bug.cgi?id=119161)
 					// are also in the map
@@ -322,6 +316,7 @@ public class NameLookup implements SuffixConstants {
 					if (existing instanceof PackageFragmentRoot) {
 						int exisitingPosition = rootPositions.get(existing);
 						if (rootPosition != exisitingPosition) { // if not equal
+							copyPackageFragments(packageFragments);
 							this.packageFragments.put(
 								pkgName,
 								exisitingPosition < rootPosition ?
@@ -352,6 +347,7 @@ public class NameLookup implements SuffixConstants {
 							System.arraycopy(roots, 0, newRoots, 0, insertionIndex);
 							newRoots[insertionIndex] = root;
 							System.arraycopy(roots, insertionIndex, newRoots, insertionIndex+1, rootLength-insertionIndex);
+							copyPackageFragments(packageFragments);
 							this.packageFragments.put(pkgName, newRoots);
 						}
 					}
@@ -365,6 +361,20 @@ public class NameLookup implements SuffixConstants {
         }
 	}
 
+	/*
+	 * Copies the given table of the project cache before its first change, since it is shared by all the name
+	 * lookups of the project. Most working copies are in packages the table already knows, so it rarely happens.
+	 */
+	private void copyPackageFragments(HashtableOfArrayToObject sharedPackageFragments) {
+		if (this.packageFragments != sharedPackageFragments)
+			return; // already copied
+		try {
+			this.packageFragments = (HashtableOfArrayToObject) sharedPackageFragments.clone();
+		} catch (CloneNotSupportedException e) {
+			// ignore (implementation of HashtableOfArrayToObject supports cloning)
+		}
+	}
+
 	/**
 	 * Returns true if:<ul>
 	 *  <li>the given type is an existing class and the flag's <code>ACCEPT_CLASSES</code>
@@ -57,6 +57,7 @@ import org.eclipse.jdt.internal.core.NameLookup.Answer;
 import org.eclipse.jdt.internal.core.search.BasicSearchEngine;
 import org.eclipse.jdt.internal.core.search.IRestrictedAccessConstructorRequestor;
 import org.eclipse.jdt.internal.core.search.IRestrictedAccessTypeRequestor;
+import org.eclipse.jdt.internal.core.search.TypeNameCache;
 import org.eclipse.jdt.internal.core.search.indexing.IndexManager;
 import org.eclipse.jdt.internal.core.search.processing.IJob;
 import org.eclipse.jdt.internal.core.util.DeduplicationUtil;
@@ -672,7 +673,7 @@ public class SearchableEnvironment
 				}
 				@Override
 				public boolean isCanceled() {
-					return this.isCanceled;
+					return this.isCanceled || (monitor != null && monitor.isCanceled());
 				}
 				@Override
 				public void setCanceled(boolean value) {
@@ -716,7 +717,8 @@ public class SearchableEnvironment
 						resolveDocumentName,
 						typeRequestor,
 						FORCE_IMMEDIATE_SEARCH,
-						progressMonitor);
+						progressMonitor,
+						getTypeNameCache());
 				} else {
 					// indexes were not ready, give the indexing a chance to finish small jobs by sleeping 100ms...
 					try {
@@ -739,7 +741,8 @@ public class SearchableEnvironment
 							resolveDocumentName,
 							typeRequestor,
 							FORCE_IMMEDIATE_SEARCH,
-							progressMonitor);
+							progressMonitor,
+							getTypeNameCache());
 					} else {
 						// Indexes are still not ready, so look for types in the model instead of a search request
 						findTypes(
@@ -760,7 +763,8 @@ public class SearchableEnvironment
 						resolveDocumentName,
 						typeRequestor,
 						CANCEL_IF_NOT_READY_TO_SEARCH,
-						progressMonitor);
+						progressMonitor,
+						getTypeNameCache());
 				} catch (OperationCanceledException e) {
 					findTypes(
 						new String(prefix),
@@ -837,7 +841,7 @@ public class SearchableEnvironment
 				}
 				@Override
 				public boolean isCanceled() {
-					return this.isCanceled;
+					return this.isCanceled || (monitor != null && monitor.isCanceled());
 				}
 				@Override
 				public void setCanceled(boolean value) {
@@ -975,6 +979,21 @@ public class SearchableEnvironment
 		}
 	}
 
+	/*
+	 * Answers the cache of the types found by the type name searches of the project, which are made in the scope of the
+	 * project when access restrictions are checked, see getSearchScope()
+	 */
+	private TypeNameCache getTypeNameCache() {
+		if (!this.checkAccessRestrictions)
+			return null;
+		try {
+			JavaProjectElementInfo info = (JavaProjectElementInfo) this.project.getElementInfo();
+			return info.getProjectCache(this.project, this.excludeTestCode).typeNameCache;
+		} catch (JavaModelException e) {
+			return null;
+		}
+	}
+
 	private IJavaSearchScope getSearchScope() {
 		if (this.searchScope == null) {
 			// Create search scope with visible entry on the project's classpath
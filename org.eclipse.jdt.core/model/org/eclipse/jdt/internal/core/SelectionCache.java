@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core;
+
+import java.util.Hashtable;
+
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.WorkingCopyOwner;
+import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.internal.core.util.LRUCache;
+
+/**
+ * Cache of the elements answered by {@link CompilationUnit#codeSelect(int, int, WorkingCopyOwner)} on a working
+ * copy, see {@link JavaModelManager.PerWorkingCopyInfo#getSelectionCache()}.
+ * <p>
+ * Hovering, hyperlink detection and navigation ask for the same selections again and again while the working copy
+ * doesn't change, and each of them parses and resolves the unit with a lookup environment of its own. The answers
+ * only depend on the contents of the working copy, on the structure of the Java model (the other units are looked
+ * up through their element infos) and on the options of the project, so they are cached for the contents they were
+ * computed with, and dropped as soon as the contents change, a Java element delta is registered (see
+ * {@link DeltaProcessor#getRegisteredDeltasCount()}) or the options change. The number of cached selections is
+ * bounded (least recently used first).
+ * </p>
+ */
+public class SelectionCache {
+
+	public static final String SIZE_PROPERTY = "org.eclipse.jdt.core.selectioncache.size"; //$NON-NLS-1$
+	public static final int DEFAULT_SIZE = 10;
+
+	private static final class Key {
+		final int offset;
+		final int length;
+		final WorkingCopyOwner owner;
+
+		Key(int offset, int length, WorkingCopyOwner owner) {
+			this.offset = offset;
+			this.length = length;
+			this.owner = owner;
+		}
+
+		@Override
+		public int hashCode() {
+			return (this.offset * 31 + this.length) * 31 + (this.owner == null ? 0 : this.owner.hashCode());
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) return false;
+			Key other = (Key) obj;
+			return this.offset == other.offset
+					&& this.length == other.length
+					&& this.owner == other.owner;
+		}
+	}
+
+	/**
+	 * Stamp of the options of a project. The options of the workspace and of the project are cached in maps which are
+	 * replaced, not modified, when the options change (see {@link JavaModelManager#getOptions()} and
+	 * {@link JavaProject#getOptions(boolean)}), so comparing these maps by identity tells whether the options changed,
+	 * without building the options of the project on every selection.
+	 */
+	static final class OptionsStamp {
+		private final Hashtable<String, String> workspaceOptions;
+		private final Hashtable<String, String> projectOptions;
+
+		private OptionsStamp(Hashtable<String, String> workspaceOptions, Hashtable<String, String> projectOptions) {
+			this.workspaceOptions = workspaceOptions;
+			this.projectOptions = projectOptions;
+		}
+
+		/**
+		 * Answers the stamp of the current options of the given project, or <code>null</code> if they can't be cached.
+		 */
+		static OptionsStamp of(IJavaProject project) {
+			JavaModelManager manager = JavaModelManager.getJavaModelManager();
+			OptionsStamp stamp = current(manager, project);
+			if (stamp == null) {
+				project.getOptions(true); // caches the options of the workspace and of the project
+				stamp = current(manager, project);
+			}
+			return stamp;
+		}
+
+		private static OptionsStamp current(JavaModelManager manager, IJavaProject project) {
+			Hashtable<String, String> workspaceOptions = manager.optionsCache;
+			JavaModelManager.PerProjectInfo info = manager.getPerProjectInfo(project.getProject(), false /* don't create info */);
+			Hashtable<String, String> projectOptions = info == null ? null : info.options;
+			if (workspaceOptions == null || projectOptions == null)
+				return null;
+			return new OptionsStamp(workspaceOptions, projectOptions);
+		}
+
+		boolean isSameAs(OptionsStamp other) {
+			return other != null
+					&& this.workspaceOptions == other.workspaceOptions
+					&& this.projectOptions == other.projectOptions;
+		}
+	}
+
+	private final int maxSize;
+	private final LRUCache<Key, IJavaElement[]> selections;
+	private char[] contents; // the contents of the working copy the selections were computed with
+	private int deltasCount;
+	private OptionsStamp options;
+
+	public SelectionCache(int maxSize) {
+		this.maxSize = maxSize;
+		this.selections = new LRUCache<>(maxSize);
+	}
+
+	public boolean isEnabled() {
+		return this.maxSize > 0;
+	}
+
+	private boolean isValid(char[] currentContents, int currentDeltasCount, OptionsStamp currentOptions) {
+		return this.deltasCount == currentDeltasCount
+				&& currentOptions.isSameAs(this.options)
+				&& CharOperation.equals(this.contents, currentContents);
+	}
+
+	/**
+	 * Answers the elements selected by the given range if they are known for the given contents, count of deltas and
+	 * options, or <code>null</code>.
+	 */
+	synchronized IJavaElement[] getSelection(int offset, int length, WorkingCopyOwner owner, char[] currentContents, int currentDeltasCount, OptionsStamp currentOptions) {
+		if (this.contents == null || !isValid(currentContents, currentDeltasCount, currentOptions)) {
+			this.selections.flush();
+			this.contents = null;
+			return null;
+		}
+		IJavaElement[] elements = this.selections.get(new Key(offset, length, owner));
+		return elements == null ? null : elements.clone();
+	}
+
+	/**
+	 * Remembers the elements selected by the given range, which were computed with the given contents, count of deltas
+	 * and options.
+	 */
+	synchronized void putSelection(int offset, int length, WorkingCopyOwner owner, char[] currentContents, int currentDeltasCount, OptionsStamp currentOptions, IJavaElement[] elements) {
+		if (currentContents == null)
+			return;
+		if (this.contents == null || !isValid(currentContents, currentDeltasCount, currentOptions)) {
+			this.selections.flush();
+			this.contents = currentContents.clone();
+			this.deltasCount = currentDeltasCount;
+			this.options = currentOptions;
+		}
+		this.selections.put(new Key(offset, length, owner), elements.clone());
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "SelectionCache: " + this.selections.getCurrentSpace() + " selections"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
@@ -260,9 +260,22 @@ public NameEnvironmentAnswer findClass(String binaryFileName, String qualifiedPa
 	if (!isPackage(qualifiedPackageName, moduleName)) return null; // most common case
 
 	try {
-		IBinaryType reader = ClassFileReader.read(this.zipFile, qualifiedBinaryFileName);
+		char[] modName = this.module == null ? null : this.module.name();
+		IBinaryType reader;
+		if (lastModified() > 0) {
+			char[] readerModName = modName;
+			reader = JavaModelManager.getBinaryTypeCache().getType(this.zipFilename, this.lastModified, this.fileSize,
+					qualifiedBinaryFileName, modName, () -> {
+						// fully initialized so the shared reader never changes once published
+						ClassFileReader classReader = ClassFileReader.read(this.zipFile, qualifiedBinaryFileName, true);
+						if (classReader != null && classReader.moduleName == null)
+							classReader.moduleName = readerModName;
+						return classReader;
+					});
+		} else {
+			reader = ClassFileReader.read(this.zipFile, qualifiedBinaryFileName);
+		}
 		if (reader != null) {
-			char[] modName = this.module == null ? null : this.module.name();
 			if (reader instanceof ClassFileReader) {
 				ClassFileReader classReader = (ClassFileReader) reader;
 				if (classReader.moduleName == null)
@@ -31,7 +31,6 @@ import org.eclipse.jdt.internal.core.util.Util;
 
 import java.net.URI;
 import java.util.*;
-import java.util.Map.Entry;
 
 /**
  * The incremental image builder
@@ -241,10 +240,11 @@ protected void addAffectedSourceFiles(Set<String> qualifiedSet, Set<String> simp
 		internedSimpleNames = null;
 	char[][] internedRootNames = ReferenceCollection.internSimpleNames(rootSet, false);
 
-	next: for (Entry<String, ReferenceCollection> entry : this.newState.references.entrySet()) {
-		String typeLocator = entry.getKey();
+	// only ask the reference collections which may include the names, in the order of the references
+	List<String> candidates = this.newState.getReferenceIndex().getCandidates(internedQualifiedNames, internedSimpleNames, internedRootNames);
+	next: for (String typeLocator : candidates) {
 		if (affectedTypes != null && !affectedTypes.contains(typeLocator)) continue next;
-		ReferenceCollection refs = entry.getValue();
+		ReferenceCollection refs = this.newState.references.get(typeLocator);
 		if (refs.includes(internedQualifiedNames, internedSimpleNames, internedRootNames)) {
 			IFile file = this.javaBuilder.currentProject.getFile(typeLocator);
 			SourceFile sourceFile = findSourceFile(file, true);
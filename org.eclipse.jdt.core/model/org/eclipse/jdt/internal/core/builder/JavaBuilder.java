@@ -163,10 +163,30 @@ public static State readState(IProject project, DataInputStream in) throws IOExc
 	return State.read(project, in);
 }
 
+public static State readStateJournal(IProject project, Object state, DataInputStream in) throws IOException, CoreException {
+	return State.readJournal(project, (State) state, in);
+}
+
 public static void writeState(Object state, DataOutputStream out) throws IOException {
 	((State) state).write(out);
 }
 
+/**
+ * Writes the changes since the given previous state was read or written, answers <code>false</code> if the state
+ * should be written as a whole instead.
+ */
+public static boolean writeStateDelta(Object state, Object previousState, DataOutputStream out) throws IOException {
+	return ((State) state).writeDelta((State) previousState, out);
+}
+
+/**
+ * Writes that the given state, which was read or written, is not valid anymore, answers <code>false</code> if it
+ * cannot be written.
+ */
+public static boolean writeStateInvalidation(Object state, DataOutputStream out) throws IOException {
+	return ((State) state).writeInvalidation(out);
+}
+
 @Override
 protected IProject[] build(int kind, Map ignored, IProgressMonitor monitor) throws CoreException {
 	this.currentProject = getProject();
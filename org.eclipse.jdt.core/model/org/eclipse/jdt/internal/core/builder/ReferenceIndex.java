@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.builder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Inverted index of the {@link State#references}: maps each name to the type locators whose
+ * {@link ReferenceCollection} contains it, so the type locators which may include some given names are found by
+ * unions and intersections of a few id lists instead of asking every reference collection.
+ * <p>
+ * Type locators get increasing ids in the order they are added to the references, so walking the ids in order
+ * walks the type locators in the iteration order of the references. Names are interned by the reference
+ * collections, so they are compared by identity.
+ * </p>
+ */
+final class ReferenceIndex {
+
+private final Map<char[][], IdList> qualifiedNames;
+private final Map<char[], IdList> simpleNames;
+private final Map<char[], IdList> rootNames;
+private final Map<String, Integer> ids; // type locator -> id
+private String[] typeLocators; // id -> type locator, null once removed
+private int nextId;
+
+ReferenceIndex(Map<String, ReferenceCollection> references) {
+	int size = references.size();
+	this.qualifiedNames = new IdentityHashMap<>(size);
+	this.simpleNames = new IdentityHashMap<>(size);
+	this.rootNames = new IdentityHashMap<>();
+	this.ids = new HashMap<>((int) (size / 0.75 + 1));
+	this.typeLocators = new String[size + 1];
+	this.nextId = 0;
+	for (Entry<String, ReferenceCollection> entry : references.entrySet())
+		add(entry.getKey(), entry.getValue());
+}
+
+/**
+ * Answers whether too many ids were used by removed type locators, in which case the index should be rebuilt.
+ */
+boolean isSparse() {
+	return this.nextId > 2 * this.ids.size() + 1024;
+}
+
+/**
+ * Records that the given reference collection replaces the given previous one (if any) of the type locator.
+ */
+void add(String typeLocator, ReferenceCollection previous, ReferenceCollection refs) {
+	Integer id = this.ids.get(typeLocator);
+	if (id == null) {
+		add(typeLocator, refs);
+	} else {
+		if (previous != null)
+			update(previous, id.intValue(), false);
+		update(refs, id.intValue(), true);
+	}
+}
+
+private void add(String typeLocator, ReferenceCollection refs) {
+	int id = this.nextId++;
+	if (id == this.typeLocators.length)
+		System.arraycopy(this.typeLocators, 0, this.typeLocators = new String[id * 2 + 1], 0, id);
+	this.typeLocators[id] = typeLocator;
+	this.ids.put(typeLocator, Integer.valueOf(id));
+	update(refs, id, true);
+}
+
+/**
+ * Records that names were added to the reference collection of the given type locator.
+ */
+void addDependencies(String typeLocator, ReferenceCollection refs) {
+	Integer id = this.ids.get(typeLocator);
+	if (id != null)
+		update(refs, id.intValue(), true);
+}
+
+void remove(String typeLocator, ReferenceCollection refs) {
+	Integer id = this.ids.remove(typeLocator);
+	if (id == null) return;
+
+	this.typeLocators[id.intValue()] = null;
+	if (refs != null)
+		update(refs, id.intValue(), false);
+}
+
+/**
+ * Answers the type locators whose reference collection may include the given names, in the iteration order of the
+ * references. Takes the same arguments as {@link ReferenceCollection#includes(char[][][], char[][], char[][])},
+ * which answers the same for every type locator returned.
+ */
+List<String> getCandidates(char[][][] qualifiedNameRefs, char[][] simpleNameRefs, char[][] rootNameRefs) {
+	BitSet result;
+	if (rootNameRefs != null) {
+		result = union(this.rootNames, rootNameRefs);
+	} else {
+		result = new BitSet(this.nextId);
+		for (Integer id : this.ids.values())
+			result.set(id.intValue());
+	}
+	// if either collection of names is null, it means it contained a well known name so it always matches
+	if (simpleNameRefs != null && !result.isEmpty())
+		result.and(union(this.simpleNames, simpleNameRefs));
+	if (qualifiedNameRefs != null && !result.isEmpty()) {
+		BitSet qualified = union(this.qualifiedNames, qualifiedNameRefs);
+		// see ReferenceCollection.includesQualifiedName(char[][][])
+		char[][] maybeSimpleName;
+		for (int i = qualifiedNameRefs.length - 1; i >= 0 && (maybeSimpleName = qualifiedNameRefs[i]).length == 1; i--) {
+			IdList list = this.simpleNames.get(maybeSimpleName[0]);
+			if (list != null)
+				list.addTo(qualified);
+		}
+		result.and(qualified);
+	}
+
+	List<String> candidates = new ArrayList<>(result.cardinality());
+	for (int id = result.nextSetBit(0); id >= 0; id = result.nextSetBit(id + 1))
+		candidates.add(this.typeLocators[id]);
+	return candidates;
+}
+
+private void update(ReferenceCollection refs, int id, boolean add) {
+	for (char[][] name : refs.qualifiedNameReferences)
+		update(this.qualifiedNames, name, id, add);
+	for (char[] name : refs.simpleNameReferences)
+		update(this.simpleNames, name, id, add);
+	for (char[] name : refs.rootReferences)
+		update(this.rootNames, name, id, add);
+}
+
+private static <K> void update(Map<K, IdList> map, K name, int id, boolean add) {
+	IdList list = map.get(name);
+	if (add) {
+		if (list == null)
+			map.put(name, list = new IdList());
+		list.add(id);
+	} else if (list != null) {
+		list.remove(id);
+		if (list.size == 0)
+			map.remove(name);
+	}
+}
+
+private <K> BitSet union(Map<K, IdList> map, K[] names) {
+	BitSet result = new BitSet(this.nextId);
+	for (K name : names) {
+		IdList list = map.get(name);
+		if (list != null)
+			list.addTo(result);
+	}
+	return result;
+}
+
+/**
+ * Sorted set of ids, most names are referenced from a few type locators only.
+ */
+private static final class IdList {
+	int[] ids = new int[2];
+	int size;
+
+	void add(int id) {
+		// ids are mostly added in increasing order
+		int index = this.size > 0 && this.ids[this.size - 1] < id ? -(this.size + 1) : Arrays.binarySearch(this.ids, 0, this.size, id);
+		if (index >= 0) return;
+
+		index = -(index + 1);
+		if (this.size == this.ids.length)
+			System.arraycopy(this.ids, 0, this.ids = new int[this.size * 2], 0, this.size);
+		System.arraycopy(this.ids, index, this.ids, index + 1, this.size - index);
+		this.ids[index] = id;
+		this.size++;
+	}
+
+	void addTo(BitSet bits) {
+		for (int i = 0; i < this.size; i++)
+			bits.set(this.ids[i]);
+	}
+
+	void remove(int id) {
+		int index = Arrays.binarySearch(this.ids, 0, this.size, id);
+		if (index < 0) return;
+
+		System.arraycopy(this.ids, index + 1, this.ids, index, --this.size - index);
+	}
+}
+}
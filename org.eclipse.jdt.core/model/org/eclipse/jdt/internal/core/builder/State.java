@@ -33,6 +33,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -80,15 +81,24 @@ private String[] knownPackageNames; // of the form "p1/p2"
 
 private long previousStructuralBuildTime;
 private StringSet structurallyChangedTypes;
+private ReferenceIndex referenceIndex; // built on demand by getReferenceIndex(), not persisted
+
+// identifies this state in the journal once it was read or written, see writeDelta(State, DataOutputStream)
+private long persistedId;
+private int persistedBuildNumber;
 public static int MaxStructurallyChangedTypes = 100; // keep track of ? structurally changed types, otherwise consider all to be changed
+public static int MaxJournaledChangesPercent = 25; // journal the changes of up to ? percent of the references, otherwise write the whole state
 
-public static final byte VERSION = 0x0026;
+public static final byte VERSION = 0x0027;
 
 static final byte SOURCE_FOLDER = 1;
 static final byte BINARY_FOLDER = 2;
 static final byte EXTERNAL_JAR = 3;
 static final byte INTERNAL_JAR = 4;
 
+static final byte JOURNAL_DELTA = 1;
+static final byte JOURNAL_INVALIDATION = 2;
+
 /** typical values of accessRule.pattern for encoding hint */
 private static final int[] PROBLEM_IDS = new int[] { 0, IProblem.ForbiddenReference, IProblem.DiscouragedReference,
 		IProblem.ForbiddenReference | AccessRule.IgnoreIfBetter,
@@ -132,6 +142,11 @@ void copyFrom(State lastState) {
 
 	this.references = new LinkedHashMap<>(lastState.references);
 	this.typeLocators = new LinkedHashMap<>(lastState.typeLocators);
+	// the last state is not built anymore, so its index can be taken over since it describes the same references
+	this.referenceIndex = lastState.referenceIndex;
+	lastState.referenceIndex = null;
+	if (this.referenceIndex != null && this.referenceIndex.isSparse())
+		this.referenceIndex = null;
 }
 
 /**
@@ -178,6 +193,12 @@ public Map<String, ReferenceCollection> getReferences() {
 	return this.references;
 }
 
+ReferenceIndex getReferenceIndex() {
+	if (this.referenceIndex == null)
+		this.referenceIndex = new ReferenceIndex(this.references);
+	return this.referenceIndex;
+}
+
 StringSet getStructurallyChangedTypes(State prereqState) {
 	if (prereqState != null && prereqState.previousStructuralBuildTime > 0) {
 		Object o = this.structuralBuildTimes.get(prereqState.javaProjectName);
@@ -230,12 +251,25 @@ boolean isSourceFolderEmpty(IContainer sourceFolder) {
 }
 
 void record(String typeLocator, char[][][] qualifiedRefs, char[][] simpleRefs, char[][] rootRefs, char[] mainTypeName, ArrayList typeNames) {
+	ReferenceCollection refs;
 	if (typeNames.size() == 1 && CharOperation.equals(mainTypeName, (char[]) typeNames.get(0))) {
-		this.references.put(typeLocator, new ReferenceCollection(qualifiedRefs, simpleRefs, rootRefs));
+		refs = new ReferenceCollection(qualifiedRefs, simpleRefs, rootRefs);
 	} else {
 		char[][] definedTypeNames = new char[typeNames.size()][]; // can be empty when no types are defined
 		typeNames.toArray(definedTypeNames);
-		this.references.put(typeLocator, new AdditionalTypeCollection(definedTypeNames, qualifiedRefs, simpleRefs, rootRefs));
+		refs = new AdditionalTypeCollection(definedTypeNames, qualifiedRefs, simpleRefs, rootRefs);
+	}
+	ReferenceCollection previous = this.references.put(typeLocator, refs);
+	if (this.referenceIndex != null)
+		this.referenceIndex.add(typeLocator, previous, refs);
+}
+
+void recordDependencies(String typeLocator, String[] typeNameDependencies) {
+	ReferenceCollection refs = this.references.get(typeLocator);
+	if (refs != null) {
+		refs.addDependencies(typeNameDependencies);
+		if (this.referenceIndex != null)
+			this.referenceIndex.addDependencies(typeLocator, refs);
 	}
 }
 
@@ -256,7 +290,9 @@ void recordStructuralDependency(IProject prereqProject, State prereqState) {
 
 void removeLocator(String typeLocatorToRemove) {
 	this.knownPackageNames = null;
-	this.references.remove(typeLocatorToRemove);
+	ReferenceCollection refs = this.references.remove(typeLocatorToRemove);
+	if (this.referenceIndex != null)
+		this.referenceIndex.remove(typeLocatorToRemove, refs);
 	this.typeLocators.values().removeIf(v -> typeLocatorToRemove.equals(v));
 }
 
@@ -293,41 +329,131 @@ static State read(IProject project, DataInputStream input) throws IOException, C
 	}
 
 	State newState = new State();
-	newState.javaProjectName = in.readStringUsingDictionary();
-	if (!project.getName().equals(newState.javaProjectName)) {
+	newState.persistedId = in.readLong();
+	if (!newState.readHeader(project, in))
+		return null;
+
+	String[] internedTypeLocators = readTypeLocatorNames(in);
+
+	int length = in.readInt();
+	newState.typeLocators = new LinkedHashMap<>((int) (length / 0.75 + 1));
+	for (int i = 0; i < length; i++)
+		newState.recordLocatorForType(in.readStringUsingLast(), internedTypeLocators[in.readIntInRange(internedTypeLocators.length)]);
+
+	newState.references = new LinkedHashMap<>((int) (internedTypeLocators.length / 0.75 + 1));
+	readReferences(in, internedTypeLocators, newState.references);
+	newState.persistedBuildNumber = newState.buildNumber;
+	if (JavaBuilder.DEBUG) {
+		trace("Successfully read state for " + newState.javaProjectName); //$NON-NLS-1$
+	}
+	return newState;
+}
+
+/**
+ * Answers the state resulting from the changes written to the journal since the given state was written, or
+ * <code>null</code> if the journal ends with the invalidation of the last state.
+ *
+ * @see #writeDelta(State, DataOutputStream)
+ * @see #writeInvalidation(DataOutputStream)
+ */
+static State readJournal(IProject project, State state, DataInputStream input) throws IOException, CoreException {
+	State current = state;
+	boolean isValid = true;
+	for (int kind, count = 0; (kind = input.read()) != -1; count++) {
+		CompressedReader in = new CompressedReader(input);
+		if (current == null || in.readLong() != current.persistedId) {
+			if (count == 0) {
+				// left over by an interrupted save after the state file was written
+				if (JavaBuilder.DEBUG) {
+					trace("Ignored journal of another state for " + project.getName()); //$NON-NLS-1$
+				}
+				return state;
+			}
+			throw new IOException("Inconsistent build state journal"); //$NON-NLS-1$
+		}
+		switch (kind) {
+			case JOURNAL_DELTA :
+				current = current.readDelta(project, in);
+				isValid = true;
+				break;
+			case JOURNAL_INVALIDATION :
+				isValid = false;
+				break;
+			default :
+				throw new IOException("Unknown build state journal entry: " + kind); //$NON-NLS-1$
+		}
+	}
+	if (JavaBuilder.DEBUG && !isValid) {
+		trace("Journal ends with the invalidation of the state for " + project.getName()); //$NON-NLS-1$
+	}
+	return isValid ? current : null;
+}
+
+private State readDelta(IProject project, CompressedReader in) throws IOException, CoreException {
+	if (VERSION != in.readByte())
+		throw new IOException("Inconsistent build state journal"); //$NON-NLS-1$
+
+	State newState = new State();
+	newState.persistedId = in.readLong();
+	if (!newState.readHeader(project, in))
+		throw new IOException("Inconsistent build state journal"); //$NON-NLS-1$
+
+	newState.typeLocators = new LinkedHashMap<>(this.typeLocators);
+	for (int i = 0, length = in.readInt(); i < length; i++)
+		newState.typeLocators.remove(in.readStringUsingLast());
+	for (int i = 0, length = in.readInt(); i < length; i++)
+		newState.recordLocatorForType(in.readStringUsingLast(), in.readStringUsingDictionary());
+
+	newState.references = new LinkedHashMap<>(this.references);
+	for (int i = 0, length = in.readInt(); i < length; i++)
+		newState.references.remove(in.readStringUsingLast());
+	readReferences(in, readTypeLocatorNames(in), newState.references);
+	newState.persistedBuildNumber = newState.buildNumber;
+	return newState;
+}
+
+/**
+ * Reads the fields written by {@link #writeHeader(CompressedWriter)}, answers <code>false</code> if the state is not
+ * the one of the given project.
+ */
+private boolean readHeader(IProject project, CompressedReader in) throws IOException, CoreException {
+	this.javaProjectName = in.readStringUsingDictionary();
+	if (!project.getName().equals(this.javaProjectName)) {
 		if (JavaBuilder.DEBUG) {
 			trace("Project's name does not match... answered null"); //$NON-NLS-1$
 		}
-		return null;
+		return false;
 	}
-	newState.buildNumber = in.readInt();
-	newState.lastStructuralBuildTime = in.readLong();
+	this.buildNumber = in.readInt();
+	this.lastStructuralBuildTime = in.readLong();
 
 	ArrayList<ClasspathLocation> allLocationsForEEA = null;
 	if (JavaCore.ENABLED.equals(JavaCore.create(project).getOption(JavaCore.CORE_JAVA_BUILD_EXTERNAL_ANNOTATIONS_FROM_ALL_LOCATIONS, true))) {
 		allLocationsForEEA = new ArrayList<>(); // signals that we are collecting locations
 	}
 
-	newState.sourceLocations = readSourceLocations(project, in, allLocationsForEEA);
-	newState.binaryLocations = readBinaryLocations(project, in, newState.sourceLocations, allLocationsForEEA);
+	this.sourceLocations = readSourceLocations(project, in, allLocationsForEEA);
+	this.binaryLocations = readBinaryLocations(project, in, this.sourceLocations, allLocationsForEEA);
 
-	newState.testSourceLocations = readSourceLocations(project, in, allLocationsForEEA);
-	newState.testBinaryLocations = readBinaryLocations(project, in, newState.testSourceLocations, allLocationsForEEA);
+	this.testSourceLocations = readSourceLocations(project, in, allLocationsForEEA);
+	this.testBinaryLocations = readBinaryLocations(project, in, this.testSourceLocations, allLocationsForEEA);
 
 	int length;
-	newState.structuralBuildTimes = new SimpleLookupTable(length = in.readInt());
+	this.structuralBuildTimes = new SimpleLookupTable(length = in.readInt());
 	for (int i = 0; i < length; i++)
-		newState.structuralBuildTimes.put(in.readStringUsingDictionary(), Long.valueOf(in.readLong()));
+		this.structuralBuildTimes.put(in.readStringUsingDictionary(), Long.valueOf(in.readLong()));
+	return true;
+}
 
-	String[] internedTypeLocators = new String[length = in.readInt()];
-	for (int i = 0; i < length; i++)
+private static String[] readTypeLocatorNames(CompressedReader in) throws IOException {
+	String[] internedTypeLocators = new String[in.readInt()];
+	for (int i = 0, length = internedTypeLocators.length; i < length; i++)
 		internedTypeLocators[i] = in.readStringUsingLast();
+	return internedTypeLocators;
+}
 
-	length = in.readInt();
-	newState.typeLocators = new LinkedHashMap<>((int) (length / 0.75 + 1));
-	for (int i = 0; i < length; i++)
-		newState.recordLocatorForType(in.readStringUsingLast(), internedTypeLocators[in.readIntInRange(internedTypeLocators.length)]);
-
+private static void readReferences(CompressedReader in, String[] internedTypeLocators, Map<String, ReferenceCollection> references) throws IOException {
+	int length;
 	/*
 	 * Here we read global arrays of names for the entire project - do not mess up the ordering while interning
 	 */
@@ -344,7 +470,6 @@ static State read(IProject project, DataInputStream input) throws IOException, C
 	internedQualifiedNames = ReferenceCollection.internQualifiedNames(internedQualifiedNames, false /* drop well known */, false /* do not sort */);
 
 	length = in.readInt();
-	newState.references = new LinkedHashMap((int) (length / 0.75 + 1));
 	for (int i = 0; i < length; i++) {
 		String typeLocator = internedTypeLocators[in.readInt()];
 		ReferenceCollection collection = null;
@@ -374,12 +499,8 @@ static State read(IProject project, DataInputStream input) throws IOException, C
 					rNames[j] = internedRootNames[in.readIntInRange(internedRootNames.length)];
 				collection = new ReferenceCollection(qNames, sNames, rNames);
 		}
-		newState.references.put(typeLocator, collection);
+		references.put(typeLocator, collection);
 	}
-	if (JavaBuilder.DEBUG) {
-		trace("Successfully read state for " + newState.javaProjectName); //$NON-NLS-1$
-	}
-	return newState;
 }
 
 private static ClasspathMultiDirectory[] readSourceLocations(IProject project, CompressedReader in, List<ClasspathLocation> allLocationsForEEA) throws IOException {
@@ -528,16 +649,137 @@ void wasStructurallyChanged(String typeName) {
 void write(DataOutputStream output) throws IOException {
 	CompressedWriter out=new CompressedWriter(output);
 	int length;
+
+/*
+ * byte		VERSION
+ * long		id
+ */
+	long id = newPersistedId();
+	out.writeByte(VERSION);
+	out.writeLong(id);
+	writeHeader(out);
+
+	SimpleLookupTable internedTypeLocators = writeTypeLocatorNames(out, this.references.keySet());
+
+/*
+ * Type locators table
+ * String		type name
+ * int			interned locator id
+ */
+	out.writeInt(length = this.typeLocators.size());
+	if (length > 0) {
+		Set<Entry<String, String>> entries = this.typeLocators.entrySet();
+		for (Entry<String, String> entry : entries) {
+			String key = entry.getKey();
+			String value = entry.getValue();
+			if (key != null) {
+				length--;
+				out.writeStringUsingLast(key);
+				Integer index = (Integer) internedTypeLocators.get(value);
+				out.writeIntInRange(index.intValue(), internedTypeLocators.elementSize);
+			}
+		}
+		if (JavaBuilder.DEBUG && length != 0) {
+			trace("typeLocators table is inconsistent"); //$NON-NLS-1$
+		}
+	}
+
+	writeReferences(out, this.references, internedTypeLocators);
+	this.persistedId = id;
+	this.persistedBuildNumber = this.buildNumber;
+}
+
+/**
+ * Writes the changes from the given state, as it was last read or written, to this state to the journal of the
+ * state file. Answers <code>false</code> without writing anything if this state should rather be written as a whole,
+ * for example because too much changed.
+ *
+ * @see #readJournal(IProject, State, DataInputStream)
+ */
+boolean writeDelta(State previous, DataOutputStream output) throws IOException {
+	if (previous.persistedId == 0)
+		return false;
+	if (this == previous && this.buildNumber == this.persistedBuildNumber)
+		return true; // nothing changed since it was written
+
+	List<String> removedTypeLocators = new ArrayList<>();
+	for (String key : previous.typeLocators.keySet())
+		if (!this.typeLocators.containsKey(key))
+			removedTypeLocators.add(key);
+	Map<String, String> changedTypeLocators = new LinkedHashMap<>();
+	for (Entry<String, String> entry : this.typeLocators.entrySet())
+		if (!entry.getValue().equals(previous.typeLocators.get(entry.getKey())))
+			changedTypeLocators.put(entry.getKey(), entry.getValue());
+	List<String> removedReferences = new ArrayList<>();
+	for (String key : previous.references.keySet())
+		if (!this.references.containsKey(key))
+			removedReferences.add(key);
+	// unchanged reference collections are shared with the previous state, changed ones are recorded anew
+	Map<String, ReferenceCollection> changedReferences = new LinkedHashMap<>();
+	for (Entry<String, ReferenceCollection> entry : this.references.entrySet())
+		if (previous.references.get(entry.getKey()) != entry.getValue())
+			changedReferences.put(entry.getKey(), entry.getValue());
+	if (MaxJournaledChangesPercent * this.references.size() < 100 * (removedReferences.size() + changedReferences.size()))
+		return false;
+
+	long id = newPersistedId();
+	output.writeByte(JOURNAL_DELTA);
+	CompressedWriter out = new CompressedWriter(output);
+	out.writeLong(previous.persistedId);
+	out.writeByte(VERSION);
+	out.writeLong(id);
+	writeHeader(out);
+
+	out.writeInt(removedTypeLocators.size());
+	for (String key : removedTypeLocators)
+		out.writeStringUsingLast(key);
+	out.writeInt(changedTypeLocators.size());
+	for (Entry<String, String> entry : changedTypeLocators.entrySet()) {
+		out.writeStringUsingLast(entry.getKey());
+		out.writeStringUsingDictionary(entry.getValue());
+	}
+
+	out.writeInt(removedReferences.size());
+	for (String key : removedReferences)
+		out.writeStringUsingLast(key);
+	writeReferences(out, changedReferences, writeTypeLocatorNames(out, changedReferences.keySet()));
+	this.persistedId = id;
+	this.persistedBuildNumber = this.buildNumber;
+	return true;
+}
+
+/**
+ * Writes to the journal of the state file that this state, as it was last read or written, is not valid anymore.
+ * Answers <code>false</code> without writing anything if this state was not read or written.
+ *
+ * @see #readJournal(IProject, State, DataInputStream)
+ */
+boolean writeInvalidation(DataOutputStream output) throws IOException {
+	if (this.persistedId == 0)
+		return false;
+	output.writeByte(JOURNAL_INVALIDATION);
+	new CompressedWriter(output).writeLong(this.persistedId);
+	return true;
+}
+
+private static long newPersistedId() {
+	long id;
+	while ((id = ThreadLocalRandom.current().nextLong()) == 0) {
+		// 0 means not persisted
+	}
+	return id;
+}
+
+private void writeHeader(CompressedWriter out) throws IOException {
+	int length;
 	Object[] keyTable;
 	Object[] valueTable;
 
 /*
- * byte		VERSION
  * String		project name
  * int			build number
  * int			last structural build number
 */
-	out.writeByte(VERSION);
 	out.writeStringUsingDictionary(this.javaProjectName);
 	out.writeInt(this.buildNumber);
 	out.writeLong(this.lastStructuralBuildTime);
@@ -590,14 +832,16 @@ void write(DataOutputStream output) throws IOException {
 			trace("structuralBuildNumbers table is inconsistent"); //$NON-NLS-1$
 		}
 	}
+}
 
 /*
  * String[]	Interned type locators
  */
-	out.writeInt(length = this.references.size());
+private SimpleLookupTable writeTypeLocatorNames(CompressedWriter out, Set<String> keys) throws IOException {
+	int length;
+	out.writeInt(length = keys.size());
 	SimpleLookupTable internedTypeLocators = new SimpleLookupTable(length);
 	if (length > 0) {
-		Set<String> keys = this.references.keySet();
 		for (String key : keys) {
 			if (key != null) {
 				length--;
@@ -609,30 +853,11 @@ void write(DataOutputStream output) throws IOException {
 			trace("references table is inconsistent"); //$NON-NLS-1$
 		}
 	}
+	return internedTypeLocators;
+}
 
-/*
- * Type locators table
- * String		type name
- * int			interned locator id
- */
-	out.writeInt(length = this.typeLocators.size());
-	if (length > 0) {
-		Set<Entry<String, String>> entries = this.typeLocators.entrySet();
-		for (Entry<String, String> entry : entries) {
-			String key = entry.getKey();
-			String value = entry.getValue();
-			if (key != null) {
-				length--;
-				out.writeStringUsingLast(key);
-				Integer index = (Integer) internedTypeLocators.get(value);
-				out.writeIntInRange(index.intValue(), internedTypeLocators.elementSize);
-			}
-		}
-		if (JavaBuilder.DEBUG && length != 0) {
-			trace("typeLocators table is inconsistent"); //$NON-NLS-1$
-		}
-	}
-
+private void writeReferences(CompressedWriter out, Map<String, ReferenceCollection> refs, SimpleLookupTable internedTypeLocators) throws IOException {
+	int length;
 /*
  * char[][]	Interned root names
  * char[][][]	Interned qualified names
@@ -641,7 +866,7 @@ void write(DataOutputStream output) throws IOException {
 	SimpleLookupTable internedRootNames = new SimpleLookupTable(3);
 	SimpleLookupTable internedQualifiedNames = new SimpleLookupTable(31);
 	SimpleLookupTable internedSimpleNames = new SimpleLookupTable(31);
-	for (ReferenceCollection collection : this.references.values()) {
+	for (ReferenceCollection collection : refs.values()) {
 		char[][] rNames = collection.rootReferences;
 		for (char[] rName : rNames) {
 			if (!internedRootNames.containsKey(rName)) // remember the names have been interned
@@ -710,9 +935,9 @@ void write(DataOutputStream output) throws IOException {
  * int		interned locator id
  * ReferenceCollection
 */
-	out.writeInt(length = this.references.size());
+	out.writeInt(length = refs.size());
 	if (length > 0) {
-		for (Entry<String, ReferenceCollection> entry : this.references.entrySet()) {
+		for (Entry<String, ReferenceCollection> entry : refs.entrySet()) {
 			String key = entry.getKey();
 			length--;
 			Integer index = (Integer) internedTypeLocators.get(key);
@@ -15,6 +15,7 @@ package org.eclipse.jdt.internal.core.hierarchy;
 
 import static org.eclipse.jdt.internal.core.JavaModelManager.trace;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -104,7 +105,7 @@ public abstract class HierarchyBuilder {
 					this,
 					new DefaultProblemFactory());
 		}
-		this.infoToHandle = new HashMap(5);
+		this.infoToHandle = Collections.synchronizedMap(new HashMap(5)); // binary types may be created on worker threads, see HierarchyCandidateLoader
 		this.focusQualifiedName = focusType == null ? null : focusType.getFullyQualifiedName();
 	}
 
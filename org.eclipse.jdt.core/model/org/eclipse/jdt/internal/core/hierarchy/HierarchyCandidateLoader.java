@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.hierarchy;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.env.IBinaryType;
+import org.eclipse.jdt.internal.compiler.parser.Parser;
+import org.eclipse.jdt.internal.core.ClassFile;
+import org.eclipse.jdt.internal.core.JavaModelManager;
+import org.eclipse.jdt.internal.core.Openable;
+import org.eclipse.jdt.internal.core.util.ParallelWorkers;
+
+/**
+ * Parses the candidate compilation units and decodes the candidate class files of a hierarchy on worker threads,
+ * see {@link HierarchyResolver#resolve(Openable[], java.util.HashSet, IProgressMonitor)}.
+ * <p>
+ * Only the work which doesn't need the lookup environment is done here: each worker diet parses the units which
+ * are not open with its own parser and decodes the class files (which are shared through the
+ * {@link org.eclipse.jdt.internal.core.BinaryTypeCache} when they come from archives). Building the bindings and
+ * connecting the super types stays on the calling thread, in the order of the candidates. A candidate a worker
+ * failed to load is left to the calling thread, which then reports the problem as before.
+ * </p>
+ */
+final class HierarchyCandidateLoader {
+	/** number of threads loading the candidates of a hierarchy, see {@link ParallelWorkers#getThreadCount(String)} **/
+	public static final String THREAD_COUNT_PROPERTY = "jdt.hierarchy.loadThreads"; //$NON-NLS-1$
+
+	/** a few candidates are loaded faster by the calling thread than handed over to workers **/
+	static final int MIN_CANDIDATES = 50;
+
+	private final CompilationUnitDeclaration[] parsedUnits;
+	private final IBinaryType[] binaryTypes;
+
+	private HierarchyCandidateLoader(int length) {
+		this.parsedUnits = new CompilationUnitDeclaration[length];
+		this.binaryTypes = new IBinaryType[length];
+	}
+
+	/**
+	 * Loads the given candidates in parallel if configured so and if there are enough of them.
+	 *
+	 * @return the loaded candidates, or <code>null</code> if the caller must load them itself
+	 * @throws OperationCanceledException if the monitor is canceled while loading
+	 */
+	static HierarchyCandidateLoader load(HierarchyResolver resolver, Openable[] openables, IProgressMonitor monitor) {
+		int threadCount = Math.min(ParallelWorkers.getThreadCount(THREAD_COUNT_PROPERTY), openables.length / MIN_CANDIDATES + 1);
+		if (threadCount < 2)
+			return null;
+
+		HierarchyCandidateLoader loader = new HierarchyCandidateLoader(openables.length);
+		AtomicInteger next = new AtomicInteger();
+		AtomicBoolean canceled = new AtomicBoolean();
+		Runnable[] workers = new Runnable[threadCount];
+		for (int i = 0; i < threadCount; i++) {
+			// the problem reporter of the lookup environment is not thread safe
+			Parser parser = new Parser(resolver.newProblemReporter(), true);
+			workers[i] = () -> loader.loadCandidates(resolver, parser, openables, next, canceled);
+		}
+		ParallelWorkers.run(workers,
+				() -> {
+					if (monitor != null && monitor.isCanceled())
+						canceled.set(true); // the workers stop after their current candidate
+				},
+				() -> canceled.set(true));
+		if (canceled.get())
+			throw new OperationCanceledException();
+		return loader;
+	}
+
+	private void loadCandidates(HierarchyResolver resolver, Parser parser, Openable[] openables, AtomicInteger next, AtomicBoolean canceled) {
+		// the zip files cached by the hierarchy builder are only visible to the calling thread
+		JavaModelManager manager = JavaModelManager.getJavaModelManager();
+		manager.cacheZipFiles(parser);
+		try {
+			int length = openables.length;
+			int i;
+			while (!canceled.get() && (i = next.getAndIncrement()) < length) {
+				Openable openable = openables[i];
+				try {
+					if (openable instanceof ICompilationUnit) {
+						// open units are converted from their element infos by the calling thread
+						if (!openable.isOpen())
+							this.parsedUnits[i] = resolver.dietParse(parser, openable, i, length);
+					} else {
+						this.binaryTypes[i] = resolver.getBinaryType((ClassFile) openable);
+					}
+				} catch (RuntimeException e) {
+					// left to the calling thread
+				}
+			}
+		} finally {
+			manager.flushZipFiles(parser);
+		}
+	}
+
+	/**
+	 * Answers the parsed unit of the candidate at the given index, or <code>null</code> if it was not parsed.
+	 */
+	CompilationUnitDeclaration getParsedUnit(int index) {
+		return this.parsedUnits[index];
+	}
+
+	/**
+	 * Answers the binary type of the candidate at the given index, or <code>null</code> if it was not decoded.
+	 */
+	IBinaryType getBinaryType(int index) {
+		return this.binaryTypes[index];
+	}
+}
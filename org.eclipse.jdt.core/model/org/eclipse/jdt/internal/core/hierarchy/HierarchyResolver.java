@@ -699,6 +699,8 @@ public void resolve(Openable[] openables, HashSet localTypes, IProgressMonitor m
 		}
 
 		subMonitor.split(1);
+		// parse and decode the candidates on worker threads if configured so, bindings are built below
+		HierarchyCandidateLoader candidates = HierarchyCandidateLoader.load(this, openables, subMonitor);
 		// build type bindings
 		Parser parser = new Parser(this.lookupEnvironment.problemReporter, true);
 		final boolean isJava8 = this.options.sourceLevel >= ClassFileConstants.JDK1_8;
@@ -750,10 +752,9 @@ public void resolve(Openable[] openables, HashSet localTypes, IProgressMonitor m
 					if (containsLocalType && parsedUnit != null) parsedUnit.bits |= ASTNode.HasAllMethodBodies;
 				} else {
 					// create parsed unit from file
-					IFile file = (IFile) cu.getResource();
-					ICompilationUnit sourceUnit = this.builder.createCompilationUnitFromPath(openable, file, findAssociatedModuleName(openable));
-					CompilationResult unitResult = new CompilationResult(sourceUnit, i, openablesLength, this.options.maxProblemsPerUnit);
-					parsedUnit = parser.dietParse(sourceUnit, unitResult);
+					parsedUnit = candidates == null ? null : candidates.getParsedUnit(i);
+					if (parsedUnit == null)
+						parsedUnit = dietParse(parser, openable, i, openablesLength);
 				}
 
 				if (parsedUnit != null) {
@@ -772,16 +773,9 @@ public void resolve(Openable[] openables, HashSet localTypes, IProgressMonitor m
 			} else {
 				// cache binary type binding
 				ClassFile classFile = (ClassFile)openable;
-				IBinaryType binaryType = (IBinaryType) JavaModelManager.getJavaModelManager().getInfo(classFile.getType());
-				if (binaryType == null) {
-					// create binary type from file
-					if (classFile.getPackageFragmentRoot().isArchive()) {
-						binaryType = this.builder.createInfoFromClassFileInJar(classFile);
-					} else {
-						IResource file = classFile.resource();
-						binaryType = this.builder.createInfoFromClassFile(classFile, file);
-					}
-				}
+				IBinaryType binaryType = candidates == null ? null : candidates.getBinaryType(i);
+				if (binaryType == null)
+					binaryType = getBinaryType(classFile);
 				if (binaryType != null) {
 					try {
 						sanitizeBinaryType(binaryType);
@@ -892,6 +886,38 @@ public void resolve(Openable[] openables, HashSet localTypes, IProgressMonitor m
 	}
 }
 
+/*
+ * Creates the parsed unit of the given compilation unit, which is not open, from its file.
+ */
+CompilationUnitDeclaration dietParse(Parser parser, Openable openable, int index, int length) {
+	IFile file = (IFile) openable.getResource();
+	ICompilationUnit sourceUnit = this.builder.createCompilationUnitFromPath(openable, file, findAssociatedModuleName(openable));
+	CompilationResult unitResult = new CompilationResult(sourceUnit, index, length, this.options.maxProblemsPerUnit);
+	return parser.dietParse(sourceUnit, unitResult);
+}
+/*
+ * Answers the binary type of the given class file, from its info if it is open or else decoded from its file.
+ */
+IBinaryType getBinaryType(ClassFile classFile) {
+	IBinaryType binaryType = (IBinaryType) JavaModelManager.getJavaModelManager().getInfo(classFile.getType());
+	if (binaryType == null) {
+		// create binary type from file
+		if (classFile.getPackageFragmentRoot().isArchive()) {
+			binaryType = this.builder.createInfoFromClassFileInJar(classFile);
+		} else {
+			IResource file = classFile.resource();
+			binaryType = this.builder.createInfoFromClassFile(classFile, file);
+		}
+	}
+	return binaryType;
+}
+/*
+ * Answers a new problem reporter like the one of the lookup environment, for another thread.
+ */
+ProblemReporter newProblemReporter() {
+	ProblemReporter problemReporter = this.lookupEnvironment.problemReporter;
+	return new ProblemReporter(problemReporter.policy, problemReporter.options, problemReporter.problemFactory);
+}
 private char[] findAssociatedModuleName(Openable openable) {
 	IModuleDescription module = null;
 	IPackageFragmentRoot root = openable.getPackageFragmentRoot();
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.util;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.core.runtime.OperationCanceledException;
+
+/**
+ * Runs the workers of an operation which is split over several threads, such as resolving a big batch of
+ * compilation units, loading the candidates of a type hierarchy or parsing the possible matches of a search.
+ * <p>
+ * The calling thread waits for the workers and polls them for cancellation and progress. When a worker fails or the
+ * calling thread is interrupted, the other workers are stopped and waited for before the failure is reported, so
+ * that none of them still changes the state of the operation once the caller got the failure.
+ * </p>
+ */
+public final class ParallelWorkers {
+
+	private static final long POLL_INTERVAL = 100; // ms
+
+	private static final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+		Thread t = new Thread(r, "Java Parallel Worker"); //$NON-NLS-1$
+		t.setDaemon(true);
+		return t;
+	});
+
+	private ParallelWorkers() {
+		// not instantiable
+	}
+
+	/**
+	 * Answers the number of threads set by the given system property, or 0 if it is missing or invalid, in which case
+	 * the operation is done by the calling thread.
+	 */
+	public static int getThreadCount(String property) {
+		String setting = System.getProperty(property);
+		if (setting == null)
+			return 0;
+		try {
+			return Math.max(0, Integer.parseInt(setting.trim()));
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Runs the given workers and waits until they are all done.
+	 *
+	 * @param workers the workers, each one run on its own thread
+	 * @param poll run by the calling thread while waiting, e.g. to report progress or to stop the workers when the
+	 * 	operation is canceled
+	 * @param stop run by the calling thread to stop the workers when one of them fails or when it is interrupted
+	 * @throws OperationCanceledException if the calling thread is interrupted
+	 */
+	public static void run(Runnable[] workers, Runnable poll, Runnable stop) {
+		Future<?>[] futures = new Future<?>[workers.length];
+		for (int i = 0; i < workers.length; i++)
+			futures[i] = executor.submit(workers[i]);
+		try {
+			for (Future<?> future : futures) {
+				while (true) {
+					try {
+						future.get(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+						break;
+					} catch (TimeoutException e) {
+						poll.run();
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			stop.run();
+			await(futures);
+			Thread.currentThread().interrupt();
+			throw new OperationCanceledException();
+		} catch (ExecutionException e) {
+			stop.run();
+			await(futures);
+			Throwable cause = e.getCause();
+			if (cause instanceof Error)
+				throw (Error) cause;
+			if (cause instanceof RuntimeException)
+				throw (RuntimeException) cause;
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	/**
+	 * Waits until all the workers are done, including the ones which failed or were stopped. The threads are shared,
+	 * so the executor can't be awaited. The failures of the other workers are ignored, only the first one is reported.
+	 */
+	private static void await(Future<?>[] futures) {
+		boolean interrupted = false;
+		for (Future<?> future : futures) {
+			while (true) {
+				try {
+					future.get();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true; // the stopped workers are done soon, keep waiting for them
+				} catch (ExecutionException e) {
+					break;
+				}
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+}
@@ -14,8 +14,10 @@
 package org.eclipse.jdt.internal.core.index;
 
 import java.io.*;
+import java.lang.ref.SoftReference;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
 import java.util.regex.Pattern;
 
 import org.eclipse.core.runtime.ILog;
@@ -45,6 +47,8 @@ private int cacheUserCount;
 private String[][] cachedChunks; // decompressed chunks of document names
 private HashtableOfObject categoryTables; // category name -> HashtableOfObject(words -> int[] of document #'s) or offset if not read yet
 private char[] cachedCategoryName;
+private final SimpleSetOfCharArray scannedCategoryNames = new SimpleSetOfCharArray(3); // categories scanned by an exact query outside of a query session
+private HashtableOfObject ngramIndexes; // category name -> SoftReference to the NgramIndex of its table, built by the first query it can filter
 
 private static final int DEFAULT_BUFFER_SIZE = 2048;
 private static int BUFFER_READ_SIZE = DEFAULT_BUFFER_SIZE;
@@ -54,7 +58,7 @@ private int bufferIndex, bufferEnd; // used when reading from the file into the
 private int streamEnd; // used when writing data from the streamBuffer to the file
 char separator = Index.DEFAULT_SEPARATOR;
 
-public static final String INDEX_VERSION = "1.134"; //$NON-NLS-1$
+public static final String INDEX_VERSION = "1.135"; //$NON-NLS-1$
 public static final String SIGNATURE = "INDEX VERSION " + INDEX_VERSION; //$NON-NLS-1$
 private static final char[] SIGNATURE_CHARS = SIGNATURE.toCharArray();
 public static boolean DEBUG = false;
@@ -102,6 +106,7 @@ DiskIndex() {
 	this.cachedChunks = null;
 	this.categoryTables = null;
 	this.cachedCategoryName = null;
+	this.ngramIndexes = null;
 	this.categoryOffsets = null;
 	this.categoryEnds = null;
 }
@@ -195,9 +200,8 @@ HashtableOfObject addQueryResults(char[][] categories, char[] key, int matchRule
 		switch (matchRule) {
 			case SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE:
 				for (char[] category : categories) {
-					HashtableOfObject wordsToDocNumbers = readCategoryTable(category, false);
-					Object value;
-					if (wordsToDocNumbers != null && (value = wordsToDocNumbers.get(key)) != null)
+					Object value = readCategoryEntry(category, key);
+					if (value != null)
 						results = addQueryResult(results, key, value, memoryIndex, prevResults);
 					prevResults = results != null;
 				}
@@ -239,10 +243,20 @@ HashtableOfObject addQueryResults(char[][] categories, char[] key, int matchRule
 					if (wordsToDocNumbers != null) {
 						char[][] words = wordsToDocNumbers.keyTable;
 						Object[] values = wordsToDocNumbers.valueTable;
-						for (int j = 0, m = words.length; j < m; j++) {
-							char[] word = words[j];
-							if (word != null && Index.isMatch(key, word, matchRule))
-								results = addQueryResult(results, word, values[j], memoryIndex, prevResults);
+						int[] candidates = getNgramCandidates(category, wordsToDocNumbers, key, matchRule);
+						if (candidates != null) {
+							// same slots in the same order as below, minus the words which cannot match
+							for (int j : candidates) {
+								char[] word = words[j];
+								if (Index.isMatch(key, word, matchRule))
+									results = addQueryResult(results, word, values[j], memoryIndex, prevResults);
+							}
+						} else {
+							for (int j = 0, m = words.length; j < m; j++) {
+								char[] word = words[j];
+								if (word != null && Index.isMatch(key, word, matchRule))
+									results = addQueryResult(results, word, values[j], memoryIndex, prevResults);
+							}
 						}
 					}
 					prevResults = results != null;
@@ -252,6 +266,45 @@ HashtableOfObject addQueryResults(char[][] categories, char[] key, int matchRule
 
 	return results;
 }
+/**
+ * Answers the slots of the words of the given category table which may match the given key, in ascending order, or
+ * <code>null</code> if they must all be matched. The postings of a category are kept as long as its table is cached,
+ * see {@link #stopQuery()}, and only softly referenced so that they can be reclaimed when memory is low.
+ */
+private synchronized int[] getNgramCandidates(char[] categoryName, HashtableOfObject wordsToDocNumbers, char[] key, int matchRule) {
+	if (wordsToDocNumbers.elementSize < NgramIndex.MIN_WORDS || !NgramIndex.canFilter(key, matchRule))
+		return null;
+	if (this.ngramIndexes == null)
+		this.ngramIndexes = new HashtableOfObject(3);
+	SoftReference<?> reference = (SoftReference<?>) this.ngramIndexes.get(categoryName);
+	NgramIndex ngramIndex = reference == null ? null : (NgramIndex) reference.get();
+	if (ngramIndex == null || !ngramIndex.isIndexOf(wordsToDocNumbers)) {
+		ngramIndex = new NgramIndex(wordsToDocNumbers);
+		this.ngramIndexes.put(INTERNED_CATEGORY_NAMES.get(categoryName), new SoftReference<>(ngramIndex));
+	}
+	return ngramIndex.getCandidates(key, matchRule);
+}
+/**
+ * Drops the postings of the tables which are no longer cached: a table read again gets new postings.
+ */
+private void flushNgramIndexes() {
+	if (this.ngramIndexes == null)
+		return;
+	HashtableOfObject kept = null;
+	char[][] names = this.ngramIndexes.keyTable;
+	Object[] references = this.ngramIndexes.valueTable;
+	for (int i = 0, l = names.length; i < l; i++) {
+		if (names[i] == null) continue;
+		NgramIndex ngramIndex = (NgramIndex) ((SoftReference<?>) references[i]).get();
+		if (ngramIndex != null && this.categoryTables != null
+				&& ngramIndex.isIndexOf((HashtableOfObject) this.categoryTables.get(names[i]))) {
+			if (kept == null)
+				kept = new HashtableOfObject(3);
+			kept.put(names[i], references[i]);
+		}
+	}
+	this.ngramIndexes = kept;
+}
 private synchronized void cacheDocumentNames() throws IOException {
 	// will need all document names so get them now
 	this.cachedChunks = new String[this.numberOfChunks][];
@@ -392,6 +445,24 @@ private void copyQueryResults(HashtableOfObject categoryToWords, int newPosition
 		}
 	}
 }
+private static byte[] encodeChars(char[] array) {
+	// same encoding as writeStreamChars(FileOutputStream, char[], int, int)
+	byte[] bytes = new byte[array.length * 3];
+	int index = 0;
+	for (char ch : array) {
+		if ((ch & 0x007F) == ch) {
+			bytes[index++] = (byte) ch;
+		} else if ((ch & 0x07FF) == ch) {
+			bytes[index++] = (byte) (0xC0 | ((ch >> 6) & 0x1F));
+			bytes[index++] = (byte) (0x80 | (ch & 0x3F));
+		} else {
+			bytes[index++] = (byte) (0xE0 | ((ch >> 12) & 0x0F));
+			bytes[index++] = (byte) (0x80 | ((ch >> 6) & 0x3F));
+			bytes[index++] = (byte) (0x80 | (ch & 0x3F));
+		}
+	}
+	return index == bytes.length ? bytes : Arrays.copyOf(bytes, index);
+}
 void initialize(boolean reuseExistingFile) throws IOException {
 	if (this.indexLocation.exists()) {
 		if (reuseExistingFile) {
@@ -644,6 +715,87 @@ private synchronized String[] readAllDocumentNames() throws IOException {
 		return CharOperation.NO_STRINGS;
 	}
 }
+private synchronized Object readCategoryEntry(char[] categoryName, char[] word) throws IOException {
+	// answers the document numbers of the word (or the offset to them in the file), null if the word or categoryName is unknown
+	if (this.categoryTables != null) {
+		HashtableOfObject cachedTable = (HashtableOfObject) this.categoryTables.get(categoryName);
+		if (cachedTable != null)
+			return cachedTable.get(word);
+	}
+	int offset = this.categoryOffsets.get(categoryName);
+	if (offset == HashtableOfIntValues.NO_VALUE)
+		return null;
+	// only the first lookup outside of a query session is scanned, later ones read the table so that it is cached
+	if (this.cacheUserCount >= 0 || this.scannedCategoryNames.includes(categoryName)) {
+		HashtableOfObject categoryTable = readCategoryTable(categoryName, true);
+		return categoryTable == null ? null : categoryTable.get(word);
+	}
+	byte[] encodedWord = encodeChars(word);
+	if (encodedWord.length + 2 > BUFFER_READ_SIZE) {
+		HashtableOfObject categoryTable = readCategoryTable(categoryName, false);
+		return categoryTable == null ? null : categoryTable.get(word);
+	}
+	this.scannedCategoryNames.add(categoryName);
+
+	// scan the table up to the word & compare the encoded word against the stored bytes of each word
+	// so that only the document numbers of the matching word are decoded (no table of char[] is built)
+	this.streamBuffer = new byte[BUFFER_READ_SIZE];
+	try {
+		try (InputStream stream = this.indexLocation.getInputStream()) {
+			stream.skip(offset);
+			this.bufferIndex = 0;
+			this.bufferEnd = stream.read(this.streamBuffer, 0, this.streamBuffer.length);
+			int largeArraySize = 256;
+			int size = readStreamInt(stream);
+			for (int i = 0; i < size; i++) {
+				if (this.bufferIndex + 2 >= this.bufferEnd)
+					readStreamBuffer(stream);
+				int length = (this.streamBuffer[this.bufferIndex++] & 0xFF) << 8;
+				length += this.streamBuffer[this.bufferIndex++] & 0xFF;
+				boolean matches = false;
+				if (length == word.length) {
+					if (this.bufferIndex + encodedWord.length > this.bufferEnd)
+						readStreamBuffer(stream);
+					matches = this.bufferIndex + encodedWord.length <= this.bufferEnd
+							&& Arrays.equals(this.streamBuffer, this.bufferIndex, this.bufferIndex + encodedWord.length, encodedWord, 0, encodedWord.length);
+				}
+				if (matches)
+					this.bufferIndex += encodedWord.length;
+				else
+					skipStreamChars(stream, length);
+				// same encoding of the document numbers as in readCategoryTable()
+				int arrayOffset = readStreamInt(stream);
+				if (arrayOffset <= 0) {
+					if (matches)
+						return new int[] {-arrayOffset};
+				} else if (arrayOffset < largeArraySize) {
+					if (matches)
+						return readStreamDocumentArray(stream, arrayOffset);
+					skipStreamBytes(stream, arrayOffset * (this.documentReferenceSize <= 2 ? this.documentReferenceSize : 4));
+				} else {
+					arrayOffset = readStreamInt(stream);
+					if (matches)
+						return Integer.valueOf(arrayOffset);
+				}
+			}
+			return null;
+		} catch (IndexOutOfBoundsException e) {
+			UTFDataFormatException ue = new UTFDataFormatException("Failed to read index data from " + this.indexLocation + " at offset " + offset); //$NON-NLS-1$ //$NON-NLS-2$
+			ue.initCause(e);
+			throw ue;
+		} finally {
+			this.indexLocation.close();
+		}
+	} catch (UTFDataFormatException ue) {
+		ILog.get().warn("Java Index broken - will be automatically deleted to repair: " + this.indexLocation, ue); //$NON-NLS-1$
+		// index is broken. automatically delete it
+		// https://github.com/eclipse-jdt/eclipse.jdt.core/issues/460
+		this.indexLocation.delete();
+		return null;
+	} finally {
+		this.streamBuffer = null;
+	}
+}
 private synchronized HashtableOfObject readCategoryTable(char[] categoryName, boolean readDocNumbers) throws IOException {
 	// result will be null if categoryName is unknown
 	int offset = this.categoryOffsets.get(categoryName);
@@ -891,6 +1043,7 @@ synchronized void stopQuery() {
 				this.categoryTables = newTables;
 			}
 		}
+		flushNgramIndexes();
 	}
 }
 private void readStreamBuffer(InputStream stream) throws IOException {
@@ -907,6 +1060,26 @@ private void readStreamBuffer(InputStream stream) throws IOException {
 	this.bufferEnd = bytesInBuffer + stream.read(this.streamBuffer, bytesInBuffer, this.bufferIndex);
 	this.bufferIndex = 0;
 }
+private void skipStreamBytes(InputStream stream, int count) throws IOException {
+	while (this.bufferIndex + count > this.bufferEnd) {
+		int bytesInBuffer = this.bufferEnd - this.bufferIndex;
+		count -= bytesInBuffer;
+		this.bufferIndex = this.bufferEnd;
+		readStreamBuffer(stream);
+		if (this.bufferEnd <= this.bufferIndex)
+			throw new IndexOutOfBoundsException(); // the stream ended
+	}
+	this.bufferIndex += count;
+}
+private void skipStreamChars(InputStream stream, int length) throws IOException {
+	// same encoding as readStreamChars(InputStream)
+	for (int i = 0; i < length; i++) {
+		if (this.bufferIndex + 3 > this.bufferEnd)
+			readStreamBuffer(stream);
+		int b = this.streamBuffer[this.bufferIndex] & 0xF0;
+		this.bufferIndex += b < 0xC0 ? 1 : b < 0xE0 ? 2 : 3;
+	}
+}
 /**
  * Reads in a string from the specified data input stream. The
  * string has been encoded using a modified UTF-8 format.
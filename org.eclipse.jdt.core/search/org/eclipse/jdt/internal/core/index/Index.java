@@ -17,6 +17,7 @@ import java.io.*;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 
 import org.eclipse.jdt.core.compiler.CharOperation;
@@ -45,6 +46,8 @@ static final char JAR_SEPARATOR = IJavaSearchScope.JAR_FILE_ENTRY_SEPARATOR.char
 
 protected DiskIndex diskIndex;
 protected MemoryIndex memoryIndex;
+private volatile int modificationCount; // changes whenever entries are added or removed, see getModificationCount()
+private static final AtomicInteger allModificationCount = new AtomicInteger(); // same for all the indexes, see getAllModificationCount()
 
 /**
  * Mask used on match rule for indexing.
@@ -118,10 +121,15 @@ public Index(IndexLocation location, String containerPath, boolean reuseExisting
 	this.memoryIndex = new MemoryIndex();
 	this.diskIndex = new DiskIndex(location);
 	this.diskIndex.initialize(reuseExistingFile);
-	if (reuseExistingFile) this.separator = this.diskIndex.separator;
+	if (reuseExistingFile)
+		this.separator = this.diskIndex.separator;
+	else
+		allModificationCount.incrementAndGet(); // a new empty index
 }
 public void addIndexEntry(char[] category, char[] key, String containerRelativePath) {
 	this.memoryIndex.addIndexEntry(category, key, containerRelativePath);
+	this.modificationCount++;
+	allModificationCount.incrementAndGet();
 }
 public String containerRelativePath(String documentPath) {
 	int index = documentPath.indexOf(IJavaSearchScope.JAR_FILE_ENTRY_SEPARATOR);
@@ -138,6 +146,20 @@ public File getIndexFile() {
 public IndexLocation getIndexLocation() {
 	return this.diskIndex == null ? null : this.diskIndex.indexLocation;
 }
+/**
+ * Returns a number which changes whenever entries are added to or removed from this index, so that query results
+ * computed from it can be reused as long as it is the same. Saving the index does not change its entries.
+ */
+public int getModificationCount() {
+	return this.modificationCount;
+}
+/**
+ * Returns a number which changes whenever entries are added to or removed from any index, or an empty index is
+ * created, see {@link #getModificationCount()}.
+ */
+public static int getAllModificationCount() {
+	return allModificationCount.get();
+}
 public long getIndexLastModified() {
 	return this.diskIndex == null? -1 : this.diskIndex.indexLocation.lastModified();
 }
@@ -206,6 +228,8 @@ public String[] queryDocumentNames(String substring) throws IOException {
 }
 public void remove(String containerRelativePath) {
 	this.memoryIndex.remove(containerRelativePath);
+	this.modificationCount++;
+	allModificationCount.incrementAndGet();
 }
 /**
  * Reset memory and disk indexes.
@@ -214,6 +238,8 @@ public void reset() throws IOException {
 	this.memoryIndex = new MemoryIndex();
 	this.diskIndex = new DiskIndex(this.diskIndex.indexLocation);
 	this.diskIndex.initialize(false/*do not reuse the index file*/);
+	this.modificationCount++;
+	allModificationCount.incrementAndGet();
 }
 public boolean save() throws IOException {
 	ReadWriteMonitor readWriteMonitor = this.monitor;
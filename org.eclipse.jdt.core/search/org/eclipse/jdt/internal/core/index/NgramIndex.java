@@ -0,0 +1,351 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.internal.compiler.util.HashtableOfObject;
+
+/**
+ * Trigram postings of the words of a category table of a {@link DiskIndex}, so that substring, pattern and
+ * camel case queries only match the words which may match instead of every word of the category, see
+ * {@link DiskIndex#addQueryResults(char[][], char[], int, MemoryIndex)}.
+ * <p>
+ * Each of these queries needs some literal parts of its key to occur in a word, ignoring case: the key itself for a
+ * substring or prefix match, the segments between the wild-cards for a pattern match and the humps for a camel case
+ * match. Words like the keys of the type declarations start with a name followed by a separator, and then by parts
+ * which are shared by many words (package, enclosing types, modifiers). So only the trigrams of the first part of the
+ * words are posted, and the remaining parts are checked once per distinct value. The candidate words are still
+ * matched with {@link Index#isMatch(char[], char[], int)}, the postings only skip the words which cannot match.
+ * </p>
+ */
+final class NgramIndex {
+
+	/** smaller tables are matched faster word by word than indexed **/
+	static final int MIN_WORDS = 1000;
+
+	private static final char SEPARATOR = '/'; // as in the index keys, see IIndexConstants#SEPARATOR
+	private static final int[] NO_SLOTS = new int[0];
+
+	/**
+	 * The slots of the words, in ascending order.
+	 */
+	private static final class Posting {
+		int[] slots = new int[4];
+		int size;
+
+		void add(int slot) {
+			if (this.size > 0 && this.slots[this.size - 1] == slot)
+				return; // the word has this trigram more than once
+			if (this.size == this.slots.length)
+				this.slots = Arrays.copyOf(this.slots, this.size * 2);
+			this.slots[this.size++] = slot;
+		}
+
+		int[] toArray() {
+			return this.size == this.slots.length ? this.slots : Arrays.copyOf(this.slots, this.size);
+		}
+	}
+
+	private final HashtableOfObject table; // whose slots are posted
+	private final int tableLength;
+	private final Map<Long, int[]> trigrams; // trigrams of the first part of the words -> slots
+	private final char[][] tails; // the distinct remaining parts of the words, after the separator
+	private final int[][] tailSlots;
+	private final Map<Long, int[]> tailTrigrams; // trigrams of the remaining parts -> indexes in tails
+
+	NgramIndex(HashtableOfObject table) {
+		this.table = table;
+		this.tableLength = table.keyTable.length;
+		Map<Long, Posting> trigramPostings = new HashMap<>();
+		HashtableOfObject tailPostings = new HashtableOfObject();
+		char[][] words = table.keyTable;
+		for (int slot = 0, length = words.length; slot < length; slot++) {
+			char[] word = words[slot];
+			if (word == null) continue;
+			int end = CharOperation.indexOf(SEPARATOR, word);
+			if (end == -1) {
+				end = word.length;
+			} else {
+				char[] tail = CharOperation.subarray(word, end + 1, word.length);
+				Posting posting = (Posting) tailPostings.get(tail);
+				if (posting == null)
+					tailPostings.put(tail, posting = new Posting());
+				posting.add(slot);
+			}
+			post(trigramPostings, word, end, slot);
+		}
+		this.trigrams = toArrays(trigramPostings);
+		this.tails = new char[tailPostings.elementSize][];
+		this.tailSlots = new int[tailPostings.elementSize][];
+		Map<Long, Posting> tailTrigramPostings = new HashMap<>();
+		int count = 0;
+		for (int i = 0, length = tailPostings.keyTable.length; i < length; i++) {
+			char[] tail = tailPostings.keyTable[i];
+			if (tail != null) {
+				post(tailTrigramPostings, tail, tail.length, count);
+				this.tails[count] = tail;
+				this.tailSlots[count++] = ((Posting) tailPostings.valueTable[i]).toArray();
+			}
+		}
+		this.tailTrigrams = toArrays(tailTrigramPostings);
+	}
+
+	private static void post(Map<Long, Posting> postings, char[] chars, int end, int id) {
+		for (int i = 0; i + 3 <= end; i++) {
+			Long trigram = Long.valueOf(trigram(chars, i));
+			Posting posting = postings.get(trigram);
+			if (posting == null)
+				postings.put(trigram, posting = new Posting());
+			posting.add(id);
+		}
+	}
+
+	private static Map<Long, int[]> toArrays(Map<Long, Posting> postings) {
+		Map<Long, int[]> arrays = new HashMap<>(postings.size() * 4 / 3 + 1);
+		for (Map.Entry<Long, Posting> entry : postings.entrySet())
+			arrays.put(entry.getKey(), entry.getValue().toArray());
+		return arrays;
+	}
+
+	private static long trigram(char[] chars, int start) {
+		return ((long) Character.toLowerCase(chars[start]) << 32)
+				| ((long) Character.toLowerCase(chars[start + 1]) << 16)
+				| Character.toLowerCase(chars[start + 2]);
+	}
+
+	/**
+	 * Answers whether the given table is the indexed one. A table read again from the index file is another table,
+	 * whose slots may differ.
+	 */
+	boolean isIndexOf(HashtableOfObject wordsToDocNumbers) {
+		return this.table == wordsToDocNumbers;
+	}
+
+	/**
+	 * Answers whether the words matching the given key with the given rule can be looked up, before an index is
+	 * built for them.
+	 */
+	static boolean canFilter(char[] key, int matchRule) {
+		return getLiterals(key, matchRule) != null;
+	}
+
+	/**
+	 * Answers the slots of the words of the table which may match the given key with the given rule, in ascending
+	 * order, or <code>null</code> if any word may match.
+	 */
+	int[] getCandidates(char[] key, int matchRule) {
+		List<char[][]> alternatives = getLiterals(key, matchRule);
+		if (alternatives == null)
+			return null;
+		int[] candidates = NO_SLOTS;
+		for (char[][] literals : alternatives) {
+			int[] slots = null;
+			for (char[] literal : literals) {
+				int[] literalSlots = getCandidates(literal);
+				if (literalSlots != null)
+					slots = slots == null ? literalSlots : intersect(slots, literalSlots);
+			}
+			if (slots == null)
+				return null; // no literal can be looked up
+			candidates = union(candidates, slots);
+		}
+		return candidates;
+	}
+
+	/**
+	 * Answers the alternative sets of literals which all occur in a word matching the given key with the given rule,
+	 * or <code>null</code> if there are none, see {@link Index#isMatch(char[], char[], int)}.
+	 */
+	private static List<char[][]> getLiterals(char[] key, int matchRule) {
+		if (key.length == 0 || (matchRule & SearchPattern.R_SUBWORD_MATCH) != 0)
+			return null;
+		List<char[][]> alternatives = new ArrayList<>(2);
+		if ((matchRule & SearchPattern.R_SUBSTRING_MATCH) != 0)
+			alternatives.add(new char[][] {key});
+		switch (matchRule & ~SearchPattern.R_SUBSTRING_MATCH) {
+			case SearchPattern.R_EXACT_MATCH :
+			case SearchPattern.R_PREFIX_MATCH :
+			case SearchPattern.R_EXACT_MATCH | SearchPattern.R_CASE_SENSITIVE :
+			case SearchPattern.R_PREFIX_MATCH | SearchPattern.R_CASE_SENSITIVE :
+				alternatives.add(new char[][] {key});
+				break;
+			case SearchPattern.R_PATTERN_MATCH :
+			case SearchPattern.R_PATTERN_MATCH | SearchPattern.R_CASE_SENSITIVE :
+				alternatives.add(getSegments(key));
+				break;
+			case SearchPattern.R_CAMELCASE_MATCH :
+			case SearchPattern.R_CAMELCASE_SAME_PART_COUNT_MATCH :
+				alternatives.add(getHumps(key));
+				alternatives.add(new char[][] {key}); // or a prefix
+				break;
+			case SearchPattern.R_CAMELCASE_MATCH | SearchPattern.R_CASE_SENSITIVE :
+			case SearchPattern.R_CAMELCASE_SAME_PART_COUNT_MATCH | SearchPattern.R_CASE_SENSITIVE :
+				alternatives.add(getHumps(key));
+				break;
+			default :
+				return null;
+		}
+		return alternatives;
+	}
+
+	/**
+	 * Answers the parts of the given pattern between its wild-cards, see
+	 * {@link CharOperation#match(char[], char[], boolean)}.
+	 */
+	private static char[][] getSegments(char[] key) {
+		List<char[]> segments = new ArrayList<>();
+		int start = 0;
+		for (int i = 0, length = key.length; i <= length; i++) {
+			if (i == length || key[i] == '*' || key[i] == '?') {
+				if (i > start)
+					segments.add(CharOperation.subarray(key, start, i));
+				start = i + 1;
+			}
+		}
+		return segments.toArray(new char[segments.size()][]);
+	}
+
+	/**
+	 * Answers the parts of the given camel case key which occur as is in a matching word: the pattern only skips
+	 * characters of the word before its upper case letters and digits, see
+	 * {@link CharOperation#camelCaseMatch(char[], char[], boolean)}.
+	 */
+	private static char[][] getHumps(char[] key) {
+		List<char[]> humps = new ArrayList<>();
+		int start = 0;
+		for (int i = 1, length = key.length; i <= length; i++) {
+			if (i == length || key[i] < 'a' || key[i] > 'z') {
+				humps.add(CharOperation.subarray(key, start, i));
+				start = i;
+			}
+		}
+		return humps.toArray(new char[humps.size()][]);
+	}
+
+	/**
+	 * Answers the slots of the words in which the given literal occurs (ignoring case) or may occur, in ascending
+	 * order, or <code>null</code> if it cannot be looked up.
+	 */
+	private int[] getCandidates(char[] literal) {
+		int length = literal.length;
+		if (length < 3 || CharOperation.indexOf(SEPARATOR, literal) != -1)
+			return null;
+		// words whose first part has all the trigrams of the literal
+		int[] slots = lookup(this.trigrams, literal);
+		// and words whose remaining part has the literal
+		int[] tailIndexes = lookup(this.tailTrigrams, literal);
+		boolean[] marks = null;
+		for (int tailIndex : tailIndexes) {
+			if (!contains(this.tails[tailIndex], literal))
+				continue;
+			if (slots.length == 0) {
+				slots = this.tailSlots[tailIndex];
+				continue;
+			}
+			if (marks == null) {
+				// merging the slots of many tails one by one would be quadratic
+				marks = new boolean[this.tableLength];
+				for (int slot : slots)
+					marks[slot] = true;
+			}
+			for (int slot : this.tailSlots[tailIndex])
+				marks[slot] = true;
+		}
+		if (marks == null)
+			return slots;
+		int count = 0;
+		for (boolean mark : marks)
+			if (mark) count++;
+		slots = new int[count];
+		count = 0;
+		for (int slot = 0; slot < marks.length; slot++)
+			if (marks[slot]) slots[count++] = slot;
+		return slots;
+	}
+
+	/**
+	 * Answers the ids posted for all the trigrams of the given literal, in ascending order.
+	 */
+	private static int[] lookup(Map<Long, int[]> postings, char[] literal) {
+		int[] ids = null;
+		for (int i = 0; i + 3 <= literal.length; i++) {
+			int[] trigramIds = postings.get(Long.valueOf(trigram(literal, i)));
+			if (trigramIds == null)
+				return NO_SLOTS;
+			ids = ids == null ? trigramIds : intersect(ids, trigramIds);
+			if (ids.length == 0)
+				break;
+		}
+		return ids;
+	}
+
+	private static boolean contains(char[] word, char[] literal) {
+		int length = literal.length;
+		next : for (int i = 0, max = word.length - length; i <= max; i++) {
+			for (int j = 0; j < length; j++) {
+				if (Character.toLowerCase(word[i + j]) != Character.toLowerCase(literal[j]))
+					continue next;
+			}
+			return true;
+		}
+		return false;
+	}
+
+	private static int[] intersect(int[] first, int[] second) {
+		int[] result = new int[Math.min(first.length, second.length)];
+		int count = 0;
+		for (int i = 0, j = 0; i < first.length && j < second.length;) {
+			if (first[i] < second[j]) {
+				i++;
+			} else if (first[i] > second[j]) {
+				j++;
+			} else {
+				result[count++] = first[i];
+				i++;
+				j++;
+			}
+		}
+		return count == result.length ? result : Arrays.copyOf(result, count);
+	}
+
+	private static int[] union(int[] first, int[] second) {
+		if (first.length == 0) return second;
+		if (second.length == 0) return first;
+		int[] result = new int[first.length + second.length];
+		int count = 0;
+		int i = 0, j = 0;
+		while (i < first.length && j < second.length) {
+			if (first[i] < second[j]) {
+				result[count++] = first[i++];
+			} else if (first[i] > second[j]) {
+				result[count++] = second[j++];
+			} else {
+				result[count++] = first[i++];
+				j++;
+			}
+		}
+		while (i < first.length)
+			result[count++] = first[i++];
+		while (j < second.length)
+			result[count++] = second[j++];
+		return count == result.length ? result : Arrays.copyOf(result, count);
+	}
+}
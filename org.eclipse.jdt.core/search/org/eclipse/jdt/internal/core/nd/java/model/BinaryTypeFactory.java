@@ -15,6 +15,9 @@ package org.eclipse.jdt.internal.core.nd.java.model;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -122,6 +125,33 @@ public class BinaryTypeFactory {
 		}
 	}
 
+	private static ClassFileReader readJarEntry(BinaryTypeDescriptor descriptor, boolean fullyInitialize,
+			boolean useInvalidArchiveCache) throws JavaModelException, ClassFormatException {
+		ZipFile zip = null;
+		try {
+			zip = JavaModelManager.getJavaModelManager().getZipFile(new Path(new String(descriptor.workspacePath)),
+					useInvalidArchiveCache);
+			char[] entryNameCharArray = CharArrayUtils.concat(
+					fieldDescriptorToBinaryName(descriptor.fieldDescriptor), SuffixConstants.SUFFIX_class);
+			String entryName = new String(entryNameCharArray);
+			ZipEntry ze = zip.getEntry(entryName);
+			if (ze != null) {
+				byte contents[];
+				try {
+					contents = org.eclipse.jdt.internal.compiler.util.Util.getZipEntryByteContent(ze, zip);
+				} catch (IOException ioe) {
+					throw new JavaModelException(ioe, IJavaModelStatusConstants.IO_EXCEPTION);
+				}
+				return new ClassFileReader(contents, descriptor.indexPath, fullyInitialize);
+			}
+		} catch (CoreException e) {
+			throw new JavaModelException(e);
+		} finally {
+			JavaModelManager.getJavaModelManager().closeZipFile(zip);
+		}
+		return null;
+	}
+
 	/**
 	 * Read the class file from disk, circumventing the index's cache. This should only be used by callers
 	 * that need to read information from the class file which aren't present in the index (such as method bodies).
@@ -138,28 +168,23 @@ public class BinaryTypeFactory {
 		}
 		if (descriptor.isInJarFile()) {
 			if (CharOperation.indexOf("jrt-fs.jar".toCharArray(), descriptor.location, false) == -1) { //$NON-NLS-1$
-				ZipFile zip = null;
-				try {
-					zip = JavaModelManager.getJavaModelManager().getZipFile(new Path(new String(descriptor.workspacePath)),
-							useInvalidArchiveCache);
-					char[] entryNameCharArray = CharArrayUtils.concat(
-							fieldDescriptorToBinaryName(descriptor.fieldDescriptor), SuffixConstants.SUFFIX_class);
-					String entryName = new String(entryNameCharArray);
-					ZipEntry ze = zip.getEntry(entryName);
-					if (ze != null) {
-						byte contents[];
-						try {
-							contents = org.eclipse.jdt.internal.compiler.util.Util.getZipEntryByteContent(ze, zip);
-						} catch (IOException ioe) {
-							throw new JavaModelException(ioe, IJavaModelStatusConstants.IO_EXCEPTION);
-						}
-						return new ClassFileReader(contents, descriptor.indexPath, fullyInitialize);
+				if (fullyInitialize) {
+					// fully initialized readers no longer change, so they can be shared
+					String archivePath = new String(descriptor.location);
+					BasicFileAttributes attributes = null;
+					try {
+						attributes = Files.readAttributes(java.nio.file.Path.of(archivePath), BasicFileAttributes.class);
+					} catch (IOException | InvalidPathException e) {
+						// not a file of the local file system, don't cache
+					}
+					if (attributes != null) {
+						return JavaModelManager.getBinaryTypeCache().getType(archivePath,
+								attributes.lastModifiedTime().toMillis(), attributes.size(),
+								new String(descriptor.indexPath), null,
+								() -> readJarEntry(descriptor, true, useInvalidArchiveCache));
 					}
-				} catch (CoreException e) {
-					throw new JavaModelException(e);
-				} finally {
-					JavaModelManager.getJavaModelManager().closeZipFile(zip);
 				}
+				return readJarEntry(descriptor, fullyInitialize, useInvalidArchiveCache);
 			}
 		} else {
 			IFile file = ResourcesPlugin.getWorkspace().getRoot().getFile(new Path(new String(descriptor.workspacePath)));
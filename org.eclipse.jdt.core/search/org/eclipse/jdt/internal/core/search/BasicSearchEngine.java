@@ -433,6 +433,31 @@ public class BasicSearchEngine {
 		return null;
 	}
 
+	/*
+	 * Answers the access restriction violated by the given type of an index, if any.
+	 */
+	static AccessRestriction getAccessRestriction(TypeDeclarationPattern record, AccessRuleSet access) {
+		if (access == null)
+			return null;
+		// Compute document relative path
+		int pkgLength = (record.pkg==null || record.pkg.length==0) ? 0 : record.pkg.length+1;
+		int nameLength = record.simpleName==null ? 0 : record.simpleName.length;
+		char[] path = new char[pkgLength+nameLength];
+		int pos = 0;
+		if (pkgLength > 0) {
+			System.arraycopy(record.pkg, 0, path, pos, pkgLength-1);
+			CharOperation.replace(path, '.', '/');
+			path[pkgLength-1] = '/';
+			pos += pkgLength;
+		}
+		if (nameLength > 0) {
+			System.arraycopy(record.simpleName, 0, path, pos, nameLength);
+			pos += nameLength;
+		}
+		// Update access restriction if path is not empty
+		return pos > 0 ? access.getViolatedRestriction(path) : null;
+	}
+
 	boolean match(char patternTypeSuffix, int modifiers) {
 		switch(patternTypeSuffix) {
 			case IIndexConstants.CLASS_SUFFIX :
@@ -1772,6 +1797,38 @@ public class BasicSearchEngine {
 		final IRestrictedAccessTypeRequestor nameRequestor,
 		int waitingPolicy,
 		IProgressMonitor progressMonitor)  throws JavaModelException {
+		searchAllTypeNames(
+				packageName,
+				packageMatchRule,
+				typeName,
+				typeMatchRule,
+				searchFor,
+				scope,
+				resolveDocumentName,
+				nameRequestor,
+				waitingPolicy,
+				progressMonitor,
+				null);
+	}
+
+	/**
+	 * Same as {@link #searchAllTypeNames(char[], int, char[], int, int, IJavaSearchScope, boolean, IRestrictedAccessTypeRequestor, int, IProgressMonitor)},
+	 * except that the types found in the indexes are remembered in the given cache, if any, and answered from it by
+	 * the next searches of the same types (or of a longer prefix) as long as the indexes don't change. The given
+	 * cache must only be used with the same scope.
+	 */
+	public void searchAllTypeNames(
+		final char[] packageName,
+		final int packageMatchRule,
+		final char[] typeName,
+		final int typeMatchRule,
+		int searchFor,
+		IJavaSearchScope scope,
+		final boolean resolveDocumentName,
+		final IRestrictedAccessTypeRequestor nameRequestor,
+		int waitingPolicy,
+		IProgressMonitor progressMonitor,
+		TypeNameCache typeNameCache)  throws JavaModelException {
 
 		try {
 			// Validate match rule first
@@ -1877,28 +1934,7 @@ public class BasicSearchEngine {
 					}
 
 					// Accept document path
-					AccessRestriction accessRestriction = null;
-					if (access != null) {
-						// Compute document relative path
-						int pkgLength = (record.pkg==null || record.pkg.length==0) ? 0 : record.pkg.length+1;
-						int nameLength = record.simpleName==null ? 0 : record.simpleName.length;
-						char[] path = new char[pkgLength+nameLength];
-						int pos = 0;
-						if (pkgLength > 0) {
-							System.arraycopy(record.pkg, 0, path, pos, pkgLength-1);
-							CharOperation.replace(path, '.', '/');
-							path[pkgLength-1] = '/';
-							pos += pkgLength;
-						}
-						if (nameLength > 0) {
-							System.arraycopy(record.simpleName, 0, path, pos, nameLength);
-							pos += nameLength;
-						}
-						// Update access restriction if path is not empty
-						if (pos > 0) {
-							accessRestriction = access.getViolatedRestriction(path);
-						}
-					}
+					AccessRestriction accessRestriction = getAccessRestriction(record, access);
 					if (match(record.typeSuffix, record.modifiers)) {
 						nameRequestor.acceptType(record.modifiers, record.pkg, record.simpleName, record.enclosingTypeNames, documentPath, accessRestriction);
 					}
@@ -1909,16 +1945,62 @@ public class BasicSearchEngine {
 			SubMonitor subMonitor = SubMonitor.convert(progressMonitor, Messages.engine_searching, 1000);
 
 			// add type names from indexes
-			indexManager.performConcurrentJob(
-				new PatternSearchJob(
-					pattern,
-					getDefaultSearchParticipant(), // Java search only
-					scope,
-					resolveDocumentName,
-					true,
-					searchRequestor),
-				waitingPolicy,
-				subMonitor.split(Math.max(1000-copiesLength, 0)));
+			if (typeNameCache != null && typeNameCache.isEnabled()
+					&& pattern.getClass() == TypeDeclarationPattern.class
+					&& indexManager.awaitingJobsCount() == 0) {
+				int indexGeneration = indexManager.getIndexGeneration();
+				TypeNameCache.Record[] records = typeNameCache.getRecords(pattern, resolveDocumentName, indexGeneration);
+				if (records == null) {
+					// record the types before filtering out the working copies, which can change without the indexes
+					List<TypeNameCache.Record> foundRecords = new ArrayList<>();
+					IndexQueryRequestor recordingRequestor = new IndexQueryRequestor() {
+						@Override
+						public boolean acceptIndexMatch(String documentPath, SearchPattern indexRecord, SearchParticipant participant, AccessRuleSet access) {
+							TypeDeclarationPattern record = (TypeDeclarationPattern)indexRecord;
+							if (record.enclosingTypeNames == IIndexConstants.ONE_ZERO_CHAR) {
+								return true; // filter out local and anonymous classes
+							}
+							if (match(record.typeSuffix, record.modifiers)) {
+								foundRecords.add(new TypeNameCache.Record(record, documentPath, getAccessRestriction(record, access)));
+							}
+							return true;
+						}
+					};
+					indexManager.performConcurrentJob(
+						new PatternSearchJob(
+							pattern,
+							getDefaultSearchParticipant(), // Java search only
+							scope,
+							resolveDocumentName,
+							true,
+							recordingRequestor),
+						waitingPolicy,
+						subMonitor.split(Math.max(1000-copiesLength, 0)));
+					records = foundRecords.toArray(new TypeNameCache.Record[foundRecords.size()]);
+					if (indexManager.awaitingJobsCount() == 0 && indexManager.getIndexGeneration() == indexGeneration)
+						typeNameCache.putRecords(pattern, resolveDocumentName, indexGeneration, records);
+				} else {
+					subMonitor.split(Math.max(1000-copiesLength, 0));
+				}
+				for (TypeNameCache.Record record : records) {
+					if (singleWkcpPath != null ? singleWkcpPath.equals(record.documentPath) : workingCopyPaths.contains(record.documentPath)) {
+						continue; // filter out working copies
+					}
+					TypeDeclarationPattern type = record.type;
+					nameRequestor.acceptType(type.modifiers, type.pkg, type.simpleName, type.enclosingTypeNames, record.documentPath, record.access);
+				}
+			} else {
+				indexManager.performConcurrentJob(
+					new PatternSearchJob(
+						pattern,
+						getDefaultSearchParticipant(), // Java search only
+						scope,
+						resolveDocumentName,
+						true,
+						searchRequestor),
+					waitingPolicy,
+					subMonitor.split(Math.max(1000-copiesLength, 0)));
+			}
 
 			// add type names from working copies
 			if (copies != null) {
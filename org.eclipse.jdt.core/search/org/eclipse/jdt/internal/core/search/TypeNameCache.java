@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.search;
+
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.core.compiler.CharOperation;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.internal.compiler.env.AccessRestriction;
+import org.eclipse.jdt.internal.core.search.matching.TypeDeclarationPattern;
+import org.eclipse.jdt.internal.core.util.ICacheEnumeration;
+import org.eclipse.jdt.internal.core.util.LRUCache;
+
+/**
+ * Cache of the types found in the indexes by the type name searches of a project, see
+ * {@link BasicSearchEngine#searchAllTypeNames(char[], int, char[], int, int, org.eclipse.jdt.core.search.IJavaSearchScope, boolean, org.eclipse.jdt.internal.core.search.IRestrictedAccessTypeRequestor, int, org.eclipse.core.runtime.IProgressMonitor, TypeNameCache)}.
+ * <p>
+ * Each completion request searches the types whose name starts with the prefix being typed, and the next request
+ * searches them again with a longer prefix. The cache keeps the index records answered by the last searches, before
+ * the working copies are filtered out (they are searched every time), and answers a search whose prefix extends a
+ * cached one by matching the cached records again: for prefix, camel case and substring matches, the types matching
+ * the longer prefix are among them. All the records are dropped as soon as an index changes (see
+ * {@link org.eclipse.jdt.internal.core.search.indexing.IndexManager#getIndexGeneration()}), and the cache is
+ * dropped with the other caches of its project when the classpath or the packages change. The number of cached
+ * searches is bounded (least recently used first) and the records are only softly reachable.
+ * </p>
+ */
+public class TypeNameCache {
+
+	public static final String SIZE_PROPERTY = "org.eclipse.jdt.core.typenamecache.size"; //$NON-NLS-1$
+	public static final int DEFAULT_SIZE = 10;
+
+	/**
+	 * A type found in an index, with the path of its document and its access restriction.
+	 */
+	static final class Record {
+		final TypeDeclarationPattern type;
+		final String documentPath;
+		final AccessRestriction access;
+
+		Record(TypeDeclarationPattern type, String documentPath, AccessRestriction access) {
+			this.type = type;
+			this.documentPath = documentPath;
+			this.access = access;
+		}
+	}
+
+	private static final class Key {
+		final char[] pkg;
+		final char[] simpleName;
+		final char typeSuffix;
+		final int matchRule;
+		final boolean resolveDocumentName;
+
+		Key(TypeDeclarationPattern pattern, boolean resolveDocumentName) {
+			this.pkg = pattern.pkg;
+			this.simpleName = pattern.simpleName == null ? CharOperation.NO_CHAR : pattern.simpleName;
+			this.typeSuffix = pattern.typeSuffix;
+			this.matchRule = pattern.getMatchRule();
+			this.resolveDocumentName = resolveDocumentName;
+		}
+
+		/**
+		 * Answers whether the types matching the given search are among the ones matching this search.
+		 */
+		boolean includes(Key other) {
+			return this.typeSuffix == other.typeSuffix
+					&& this.matchRule == other.matchRule
+					&& this.resolveDocumentName == other.resolveDocumentName
+					&& CharOperation.equals(this.pkg, other.pkg)
+					&& this.simpleName.length > 0 // an empty camel case pattern matches nothing
+					&& CharOperation.prefixEquals(this.simpleName, other.simpleName);
+		}
+
+		@Override
+		public int hashCode() {
+			return (CharOperation.hashCode(this.simpleName) * 31 + this.matchRule) * 31 + this.typeSuffix;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) return false;
+			Key other = (Key) obj;
+			return this.typeSuffix == other.typeSuffix
+					&& this.matchRule == other.matchRule
+					&& this.resolveDocumentName == other.resolveDocumentName
+					&& CharOperation.equals(this.pkg, other.pkg)
+					&& CharOperation.equals(this.simpleName, other.simpleName);
+		}
+	}
+
+	private final int maxSize;
+	private final LRUCache<Key, SoftReference<Record[]>> searches;
+	private int generation;
+
+	public TypeNameCache(int maxSize) {
+		this.maxSize = maxSize;
+		this.searches = new LRUCache<>(maxSize);
+	}
+
+	public boolean isEnabled() {
+		return this.maxSize > 0;
+	}
+
+	/**
+	 * Answers whether a name matching a pattern with the given rule also matches any prefix of the pattern, see
+	 * {@link SearchPattern#matchesName(char[], char[])}.
+	 */
+	private static boolean canNarrow(int matchRule) {
+		int narrowingModes = SearchPattern.R_PREFIX_MATCH | SearchPattern.R_CAMELCASE_MATCH | SearchPattern.R_SUBSTRING_MATCH;
+		int otherModes = SearchPattern.R_PATTERN_MATCH | SearchPattern.R_REGEXP_MATCH
+				| SearchPattern.R_CAMELCASE_SAME_PART_COUNT_MATCH | SearchPattern.R_SUBWORD_MATCH;
+		return (matchRule & narrowingModes) != 0 && (matchRule & otherModes) == 0;
+	}
+
+	/**
+	 * Answers the records of the indexes matching the given pattern if they are known for the given index generation,
+	 * or <code>null</code>.
+	 */
+	synchronized Record[] getRecords(TypeDeclarationPattern pattern, boolean resolveDocumentName, int indexGeneration) {
+		if (indexGeneration != this.generation) {
+			this.searches.flush();
+			this.generation = indexGeneration;
+			return null;
+		}
+		Key key = new Key(pattern, resolveDocumentName);
+		SoftReference<Record[]> reference = this.searches.get(key);
+		Record[] records = reference == null ? null : reference.get();
+		if (records != null)
+			return records;
+		if (canNarrow(key.matchRule)) {
+			Key including = null;
+			Record[] includingRecords = null;
+			for (ICacheEnumeration<Key, SoftReference<Record[]>> cachedKeys = this.searches.keysAndValues(); cachedKeys.hasMoreElements();) {
+				Key cached = cachedKeys.nextElement();
+				if (cached.includes(key) && (including == null || cached.simpleName.length > including.simpleName.length)) {
+					Record[] cachedRecords = cachedKeys.getValue().get();
+					if (cachedRecords != null) {
+						including = cached;
+						includingRecords = cachedRecords;
+					}
+				}
+			}
+			if (including != null) {
+				this.searches.get(including); // most recently used
+				List<Record> matches = new ArrayList<>();
+				for (Record record : includingRecords) {
+					if (pattern.matchesDecodedKey(record.type))
+						matches.add(record);
+				}
+				records = matches.toArray(new Record[matches.size()]);
+				this.searches.put(key, new SoftReference<>(records));
+				return records;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Remembers the records of the indexes matching the given pattern, which were found with the given index
+	 * generation.
+	 */
+	synchronized void putRecords(TypeDeclarationPattern pattern, boolean resolveDocumentName, int indexGeneration, Record[] records) {
+		if (indexGeneration != this.generation) {
+			this.searches.flush();
+			this.generation = indexGeneration;
+		}
+		this.searches.put(new Key(pattern, resolveDocumentName), new SoftReference<>(records));
+	}
+
+	public synchronized void flush() {
+		this.searches.flush();
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "TypeNameCache: " + this.searches.getCurrentSpace() + " searches"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
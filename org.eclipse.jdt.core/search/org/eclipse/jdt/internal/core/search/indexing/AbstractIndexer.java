@@ -254,6 +254,8 @@ public abstract class AbstractIndexer implements IIndexConstants {
 				packageName == null ? CharOperation.NO_CHAR : packageName);
 
 		addIndexEntry(TYPE_DECL, indexKey);
+		if (secondary)
+			addIndexEntry(SECONDARY_TYPE_DECL, indexKey); // so secondary types are found without reading all the types
 		if (enclosingTypeNames != null && enclosingTypeNames.length > 0) {
 			addIndexMetaQualification(
 					CharOperation.concat(packageName, '.', CharOperation.concatWith(enclosingTypeNames, '$'), '$',
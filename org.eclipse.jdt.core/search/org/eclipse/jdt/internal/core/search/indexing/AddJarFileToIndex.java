@@ -17,10 +17,15 @@ import static org.eclipse.jdt.internal.core.JavaModelManager.trace;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.nio.charset.Charset;
 import java.nio.file.NoSuchFileException;
+import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipError;
 import java.util.zip.ZipFile;
@@ -50,6 +55,10 @@ import org.eclipse.jdt.internal.core.search.processing.JobManager;
 class AddJarFileToIndex extends BinaryContainer {
 
 	private static final char JAR_SEPARATOR = IJavaSearchScope.JAR_FILE_ENTRY_SEPARATOR.charAt(0);
+	/** minimum number of jar entries to index the class files concurrently */
+	private static final int CONCURRENT_INDEXING_THRESHOLD = 1000;
+	/** number of class files indexed concurrently, before adding their entries to the index */
+	private static final int BATCH_SIZE = 512;
 	IFile resource;
 	private IndexLocation indexFileURL;
 	private final boolean forceIndexUpdate;
@@ -111,6 +120,10 @@ class AddJarFileToIndex extends BinaryContainer {
 				return true;
 			}
 
+			// external libraries may have been indexed by another workspace already
+			File sharedIndexFile = this.resource == null && !this.forceIndexUpdate ? this.manager.getSharedIndexFile(this.containerPath, this.containerPath.toFile()) : null;
+			boolean restored = sharedIndexFile != null && this.manager.restoreSharedIndex(this.containerPath, sharedIndexFile);
+
 			index = this.manager.getIndexForUpdate(this.containerPath, true, /*reuse index file*/ true /*create if none*/);
 			if (index == null) {
 				if (JobManager.VERBOSE)
@@ -209,6 +222,8 @@ class AddJarFileToIndex extends BinaryContainer {
 								+ zip.getName() + " (" //$NON-NLS-1$
 								+ (System.currentTimeMillis() - initialTime) + "ms)"); //$NON-NLS-1$
 							this.manager.saveIndex(index); // to ensure its placed into the saved state
+							if (restored)
+								this.manager.updateMetaIndex(index);
 							return true;
 						}
 					}
@@ -229,6 +244,9 @@ class AddJarFileToIndex extends BinaryContainer {
 					indexPath = indexLocation.getIndexPath();
 				}
 				boolean hasModuleInfoClass = false;
+				// big jars: read and index the class files on several threads, batch after batch
+				List<ZipEntry> batch = zip.size() >= CONCURRENT_INDEXING_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1
+						? new ArrayList<>(BATCH_SIZE) : null;
 				for (Enumeration<? extends ZipEntry> e = zip.entries(); e.hasMoreElements();) {
 					if (this.isCancelled) {
 						if (JobManager.VERBOSE)
@@ -243,11 +261,21 @@ class AddJarFileToIndex extends BinaryContainer {
 							isValidPackageNameForClassOrisModule(zipEntryName)) {
 						hasModuleInfoClass |= zipEntryName.contains(TypeConstants.MODULE_INFO_NAME_STRING);
 						// index only classes coming from valid packages - https://bugs.eclipse.org/bugs/show_bug.cgi?id=293861
+						if (batch != null) {
+							batch.add(ze);
+							if (batch.size() == BATCH_SIZE) {
+								indexConcurrently(batch, zip, zipFilePath, participant, index, indexPath);
+								batch.clear();
+							}
+							continue;
+						}
 						final byte[] classFileBytes = org.eclipse.jdt.internal.compiler.util.Util.getZipEntryByteContent(ze, zip);
 						JavaSearchDocument entryDocument = new JavaSearchDocument(ze, zipFilePath, classFileBytes, participant);
 						this.manager.indexDocument(entryDocument, participant, index, indexPath);
 					}
 				}
+				if (batch != null && !batch.isEmpty())
+					indexConcurrently(batch, zip, zipFilePath, participant, index, indexPath);
 				if (!hasModuleInfoClass) {
 					String s;
 					try {
@@ -270,6 +298,8 @@ class AddJarFileToIndex extends BinaryContainer {
 				}
 				else {
 					this.manager.saveIndex(index);
+					if (sharedIndexFile != null)
+						this.manager.publishSharedIndex(index, sharedIndexFile);
 				}
 				if (JobManager.VERBOSE)
 					trace("-> done indexing of " //$NON-NLS-1$
@@ -296,6 +326,31 @@ class AddJarFileToIndex extends BinaryContainer {
 		}
 		return true;
 	}
+	/**
+	 * Indexes the given class file entries on the common fork join pool, then adds their index entries to the index
+	 * in the order of the jar entries (an index cannot be updated concurrently).
+	 */
+	private void indexConcurrently(List<ZipEntry> entries, ZipFile zip, IPath zipFilePath, SearchParticipant participant,
+			Index index, IPath indexPath) throws IOException {
+		BufferedDocument[] documents = new BufferedDocument[entries.size()];
+		try {
+			IntStream.range(0, documents.length).parallel().forEach(i -> {
+				ZipEntry ze = entries.get(i);
+				try {
+					byte[] classFileBytes = org.eclipse.jdt.internal.compiler.util.Util.getZipEntryByteContent(ze, zip);
+					BufferedDocument entryDocument = new BufferedDocument(ze, zipFilePath, classFileBytes, participant);
+					participant.indexDocument(entryDocument, indexPath);
+					documents[i] = entryDocument;
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		for (BufferedDocument document : documents)
+			document.addIndexEntriesTo(index);
+	}
 	@Override
 	public String getJobFamily() {
 		if (this.resource != null)
@@ -322,4 +377,33 @@ class AddJarFileToIndex extends BinaryContainer {
 	protected boolean hasPreBuiltIndex() {
 		return !this.forceIndexUpdate && (this.indexFileURL != null && this.indexFileURL.exists());
 	}
+
+	/**
+	 * A class file document which keeps its index entries until they are added to the index.
+	 */
+	static class BufferedDocument extends JavaSearchDocument {
+		private char[][] categoriesAndKeys = new char[32][];
+		private int size;
+
+		BufferedDocument(ZipEntry zipEntry, IPath zipFilePath, byte[] contents, SearchParticipant participant) {
+			super(zipEntry, zipFilePath, contents, participant);
+		}
+		@Override
+		public void addIndexEntry(char[] category, char[] key) {
+			if (this.size + 2 > this.categoriesAndKeys.length)
+				System.arraycopy(this.categoriesAndKeys, 0, this.categoriesAndKeys = new char[this.size * 2][], 0, this.size);
+			this.categoriesAndKeys[this.size++] = category;
+			this.categoriesAndKeys[this.size++] = key;
+		}
+		@Override
+		public void removeAllIndexEntries() {
+			this.categoriesAndKeys = new char[32][];
+			this.size = 0;
+		}
+		void addIndexEntriesTo(Index index) {
+			String containerRelativePath = index.containerRelativePath(getPath());
+			for (int i = 0; i < this.size; i += 2)
+				index.addIndexEntry(this.categoriesAndKeys[i], this.categoriesAndKeys[i + 1], containerRelativePath);
+		}
+	}
 }
\ No newline at end of file
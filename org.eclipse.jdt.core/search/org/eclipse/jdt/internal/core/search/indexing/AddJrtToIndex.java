@@ -172,6 +172,15 @@ public class AddJrtToIndex extends BinaryContainer {
 				return true;
 			}
 
+			// the same JDK may have been indexed by another workspace already, the image file identifies its contents
+			File sharedIndexFile = null;
+			if (this.resource == null && !this.forceIndexUpdate) {
+				File jrt = this.containerPath.toFile();
+				File image = JRTUtil.JRT_FS_JAR.equals(jrt.getName()) ? new File(jrt.getParentFile(), "modules") : new File(jrt, "lib/modules"); //$NON-NLS-1$ //$NON-NLS-2$
+				sharedIndexFile = this.manager.getSharedIndexFile(this.containerPath, image);
+			}
+			boolean restored = sharedIndexFile != null && this.manager.restoreSharedIndex(this.containerPath, sharedIndexFile);
+
 			final Index index = this.manager.getIndexForUpdate(this.containerPath, true, /*reuse index file*/ true /*create if none*/);
 			if (index == null) {
 				if (JobManager.VERBOSE) {
@@ -257,6 +266,8 @@ public class AddJrtToIndex extends BinaryContainer {
 								+ fileName + " (" //$NON-NLS-1$
 								+ (System.currentTimeMillis() - initialTime) + "ms)"); //$NON-NLS-1$
 							this.manager.saveIndex(index); // to ensure its placed into the saved state
+							if (restored)
+								this.manager.updateMetaIndex(index);
 							return true;
 						}
 					}
@@ -279,6 +290,8 @@ public class AddJrtToIndex extends BinaryContainer {
 				}
 				else {
 					this.manager.saveIndex(index);
+					if (sharedIndexFile != null)
+						this.manager.publishSharedIndex(index, sharedIndexFile);
 				}
 				if (JobManager.VERBOSE)
 					trace("-> done indexing of " //$NON-NLS-1$
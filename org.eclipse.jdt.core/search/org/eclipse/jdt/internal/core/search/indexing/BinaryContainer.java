@@ -27,6 +27,12 @@ public abstract class BinaryContainer extends IndexRequest {
 		super(containerPath, manager);
 	}
 
+	@Override
+	public Object getConcurrencyKey() {
+		// only reads the library and writes its own index
+		return this.containerPath;
+	}
+
 	private boolean isIdentifier() throws InvalidInputException {
 		switch(this.scanner.scanIdentifier()) {
 			// assert and enum will not be recognized as java identifiers
@@ -24,6 +24,7 @@ public interface IIndexConstants {
 	char[] CONSTRUCTOR_REF= "constructorRef".toCharArray(); //$NON-NLS-1$
 	char[] SUPER_REF = "superRef".toCharArray(); //$NON-NLS-1$
 	char[] TYPE_DECL = "typeDecl".toCharArray(); //$NON-NLS-1$
+	char[] SECONDARY_TYPE_DECL = "secondaryTypeDecl".toCharArray(); //$NON-NLS-1$
 	char[] METHOD_DECL= "methodDecl".toCharArray(); //$NON-NLS-1$
 	char[] METHOD_DECL_PLUS= "methodDeclPlus".toCharArray(); //$NON-NLS-1$
 	char[] CONSTRUCTOR_DECL= "constructorDecl".toCharArray(); //$NON-NLS-1$
@@ -80,6 +80,7 @@ import org.eclipse.jdt.internal.core.index.MetaIndex;
 import org.eclipse.jdt.internal.core.search.BasicSearchEngine;
 import org.eclipse.jdt.internal.core.search.PatternSearchJob;
 import org.eclipse.jdt.internal.core.search.indexing.QualifierQuery.QueryCategory;
+import org.eclipse.jdt.internal.core.search.matching.SuperTypeReferenceCache;
 import org.eclipse.jdt.internal.core.search.processing.IJob;
 import org.eclipse.jdt.internal.core.search.processing.JobManager;
 import org.eclipse.jdt.internal.core.util.Messages;
@@ -148,6 +149,11 @@ public class IndexManager extends JobManager implements IIndexConstants {
 	public static final String MANAGE_PRODUCT_INDEXES_PROPERTY = "jdt.core.manageProductIndexes"; //$NON-NLS-1$
 	private static final boolean IS_MANAGING_PRODUCT_INDEXES_PROPERTY = Boolean.getBoolean(MANAGE_PRODUCT_INDEXES_PROPERTY);
 
+	// directory of library index files shared with other workspaces and processes, see SharedIndexStore
+	// (not to be confused with jdt.core.sharedIndexLocation, the location of pre-built indexes, see ClasspathEntry)
+	public static final String SHARED_INDEX_STORE_PROPERTY = "jdt.core.sharedIndexStore"; //$NON-NLS-1$
+	private static final SharedIndexStore SHARED_INDEX_STORE = SharedIndexStore.create(System.getProperty(SHARED_INDEX_STORE_PROPERTY));
+
 	// save indices after idling for time equal to this property (in ms)
 	public static final String INDEX_MANAGER_NOTIFY_IDLE_WAIT_PROPERTY = "jdt.core.indexManager.notifyIdleWait"; //$NON-NLS-1$
 	private static final long INDEX_MANAGER_NOTIFY_IDLE_WAIT = getNotifyIdleWait();
@@ -159,6 +165,11 @@ public class IndexManager extends JobManager implements IIndexConstants {
 	/** synchronized by metaIndexUpdates */
 	private final Set<Index> metaIndexUpdates;
 
+	private final SuperTypeReferenceCache superTypeReferenceCache = new SuperTypeReferenceCache(
+			Integer.getInteger(SuperTypeReferenceCache.SIZE_PROPERTY, SuperTypeReferenceCache.DEFAULT_SIZE).intValue());
+
+	private volatile int removedIndexesCount; // see getIndexGeneration()
+
 	public IndexManager() {
 		this.metaIndexUpdates = Collections.synchronizedSet(new LinkedHashSet<>());
 	}
@@ -227,6 +238,19 @@ public class IndexManager extends JobManager implements IIndexConstants {
 		}
 	}
 
+/**
+ * Answers the cache of the super type references found in the indexes, see {@link SuperTypeReferenceCache}.
+ */
+public SuperTypeReferenceCache getSuperTypeReferenceCache() {
+	return this.superTypeReferenceCache;
+}
+/**
+ * Answers a number which changes whenever entries are added to or removed from any index, or an index is removed,
+ * so that search results computed from the indexes can be reused as long as it is the same.
+ */
+public int getIndexGeneration() {
+	return Index.getAllModificationCount() + this.removedIndexesCount;
+}
 public synchronized void aboutToUpdateIndex(IPath containerPath, Integer newIndexState) {
 	// newIndexState is either UPDATING_STATE or REBUILDING_STATE
 	// must tag the index as inconsistent, in case we exit before the update job is started
@@ -547,6 +571,7 @@ public synchronized Index[] getIndexes(IndexLocation[] locations, IProgressMonit
 						indexFile.delete();
 					}
 					this.indexes.put(indexLocation, null);
+					this.removedIndexesCount++;
 					rebuildIndex(indexLocation, containerPath);
 					index = null;
 				}
@@ -791,6 +816,46 @@ synchronized boolean addIndex(IPath containerPath, IndexLocation indexFile) {
 	return true;
 }
 
+/**
+ * Answers the file of the shared index of the given container, whose contents are the given library file.
+ * Answers <code>null</code> if indexes are not shared or if the container already has an index file.
+ */
+File getSharedIndexFile(IPath containerPath, File library) {
+	if (SHARED_INDEX_STORE == null)
+		return null;
+	File indexFile = computeIndexLocation(containerPath).getIndexFile();
+	if (indexFile == null || indexFile.exists())
+		return null;
+	return SHARED_INDEX_STORE.getSharedFile(library); // not synchronized, reads the whole library
+}
+/**
+ * Copies the given shared index file into the index file of the given container, unless the container is
+ * already indexed. The file is copied without holding the lock of the manager, only its rename into the index
+ * file is done under the lock.
+ */
+boolean restoreSharedIndex(IPath containerPath, File sharedIndexFile) {
+	File indexFile = computeIndexLocation(containerPath).getIndexFile();
+	if (indexFile == null || indexFile.exists())
+		return false;
+	File copy = SHARED_INDEX_STORE.copy(sharedIndexFile, indexFile);
+	if (copy == null)
+		return false;
+	synchronized (this) {
+		if (indexFile.exists()) { // indexed meanwhile
+			copy.delete();
+			return false;
+		}
+		return SHARED_INDEX_STORE.install(copy, indexFile);
+	}
+}
+/**
+ * Shares the saved index file of the given index, see {@link #getSharedIndexFile(IPath, File)}.
+ */
+void publishSharedIndex(Index index, File sharedIndexFile) {
+	File indexFile = index.getIndexFile();
+	if (indexFile != null && indexFile.exists())
+		SHARED_INDEX_STORE.publish(sharedIndexFile, indexFile);
+}
 /**
  * Index the content of the given source folder.
  */
@@ -810,6 +875,7 @@ public synchronized void jobWasCancelled(IPath containerPath) {
 	if (index != null) {
 		index.monitor = null;
 		this.indexes.removeKey(indexLocation);
+		this.removedIndexesCount++;
 	}
 	updateIndexState(indexLocation, UNKNOWN_STATE);
 }
@@ -949,6 +1015,7 @@ public void removeIndex(IPath containerPath) {
 			indexFile.delete();
 		}
 		this.indexes.removeKey(indexLocation);
+		this.removedIndexesCount++;
 		if (IS_MANAGING_PRODUCT_INDEXES_PROPERTY) {
 			this.indexLocations.removeKey(containerPath);
 		}
@@ -1018,6 +1085,7 @@ public void removeIndexPath(IPath path) {
 		if (locations != null) {
 			for (int i = 0; i < count; i++)
 				this.indexes.removeKey(locations[i]);
+			this.removedIndexesCount++;
 			removeIndexesState(locations);
 			if (this.participantsContainers != null) {
 				boolean update = false;
@@ -1082,6 +1150,7 @@ public void reset() {
 		if (this.indexes != null) {
 			this.indexes = new SimpleLookupTable();
 			this.indexStates = null;
+			this.removedIndexesCount++;
 		}
 		this.indexLocations = new SimpleLookupTable();
 		this.javaPluginLocation = null;
@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.search.indexing;
+
+import static org.eclipse.jdt.internal.core.JavaModelManager.trace;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.eclipse.jdt.internal.core.index.DiskIndex;
+import org.eclipse.jdt.internal.core.search.processing.JobManager;
+import org.eclipse.jdt.internal.core.util.Util;
+
+/**
+ * Index files of external libraries shared by all the workspaces (and processes) configured to use the same
+ * directory, see {@link IndexManager#SHARED_INDEX_STORE_PROPERTY}.
+ * <p>
+ * A shared index file is named after a digest of the library name and contents and of the {@link DiskIndex#SIGNATURE}
+ * so it never needs to be updated: a changed library or a new index format simply uses another file. Files are
+ * written to a temporary file first and then atomically renamed, and writers hold a lock on the directory, so readers
+ * only ever see complete index files.
+ * </p>
+ */
+public class SharedIndexStore {
+
+	private static final String INDEX_EXT = ".index"; //$NON-NLS-1$
+	private static final String LOCK_FILE_NAME = ".lock"; //$NON-NLS-1$
+
+	private final File directory;
+
+	public SharedIndexStore(File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Answers the store in the given directory or <code>null</code> if no directory is given.
+	 */
+	static SharedIndexStore create(String directory) {
+		if (directory == null || directory.isBlank())
+			return null;
+		return new SharedIndexStore(new File(directory.trim()));
+	}
+
+	/**
+	 * Answers the file of the shared index of the given library (which may not exist yet), or <code>null</code> if
+	 * the library cannot be shared.
+	 */
+	public File getSharedFile(File library) {
+		if (!library.isFile())
+			return null;
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256"); //$NON-NLS-1$
+			digest.update(DiskIndex.SIGNATURE.getBytes(StandardCharsets.UTF_8));
+			// the name matters too, it may define the automatic module name
+			digest.update(library.getName().getBytes(StandardCharsets.UTF_8));
+			byte[] buffer = new byte[8192];
+			try (InputStream stream = Files.newInputStream(library.toPath())) {
+				int read;
+				while ((read = stream.read(buffer)) != -1)
+					digest.update(buffer, 0, read);
+			}
+			StringBuilder name = new StringBuilder(64 + INDEX_EXT.length());
+			for (byte b : digest.digest())
+				name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+			return new File(this.directory, name.append(INDEX_EXT).toString());
+		} catch (IOException | NoSuchAlgorithmException e) {
+			if (JobManager.VERBOSE)
+				trace("-> cannot share the index of " + library, e); //$NON-NLS-1$
+			return null;
+		}
+	}
+
+	/**
+	 * Copies the given shared index file into the given index file.
+	 *
+	 * @return whether the shared index file existed
+	 */
+	public boolean restore(File sharedFile, File indexFile) {
+		File copy = copy(sharedFile, indexFile);
+		return copy != null && install(copy, indexFile);
+	}
+
+	/**
+	 * Copies the given shared index file into a temporary file next to the given index file, see
+	 * {@link #install(File, File)}.
+	 *
+	 * @return the copy, or <code>null</code> if the shared index file doesn't exist or cannot be copied
+	 */
+	public File copy(File sharedFile, File indexFile) {
+		if (!sharedFile.isFile())
+			return null;
+		File tmpFile = null;
+		try {
+			File parent = indexFile.getParentFile();
+			if (parent != null)
+				parent.mkdirs();
+			// unique, several containers may be restored at the same time
+			tmpFile = File.createTempFile(indexFile.getName(), ".tmp", parent); //$NON-NLS-1$
+			Files.copy(sharedFile.toPath(), tmpFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			if (JobManager.VERBOSE)
+				trace("-> copied shared index " + sharedFile + " into " + tmpFile); //$NON-NLS-1$ //$NON-NLS-2$
+			return tmpFile;
+		} catch (IOException e) {
+			if (JobManager.VERBOSE)
+				trace("-> failed to copy shared index " + sharedFile, e); //$NON-NLS-1$
+			if (tmpFile != null)
+				tmpFile.delete();
+			return null;
+		}
+	}
+
+	/**
+	 * Renames the given copy of a shared index file to the given index file, or deletes the copy if it cannot be
+	 * renamed.
+	 *
+	 * @return whether the index file was installed
+	 */
+	public boolean install(File copy, File indexFile) {
+		try {
+			Files.move(copy.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			if (JobManager.VERBOSE)
+				trace("-> restored shared index into " + indexFile); //$NON-NLS-1$
+			return true;
+		} catch (IOException e) {
+			if (JobManager.VERBOSE)
+				trace("-> failed to restore shared index into " + indexFile, e); //$NON-NLS-1$
+			copy.delete();
+			return false;
+		}
+	}
+
+	/**
+	 * Copies the given index file into the given shared index file, unless another workspace did it already.
+	 */
+	public void publish(File sharedFile, File indexFile) {
+		if (sharedFile.isFile())
+			return;
+		try {
+			this.directory.mkdirs();
+			// the channel lock is held by the whole JVM, so threads of this process must not overlap
+			synchronized (this) {
+				try (FileChannel channel = FileChannel.open(new File(this.directory, LOCK_FILE_NAME).toPath(),
+								StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+						FileLock lock = channel.lock()) {
+					if (sharedFile.isFile())
+						return; // published by another process meanwhile
+					File tmpFile = File.createTempFile(sharedFile.getName(), ".tmp", this.directory); //$NON-NLS-1$
+					try {
+						Files.copy(indexFile.toPath(), tmpFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+						Files.move(tmpFile.toPath(), sharedFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+					} finally {
+						Files.deleteIfExists(tmpFile.toPath());
+					}
+				}
+			}
+			if (JobManager.VERBOSE)
+				trace("-> published shared index " + sharedFile + " from " + indexFile); //$NON-NLS-1$ //$NON-NLS-2$
+		} catch (IOException e) {
+			Util.log(e, "Failed to publish shared index " + sharedFile); //$NON-NLS-1$
+		}
+	}
+}
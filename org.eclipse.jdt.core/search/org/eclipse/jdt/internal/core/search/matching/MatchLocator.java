@@ -932,6 +932,12 @@ protected IType getFocusType() {
 	return this.scope instanceof HierarchyScope ? ((HierarchyScope) this.scope).focusType : null;
 }
 protected void getMethodBodies(CompilationUnitDeclaration unit, MatchingNodeSet nodeSet) {
+	getMethodBodies(this.parser, unit, nodeSet);
+}
+/*
+ * Parse the method bodies of the given unit with the given parser, see PossibleMatchParser.
+ */
+static void getMethodBodies(MatchLocatorParser parser, CompilationUnitDeclaration unit, MatchingNodeSet nodeSet) {
 	if (unit.ignoreMethodBodies) {
 		unit.ignoreFurtherInvestigation = true;
 		return; // if initial diet parse did not work, no need to dig into method bodies.
@@ -939,25 +945,25 @@ protected void getMethodBodies(CompilationUnitDeclaration unit, MatchingNodeSet
 
 	// save existing values to restore them at the end of the parsing process
 	// see bug 47079 for more details
-	int[] oldLineEnds = this.parser.scanner.lineEnds;
-	int oldLinePtr = this.parser.scanner.linePtr;
+	int[] oldLineEnds = parser.scanner.lineEnds;
+	int oldLinePtr = parser.scanner.linePtr;
 
 	try {
 		CompilationResult compilationResult = unit.compilationResult;
-		this.parser.scanner.setSource(compilationResult);
+		parser.scanner.setSource(compilationResult);
 
-		if (this.parser.javadocParser.checkDocComment) {
+		if (parser.javadocParser.checkDocComment) {
 			char[] contents = compilationResult.compilationUnit.getContents();
-			this.parser.javadocParser.scanner.setSource(contents);
+			parser.javadocParser.scanner.setSource(contents);
 		}
-		this.parser.nodeSet = nodeSet;
-		this.parser.parseBodies(unit);
+		parser.nodeSet = nodeSet;
+		parser.parseBodies(unit);
 	} finally {
-		this.parser.nodeSet = null;
+		parser.nodeSet = null;
 		// this is done to prevent any side effects on the compilation unit result
 		// line separator positions array.
-		this.parser.scanner.lineEnds = oldLineEnds;
-		this.parser.scanner.linePtr = oldLinePtr;
+		parser.scanner.lineEnds = oldLineEnds;
+		parser.scanner.linePtr = oldLinePtr;
 	}
 }
 protected TypeBinding getType(Object typeKey, char[] typeName) {
@@ -1294,12 +1300,15 @@ protected void locateMatches(JavaProject javaProject, PossibleMatch[] possibleMa
 	boolean mustResolve = mustResolvePattern;
 	this.patternLocator.mayBeGeneric = this.options.sourceLevel >= ClassFileConstants.JDK1_5;
 	boolean bindingsWereCreated = mustResolve;
+	// parse on worker threads if configured so, building the bindings stays on this thread
+	PossibleMatchParser possibleMatchParser = PossibleMatchParser.parse(this, possibleMatches, start, length);
 	try {
 		for (int i = start, maxUnits = start + length; i < maxUnits; i++) {
 			PossibleMatch possibleMatch = possibleMatches[i];
 			if (skipMatch(javaProject, possibleMatch)) continue;
 			try {
-				if (!parseAndBuildBindings(possibleMatch, mustResolvePattern)) continue;
+				CompilationUnitDeclaration parsedUnit = possibleMatchParser == null ? null : possibleMatchParser.takeParsedUnit(i, possibleMatch);
+				if (!parseAndBuildBindings(possibleMatch, mustResolvePattern, parsedUnit)) continue;
 				// Currently we only need to resolve over pattern flag if there's potential parameterized types
 				if (this.patternLocator.mayBeGeneric) {
 					// If pattern does not resolve then rely on possible match node set resolution
@@ -1932,17 +1941,26 @@ public ModuleReferenceMatch newModuleReferenceMatch(
  *  ->  build compilation unit declarations, their bindings and record their results.
  */
 protected boolean parseAndBuildBindings(PossibleMatch possibleMatch, boolean mustResolve) throws CoreException {
+	return parseAndBuildBindings(possibleMatch, mustResolve, null);
+}
+/*
+ * Same as above, but with the unit already parsed (method bodies included) by a PossibleMatchParser, if any.
+ */
+private boolean parseAndBuildBindings(PossibleMatch possibleMatch, boolean mustResolve, CompilationUnitDeclaration preparsedUnit) throws CoreException {
 	if (this.progressMonitor != null && this.progressMonitor.isCanceled())
 		throw new OperationCanceledException();
 
 	try {
-		if (BasicSearchEngine.VERBOSE) {
-			trace("Parsing " + possibleMatch.openable.toStringWithAncestors()); //$NON-NLS-1$
-		}
+		CompilationUnitDeclaration parsedUnit = preparsedUnit;
+		if (parsedUnit == null) {
+			if (BasicSearchEngine.VERBOSE) {
+				trace("Parsing " + possibleMatch.openable.toStringWithAncestors()); //$NON-NLS-1$
+			}
 
-		this.parser.nodeSet = possibleMatch.nodeSet;
-		CompilationResult unitResult = new CompilationResult(possibleMatch, 1, 1, this.options.maxProblemsPerUnit);
-		CompilationUnitDeclaration parsedUnit = this.parser.dietParse(possibleMatch, unitResult);
+			this.parser.nodeSet = possibleMatch.nodeSet;
+			CompilationResult unitResult = new CompilationResult(possibleMatch, 1, 1, this.options.maxProblemsPerUnit);
+			parsedUnit = this.parser.dietParse(possibleMatch, unitResult);
+		}
 		if (parsedUnit != null) {
 			if (parsedUnit.isModuleInfo()) {
 				if (mustResolve) {
@@ -1953,7 +1971,8 @@ protected boolean parseAndBuildBindings(PossibleMatch possibleMatch, boolean mus
 					this.lookupEnvironment.buildTypeBindings(parsedUnit, null /*no access restriction*/);
 				}
 				if (hasAlreadyDefinedType(parsedUnit)) return false; // skip type has it is hidden so not visible
-				getMethodBodies(parsedUnit, possibleMatch.nodeSet);
+				if (preparsedUnit == null)
+					getMethodBodies(parsedUnit, possibleMatch.nodeSet);
 				if (this.patternLocator.mayBeGeneric && !mustResolve && possibleMatch.nodeSet.mustResolve) {
 					// special case: possible match node set force resolution although pattern does not
 					// => we need to build types for this compilation unit
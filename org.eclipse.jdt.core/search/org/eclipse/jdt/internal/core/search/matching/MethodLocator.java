@@ -19,6 +19,7 @@ package org.eclipse.jdt.internal.core.search.matching;
 import static org.eclipse.jdt.internal.core.JavaModelManager.trace;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -50,8 +51,8 @@ public char[][][] allSuperDeclaringTypeNames;
 private char[][][] samePkgSuperDeclaringTypeNames;
 
 private MatchLocator matchLocator;
-//method declarations which parameters verification fail
-private Map<ASTNode, Boolean> methodDeclarationsWithInvalidParam = new HashMap<>();
+//method declarations which parameters verification fail (also added to while parsing, see PossibleMatchParser)
+private Map<ASTNode, Boolean> methodDeclarationsWithInvalidParam = Collections.synchronizedMap(new HashMap<>());
 
 
 public MethodLocator(MethodPattern pattern) {
@@ -65,7 +66,7 @@ public MethodLocator(MethodPattern pattern) {
  */
 @Override
 protected void clear() {
-	this.methodDeclarationsWithInvalidParam = new HashMap<>();
+	this.methodDeclarationsWithInvalidParam = Collections.synchronizedMap(new HashMap<>());
 }
 @Override
 protected int fineGrain() {
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.search.matching;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.internal.compiler.CompilationResult;
+import org.eclipse.jdt.internal.compiler.DefaultErrorHandlingPolicies;
+import org.eclipse.jdt.internal.compiler.ast.CompilationUnitDeclaration;
+import org.eclipse.jdt.internal.compiler.problem.DefaultProblemFactory;
+import org.eclipse.jdt.internal.compiler.problem.ProblemReporter;
+import org.eclipse.jdt.internal.core.CompilationUnit;
+import org.eclipse.jdt.internal.core.util.ParallelWorkers;
+
+/**
+ * Parses a batch of possible matches ahead of the match locator, see
+ * {@link MatchLocator#locateMatches(org.eclipse.jdt.internal.core.JavaProject, PossibleMatch[], int, int)}.
+ * <p>
+ * Each worker takes the next possible match of the batch, reads its source and parses it, method bodies included,
+ * with a {@link MatchLocatorParser} of its own which puts the nodes the pattern may match in a fresh
+ * {@link MatchingNodeSet}. The locator then takes the parsed units back one at a time with
+ * {@link #takeParsedUnit(int, PossibleMatch)} and resolves them as usual, so the matches are still reported in the
+ * order of the possible matches. Class files take their source from the source mapper of their root, and working
+ * copies and automatic modules need the state of the locator, so they are parsed by the locator itself, like any
+ * unit a worker failed to parse.
+ * </p>
+ */
+final class PossibleMatchParser {
+	/** number of threads parsing the possible matches of a project, see {@link ParallelWorkers#getThreadCount(String)} **/
+	public static final String THREAD_COUNT_PROPERTY = "jdt.search.parseThreads"; //$NON-NLS-1$
+
+	/** number of possible matches per additional thread, a smaller batch doesn't pay for the threads **/
+	static final int MIN_POSSIBLE_MATCHES = 20;
+
+	private final int start;
+	private final PossibleMatch[] possibleMatches; // the parsed ones
+	private final CompilationUnitDeclaration[] parsedUnits;
+	private final MatchingNodeSet[] nodeSets;
+
+	private PossibleMatchParser(int start, int length) {
+		this.start = start;
+		this.possibleMatches = new PossibleMatch[length];
+		this.parsedUnits = new CompilationUnitDeclaration[length];
+		this.nodeSets = new MatchingNodeSet[length];
+	}
+
+	/**
+	 * Parses the given possible matches in parallel if configured so and if there are enough of them.
+	 * The locator must be initialized for their project.
+	 *
+	 * @return the parsed possible matches, or <code>null</code> if the caller must parse them itself
+	 * @throws OperationCanceledException if the monitor is canceled while parsing
+	 */
+	static PossibleMatchParser parse(MatchLocator locator, PossibleMatch[] possibleMatches, int start, int length) {
+		int threadCount = Math.min(ParallelWorkers.getThreadCount(THREAD_COUNT_PROPERTY), length / MIN_POSSIBLE_MATCHES + 1);
+		if (threadCount < 2)
+			return null;
+
+		PossibleMatchParser parser = new PossibleMatchParser(start, length);
+		AtomicInteger next = new AtomicInteger();
+		AtomicBoolean canceled = new AtomicBoolean();
+		Runnable[] workers = new Runnable[threadCount];
+		for (int i = 0; i < threadCount; i++) {
+			// the locator's problem reporter remembers the unit it reports on, each worker needs its own
+			ProblemReporter problemReporter = new ProblemReporter(
+					DefaultErrorHandlingPolicies.proceedWithAllProblems(),
+					locator.options,
+					new DefaultProblemFactory());
+			MatchLocatorParser matchLocatorParser = MatchLocatorParser.createParser(problemReporter, locator);
+			workers[i] = () -> parser.parseUnits(locator, matchLocatorParser, possibleMatches, next, canceled);
+		}
+		IProgressMonitor monitor = locator.progressMonitor;
+		ParallelWorkers.run(workers,
+				() -> {
+					if (monitor != null && monitor.isCanceled())
+						canceled.set(true); // the workers stop after their current unit
+				},
+				() -> canceled.set(true));
+		if (canceled.get())
+			throw new OperationCanceledException();
+		return parser;
+	}
+
+	private void parseUnits(MatchLocator locator, MatchLocatorParser parser, PossibleMatch[] allPossibleMatches, AtomicInteger next, AtomicBoolean canceled) {
+		int length = this.parsedUnits.length;
+		int i;
+		while (!canceled.get() && (i = next.getAndIncrement()) < length) {
+			PossibleMatch possibleMatch = allPossibleMatches[this.start + i];
+			if (!(possibleMatch.openable instanceof CompilationUnit)
+					|| possibleMatch.document instanceof MatchLocator.WorkingCopyDocument
+					|| possibleMatch.autoModuleName != null)
+				continue;
+			// the nodes are collected in a set of their own, so a failed parse leaves the possible match untouched
+			MatchingNodeSet nodeSet = new MatchingNodeSet(possibleMatch.nodeSet.mustResolve);
+			try {
+				parser.nodeSet = nodeSet;
+				CompilationResult unitResult = new CompilationResult(possibleMatch, 1, 1, locator.options.maxProblemsPerUnit);
+				CompilationUnitDeclaration parsedUnit = parser.dietParse(possibleMatch, unitResult);
+				if (parsedUnit == null)
+					continue;
+				if (!parsedUnit.isModuleInfo() && !parsedUnit.isEmpty())
+					MatchLocator.getMethodBodies(parser, parsedUnit, nodeSet);
+				this.possibleMatches[i] = possibleMatch;
+				this.parsedUnits[i] = parsedUnit;
+				this.nodeSets[i] = nodeSet;
+			} catch (RuntimeException e) {
+				// left to the calling thread
+			} finally {
+				parser.nodeSet = null;
+			}
+		}
+	}
+
+	/**
+	 * Answers the unit parsed for the given possible match at the given index, method bodies included, and gives
+	 * the possible match the nodes found while parsing it. Answers <code>null</code> if it was not parsed, e.g. if
+	 * it is a similar match which replaced the one at this index.
+	 */
+	CompilationUnitDeclaration takeParsedUnit(int index, PossibleMatch possibleMatch) {
+		int i = index - this.start;
+		if (this.possibleMatches[i] != possibleMatch)
+			return null;
+		CompilationUnitDeclaration parsedUnit = this.parsedUnits[i];
+		possibleMatch.nodeSet = this.nodeSets[i];
+		this.possibleMatches[i] = null;
+		this.parsedUnits[i] = null;
+		this.nodeSets[i] = null;
+		return parsedUnit;
+	}
+}
@@ -22,7 +22,7 @@ import org.eclipse.jdt.internal.core.search.indexing.IIndexConstants;
 
 public class SecondaryTypeDeclarationPattern extends TypeDeclarationPattern {
 
-	private final static char[] SECONDARY_PATTERN_KEY = "*/S".toCharArray(); //$NON-NLS-1$
+	private final static char[][] SECONDARY_CATEGORIES = { SECONDARY_TYPE_DECL };
 
 public SecondaryTypeDeclarationPattern() {
 	super(null, null, null, IIndexConstants.SECONDARY_SUFFIX, R_EXACT_MATCH | R_CASE_SENSITIVE);
@@ -42,9 +42,15 @@ protected StringBuilder print(StringBuilder output) {
 	return super.print(output);
 }
 
+@Override
+public char[][] getIndexCategories() {
+	return SECONDARY_CATEGORIES;
+}
+
 @Override
 public EntryResult[] queryIn(Index index) throws IOException {
-	return index.query(CATEGORIES, SECONDARY_PATTERN_KEY, R_PATTERN_MATCH | R_CASE_SENSITIVE);
+	// the category only holds secondary types, so all its entries match
+	return index.query(SECONDARY_CATEGORIES, null, R_EXACT_MATCH | R_CASE_SENSITIVE);
 }
 
 }
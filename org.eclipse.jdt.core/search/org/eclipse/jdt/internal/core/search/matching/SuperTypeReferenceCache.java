@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2024 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.jdt.internal.core.search.matching;
+
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+import org.eclipse.jdt.internal.core.index.EntryResult;
+import org.eclipse.jdt.internal.core.index.Index;
+import org.eclipse.jdt.internal.core.util.LRUCache;
+
+/**
+ * Workspace-wide cache of the decoded super type references found in the indexes, i.e. of the subtype edges a
+ * type hierarchy is computed from, see {@link org.eclipse.jdt.internal.core.search.indexing.IndexManager#getSuperTypeReferenceCache()}.
+ * <p>
+ * A type hierarchy queries the indexes once per type of the hierarchy, and an edit used to redo all these queries,
+ * although most of them were answered by the indexes of archives which didn't change. The cache keeps the answers
+ * of each index per queried super type name, before they are filtered by the pattern and the scope, and drops the
+ * answers of an index as soon as entries are added to or removed from it (see {@link Index#getModificationCount()}),
+ * so only the queries of the indexes that actually changed are redone. The number of cached queries per index is
+ * bounded (least recently used first) and the answers are only softly reachable.
+ * </p>
+ */
+public class SuperTypeReferenceCache {
+
+	public static final String SIZE_PROPERTY = "org.eclipse.jdt.core.supertypereferencecache.size"; //$NON-NLS-1$
+	public static final int DEFAULT_SIZE = 2_000;
+
+	/**
+	 * The decoded index entries answered by a query, with the container relative paths of their documents.
+	 */
+	static final class References {
+		final SuperTypeReferencePattern[] records;
+		final String[][] documentNames;
+
+		References(SuperTypeReferencePattern[] records, String[][] documentNames) {
+			this.records = records;
+			this.documentNames = documentNames;
+		}
+	}
+
+	static final References NO_REFERENCES = new References(new SuperTypeReferencePattern[0], new String[0][]);
+
+	private static final class Key {
+		final String superSimpleName; // null to query all the references
+		final int matchRule;
+
+		Key(char[] superSimpleName, int matchRule) {
+			this.superSimpleName = superSimpleName == null ? null : new String(superSimpleName);
+			this.matchRule = matchRule;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(this.superSimpleName) * 31 + this.matchRule;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) return false;
+			Key other = (Key) obj;
+			return this.matchRule == other.matchRule && Objects.equals(this.superSimpleName, other.superSimpleName);
+		}
+	}
+
+	/**
+	 * The cached queries of an index, valid as long as the index has the same modification count.
+	 */
+	private static final class IndexQueries extends LRUCache<Key, SoftReference<References>> {
+		final int modificationCount;
+
+		IndexQueries(int maxSize, int modificationCount) {
+			super(maxSize);
+			this.modificationCount = modificationCount;
+		}
+	}
+
+	private final int maxSize;
+	private final Map<Index, IndexQueries> indexes = new WeakHashMap<>(); // indexes don't override equals()
+
+	public SuperTypeReferenceCache(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	public boolean isEnabled() {
+		return this.maxSize > 0;
+	}
+
+	/**
+	 * Answers the super type references of the given index which the given pattern queries, see
+	 * {@link SuperTypeReferencePattern#queryIn(Index)}. The caller must hold the read lock of the index.
+	 */
+	References getReferences(Index index, SuperTypeReferencePattern pattern) throws IOException {
+		Key key = new Key(pattern.superSimpleName, pattern.getMatchRule());
+		int modificationCount = index.getModificationCount();
+		synchronized (this) {
+			IndexQueries queries = this.indexes.get(index);
+			if (queries != null && queries.modificationCount == modificationCount) {
+				SoftReference<References> reference = queries.get(key);
+				References references = reference == null ? null : reference.get();
+				if (references != null)
+					return references;
+			}
+		}
+		// query outside of the lock, concurrent queries of the same name are harmless
+		References references = read(index, pattern);
+		synchronized (this) {
+			if (index.getModificationCount() != modificationCount)
+				return references; // changed meanwhile, the next query will tell
+			IndexQueries queries = this.indexes.get(index);
+			if (queries == null || queries.modificationCount != modificationCount)
+				this.indexes.put(index, queries = new IndexQueries(this.maxSize, modificationCount));
+			queries.put(key, new SoftReference<>(references));
+		}
+		return references;
+	}
+
+	private static References read(Index index, SuperTypeReferencePattern pattern) throws IOException {
+		try {
+			index.startQuery();
+			EntryResult[] entries = pattern.queryIn(index);
+			if (entries == null)
+				return NO_REFERENCES;
+			SuperTypeReferencePattern[] records = new SuperTypeReferencePattern[entries.length];
+			String[][] documentNames = new String[entries.length][];
+			for (int i = 0; i < entries.length; i++) {
+				SuperTypeReferencePattern record = (SuperTypeReferencePattern) pattern.getBlankPattern();
+				record.decodeIndexKey(entries[i].getWord());
+				records[i] = record;
+				documentNames[i] = entries[i].getDocumentNames(index);
+			}
+			return new References(records, documentNames);
+		} finally {
+			index.stopQuery();
+		}
+	}
+
+	public synchronized void flush() {
+		this.indexes.clear();
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "SuperTypeReferenceCache: " + this.indexes.size() + " indexes"; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
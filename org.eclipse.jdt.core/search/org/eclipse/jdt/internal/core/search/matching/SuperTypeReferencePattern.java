@@ -15,9 +15,14 @@ package org.eclipse.jdt.internal.core.search.matching;
 
 import java.io.IOException;
 
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.compiler.*;
 import org.eclipse.jdt.core.search.*;
+import org.eclipse.jdt.internal.core.JavaModelManager;
 import org.eclipse.jdt.internal.core.index.*;
+import org.eclipse.jdt.internal.core.search.IndexQueryRequestor;
+import org.eclipse.jdt.internal.core.search.indexing.IndexManager;
 
 public class SuperTypeReferencePattern extends JavaSearchPattern {
 
@@ -226,6 +231,32 @@ public void decodeIndexKey(char[] key) {
 	this.classOrInterface = key[slash + 2];
 	this.modifiers = key[slash + 3]; // implicit cast to int type
 }
+/*
+ * Same as the inherited implementation, but the decoded index entries are taken from the
+ * SuperTypeReferenceCache, so that type hierarchies don't query the unchanged indexes again.
+ */
+@Override
+public void findIndexMatches(Index index, IndexQueryRequestor requestor, SearchParticipant participant, IJavaSearchScope scope, boolean resolveDocumentName, IProgressMonitor monitor) throws IOException {
+	IndexManager indexManager = JavaModelManager.getIndexManager();
+	SuperTypeReferenceCache cache = indexManager == null ? null : indexManager.getSuperTypeReferenceCache();
+	if (cache == null || !cache.isEnabled() || !resolveDocumentName) {
+		super.findIndexMatches(index, requestor, participant, scope, resolveDocumentName, monitor);
+		return;
+	}
+	if (monitor != null && monitor.isCanceled()) throw new OperationCanceledException();
+	SuperTypeReferenceCache.References references = cache.getReferences(index, this);
+	String containerPath = index.containerPath;
+	char separator = index.separator;
+	for (int i = 0, length = references.records.length; i < length; i++) {
+		if (monitor != null && monitor.isCanceled()) throw new OperationCanceledException();
+
+		SuperTypeReferencePattern record = references.records[i];
+		if (matchesDecodedKey(record)) {
+			for (String name : references.documentNames[i])
+				acceptMatch(name, containerPath, separator, record, requestor, participant, scope, monitor);
+		}
+	}
+}
 @Override
 public SearchPattern getBlankPattern() {
 	return new SuperTypeReferencePattern(R_EXACT_MATCH | R_CASE_SENSITIVE);
@@ -58,4 +58,15 @@ public interface IJob {
 	public default boolean waitNeeded() {
 		return false;
 	}
+
+	/**
+	 * Answers the key of the data (typically an index) this job exclusively works on, if it may be executed
+	 * concurrently with following jobs that have different keys. Default implementation returns {@code null}, meaning
+	 * that the job must be executed alone.
+	 *
+	 * @return the key of the data this job works on or {@code null} if the job cannot be executed concurrently
+	 */
+	public default Object getConcurrencyKey() {
+		return null;
+	}
 }
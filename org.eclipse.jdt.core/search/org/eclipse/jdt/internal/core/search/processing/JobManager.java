@@ -15,10 +15,17 @@ package org.eclipse.jdt.internal.core.search.processing;
 
 import static org.eclipse.jdt.internal.core.JavaModelManager.trace;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 
@@ -34,6 +41,13 @@ import org.eclipse.jdt.internal.core.util.Util;
 
 public abstract class JobManager {
 
+	/**
+	 * System property to configure the maximum number of jobs executed concurrently (1 or missing: one job at a time),
+	 * see {@link IJob#getConcurrencyKey()}
+	 */
+	public static final String CONCURRENT_JOBS_PROPERTY = "jdt.core.indexManager.concurrentJobs"; //$NON-NLS-1$
+	private final int concurrentJobs = getConcurrentJobs(); // read by each job manager, so tests can set it
+
 	/**
 	 * queue of jobs to execute
 	 * <br>
@@ -43,6 +57,20 @@ public abstract class JobManager {
 
 	private volatile boolean executing;
 
+	/**
+	 * number of jobs at the start of the queue which are currently executed
+	 * <br>
+	 * synchronized by JobManager.this
+	 */
+	private int executingJobs;
+
+	/**
+	 * threads executing the jobs which run concurrently with the one of the processing thread, created on demand
+	 * <br>
+	 * synchronized by JobManager.this
+	 */
+	private ExecutorService concurrentJobsExecutor;
+
 	/**
 	 * background processing
 	 * <br>
@@ -143,13 +171,23 @@ public abstract class JobManager {
 
 		try {
 			IJob currentJob;
-			// cancel current job if it belongs to the given family
+			List<IJob> executingJobsOfFamily = new ArrayList<>(1);
+			// cancel current job(s) if it belongs to the given family
 			synchronized(this){
 				currentJob = currentJob();
+				if (currentJob != null) {
+					Iterator<IJob> it = this.awaitingJobs.iterator();
+					for (int i = Math.max(1, this.executingJobs); i > 0 && it.hasNext(); i--) {
+						IJob job = it.next();
+						if (jobFamily == null || job.belongsTo(jobFamily))
+							executingJobsOfFamily.add(job);
+					}
+				}
 				disable();
 			}
-			if (currentJob != null && (jobFamily == null || currentJob.belongsTo(jobFamily))) {
-				currentJob.cancel();
+			if (!executingJobsOfFamily.isEmpty()) {
+				for (IJob job : executingJobsOfFamily)
+					job.cancel();
 
 				synchronized (this) {
 					// wait until current active job has finished
@@ -212,13 +250,13 @@ public abstract class JobManager {
 		}
 		// Start at the end and go backwards
 		ListIterator<IJob> iterator = this.awaitingJobs.listIterator(awaitingJobsCount);
-		IJob first = this.awaitingJobs.get(0);
+		int started = Math.max(1, this.executingJobs);
 		while (iterator.hasPrevious()) {
-			IJob job = iterator.previous();
-			// don't check first job, as it may have already started
-			if(job == first) {
+			// don't check first job(s), as it may have already started
+			if (iterator.previousIndex() < started) {
 				break;
 			}
+			IJob job = iterator.previous();
 			if (request.test(job)) {
 				return true;
 			}
@@ -444,6 +482,88 @@ public abstract class JobManager {
 		}
 	}
 
+	/**
+	 * Answers the given first job of the queue and the following jobs which can be executed concurrently with it:
+	 * a sequence of jobs with distinct concurrency keys.
+	 */
+	private synchronized List<IJob> nextJobs(IJob first) {
+		if (this.concurrentJobs <= 1 || first.getConcurrencyKey() == null)
+			return List.of(first);
+		List<IJob> jobs = new ArrayList<>(this.concurrentJobs);
+		Set<Object> keys = new HashSet<>();
+		for (IJob job : this.awaitingJobs) {
+			Object key = job.getConcurrencyKey();
+			if (key == null || !keys.add(key))
+				break; // a job with the same key must wait until the previous one is done
+			jobs.add(job);
+			if (jobs.size() == this.concurrentJobs)
+				break;
+		}
+		return jobs;
+	}
+
+	/**
+	 * Executes the first job in the processing thread and the other ones in worker threads, answers when all are done.
+	 */
+	private void executeConcurrently(List<IJob> jobs) {
+		ExecutorService executor;
+		synchronized (this) {
+			if (this.concurrentJobsExecutor == null) {
+				this.concurrentJobsExecutor = Executors.newFixedThreadPool(this.concurrentJobs - 1, r -> {
+					Thread t = new Thread(r, processName() + " Worker"); //$NON-NLS-1$
+					t.setDaemon(true);
+					t.setPriority(Thread.NORM_PRIORITY-1);
+					t.setContextClassLoader(this.getClass().getClassLoader());
+					return t;
+				});
+			}
+			executor = this.concurrentJobsExecutor;
+		}
+		List<Future<Boolean>> futures = new ArrayList<>(jobs.size() - 1);
+		for (IJob job : jobs.subList(1, jobs.size()))
+			futures.add(executor.submit(() -> job.execute(null)));
+		Throwable failure = null;
+		try {
+			jobs.get(0).execute(null);
+		} catch (RuntimeException | Error e) {
+			failure = e;
+		}
+		// the queue must not move on while one of the jobs is still running, even if interrupted
+		boolean interrupted = false;
+		for (Future<Boolean> future : futures) {
+			while (true) {
+				try {
+					future.get();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				} catch (ExecutionException e) {
+					if (failure == null)
+						failure = e.getCause();
+					break;
+				}
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+		if (failure instanceof RuntimeException)
+			throw (RuntimeException) failure;
+		if (failure instanceof Error)
+			throw (Error) failure;
+	}
+
+	private static int getConcurrentJobs() {
+		String value = System.getProperty(CONCURRENT_JOBS_PROPERTY);
+		if (value != null) {
+			try {
+				return Math.max(1, Integer.parseInt(value.trim()));
+			} catch (NumberFormatException e) {
+				Util.log(e, "Failed to parse value of property \"" + CONCURRENT_JOBS_PROPERTY + "\": " + value); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		}
+		return 1;
+	}
+
 	/**
 	 * Infinite loop performing resource indexing
 	 */
@@ -486,6 +606,7 @@ public abstract class JobManager {
 			while (getProcessingThread() != null) {
 				try {
 					IJob job;
+					List<IJob> jobs = null;
 					synchronized (this) {
 						// handle shutdown case when notifyAll came before the wait but after the while loop was entered
 						if (getProcessingThread() == null) continue;
@@ -502,6 +623,9 @@ public abstract class JobManager {
 							} else {
 								this.wait(); // wait until a new job is posted or disabled indexer is enabled again
 							}
+						} else {
+							jobs = nextJobs(job);
+							this.executingJobs = jobs.size();
 						}
 					}
 					if (job == null) {
@@ -524,7 +648,8 @@ public abstract class JobManager {
 					idlingStart = null;
 					if (VERBOSE) {
 						trace(awaitingJobsCount() + " awaiting jobs"); //$NON-NLS-1$
-						trace("STARTING background job - " + job); //$NON-NLS-1$
+						for (IJob j : jobs)
+							trace("STARTING background job - " + j); //$NON-NLS-1$
 					}
 					try {
 						this.executing = true;
@@ -539,14 +664,25 @@ public abstract class JobManager {
 							JavaModelManager.getJavaModelManager().cacheZipFiles(this);
 							cacheZipFiles = true;
 						}
-						job.execute(null); // may enqueue a new job
+						if (jobs.size() == 1)
+							job.execute(null); // may enqueue a new job
+						else
+							executeConcurrently(jobs);
 					} finally {
-						this.executing = false;
-						if (VERBOSE) {
-							trace("FINISHED background job - " + job); //$NON-NLS-1$
+						boolean waitNeeded = false;
+						synchronized (this) {
+							for (IJob j : jobs) {
+								if (VERBOSE) {
+									trace("FINISHED background job - " + j); //$NON-NLS-1$
+								}
+								moveToNextJob();
+								waitNeeded |= j.waitNeeded();
+							}
+							this.executingJobs = 0;
+							// only now, discardJobs() must not see the finished jobs in the queue
+							this.executing = false;
 						}
-						moveToNextJob();
-						if (this.awaitingClients.get() == 0 && job.waitNeeded()) {
+						if (this.awaitingClients.get() == 0 && waitNeeded) {
 							if (VERBOSE) {
 								trace("WAITING after job - " + job); //$NON-NLS-1$
 							}
@@ -605,6 +741,12 @@ public abstract class JobManager {
 				// in case processing thread is handling a job
 				thread.join();
 			}
+			synchronized (this) {
+				if (this.concurrentJobsExecutor != null) {
+					this.concurrentJobsExecutor.shutdown();
+					this.concurrentJobsExecutor = null;
+				}
+			}
 			Job job = this.progressJob;
 			if (job != null) {
 				job.cancel();